@@ -17,17 +17,10 @@ package com.iland.coda.footprint;
 
 import static java.util.Objects.requireNonNull;
 
-import java.lang.reflect.Type;
-import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.Function;
-
-import com.google.common.collect.EvictingQueue;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+import com.google.gson.Gson;
 import net.codacloud.ApiClient;
 import net.codacloud.ApiException;
 import net.codacloud.JSON;
@@ -35,10 +28,8 @@ import net.codacloud.api.AdminApi;
 import net.codacloud.api.BrandingApi;
 import net.codacloud.api.CommonApi;
 import net.codacloud.api.ConsoleApi;
-import okhttp3.Interceptor;
-import okhttp3.MediaType;
+import okhttp3.Call;
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 
@@ -54,6 +45,9 @@ abstract class AbstractCodaClient implements CodaClient {
 
 	final Authentication authentication;
 	final XsrfInterceptor xsrfInterceptor;
+	final Executor executor;
+	final int maxInFlightPages;
+	final ScanSurfaceDispatcher scanSurfaceDispatcher;
 
 	protected final ApiClient apiClient;
 	protected final AdminApi adminApi;
@@ -61,21 +55,21 @@ abstract class AbstractCodaClient implements CodaClient {
 	protected final CommonApi commonApi;
 	protected final ConsoleApi consoleApi;
 
-	private static final Queue<String> rawJsonQueue = EvictingQueue.create(2);
-	protected static final Lock jsonLock = new ReentrantLock();
-
 	AbstractCodaClient(final String apiBasePath,
-		final Authentication authentication) {
+		final Authentication authentication, final CodaTransport transport,
+		final Executor executor, final int maxInFlightPages,
+		final int maxInFlightBatches) {
 		this.authentication =
 			requireNonNull(authentication, "authentication must not be null");
 		this.xsrfInterceptor = new XsrfInterceptor();
+		this.executor = requireNonNull(executor, "executor must not be null");
+		this.maxInFlightPages = maxInFlightPages;
+		this.scanSurfaceDispatcher =
+			new ScanSurfaceDispatcher(executor, maxInFlightBatches);
 
 		final OkHttpClient client =
-			createClient(authentication, xsrfInterceptor,
-				createEmptyStringInterceptor(),
-				createReportDataFromNoneInterceptor(),
-				createSchedulerConfigHackInterceptor(),
-				createDateTimeInterceptor());
+			requireNonNull(transport, "transport must not be null").newClient(
+				authentication, xsrfInterceptor, new ResponseNormalizer());
 
 		final ApiClient apiClient = new ApiClient(client);
 		apiClient.setBasePath(apiBasePath);
@@ -88,123 +82,22 @@ abstract class AbstractCodaClient implements CodaClient {
 		this.consoleApi = new ConsoleApi(apiClient);
 	}
 
-	private static OkHttpClient createClient(Interceptor... interceptors) {
-		OkHttpClient.Builder builder = new OkHttpClient.Builder();
-		//builder.addNetworkInterceptor(getProgressInterceptor());
-		Arrays.stream(interceptors).forEach(builder::addInterceptor);
-
-		builder.connectTimeout(Duration.ofSeconds(30))
-			.readTimeout(Duration.ofSeconds(120));
-
-		return builder.build();
-	}
-
-	/**
-	 * Replaces empty strings with null values to work around an error in GSON.
-	 *
-	 * @return an {@link Interceptor interceptor}
-	 */
-	private Interceptor createEmptyStringInterceptor() {
-		// empty Strings cause a JSON parse exception
-		return createBodyInterceptor(body -> body.replaceAll("\"\"", "null"));
-	}
-
-	/**
-	 * Replaces "None" with {@literal null} value to bypass invalid OpenAPI declaration.
-	 *
-	 * @return an {@link Interceptor interceptor}
-	 */
-	private Interceptor createReportDataFromNoneInterceptor() {
-		return createBodyInterceptor(
-			body -> body.replaceAll(":\\s*\"None\"", ":null"));
-	}
-
-	/**
-	 * Replaces schedulerConfig value to bypass invalid OpenAPI declaration.
-	 * FIXME: parse scheduler config
-	 *
-	 * @return an {@link Interceptor interceptor}
-	 */
-	private Interceptor createSchedulerConfigHackInterceptor() {
-		return createBodyInterceptor(
-			body -> body.replaceAll("\"schedulerConfig\":\\s*\\{\\}",
-				"\"schedulerConfig\":\"\""));
-	}
+	private static JSON createJSON(final ApiClient client) {
+		final JSON json = client.getJSON();
 
-	/**
-	 * Replaces date-time values in the snapshot reports with properly formatted values.
-	 * FIXME: parse scheduler config
-	 *
-	 * @return an {@link Interceptor interceptor}
-	 */
-	private Interceptor createDateTimeInterceptor() {
-		return createBodyInterceptor(AbstractCodaClient::fixAllDates);
+		return json.setGson(createGson(json.getGson()));
 	}
 
 	/**
-	 * Replaces dates of the format "2018-07-19 01:29:00+00:00" or "2022-05-18 15:28:09.807554+00:00" with "2022-05-18T15:28:09...".
+	 * Adds the type adapters of this SDK to a {@link Gson} of the generated client.
 	 *
-	 * @param body a {@link String}
-	 * @return the body with all dates replaced with properly formatted values
+	 * @param gson the {@link Gson} of a generated {@link JSON}
+	 * @return a new {@link Gson}
 	 */
-	private static String fixAllDates(final String body) {
-		// e.g. replace "2018-07-19 01:29:00+00:00" or "2022-05-18 15:28:09.807554+00:00" with "2022-05-18T15:28:09..."
-		return body.replaceAll(
-			"(\\d{4}-\\d{2}-\\d{2})\\s*(\\d{2}:\\d{2}:\\d{2})(\\.\\d+)?(\\+00:00)",
-			"$1T$2$3$4");
-	}
-
-	private static Interceptor createBodyInterceptor(
-		final Function<String, String> function) {
-		return chain -> {
-			final Request request = chain.request();
-			final Response response = chain.proceed(request);
-
-			if (response.code() == 200) {
-				final ResponseBody body = response.body();
-				final String newResponseBody = function.apply(body.string());
-				MediaType contentType = body.contentType();
-				ResponseBody responseBody =
-					ResponseBody.Companion.create(newResponseBody, contentType);
-				return response.newBuilder().body(responseBody).build();
-			}
-
-			return response;
-		};
-	}
-
-	private static JSON createJSON(final ApiClient client) {
-		final JSON json = client.getJSON();
-
-		return new JSON() {
-			/**
-			 * Some double quotes in the snapshot reports are being replaced
-			 * with \null. I can't step through the code to find the cause
-			 * because it's happening in Kotlin. Wasted many hours trying to fix
-			 * it and settled on this hack to fix the problem. Please roll with
-			 * it.
-			 *
-			 * @param body       The JSON string
-			 * @param returnType The type to deserialize into
-			 * @param <T>        the return type
-			 * @return an instance of {@link T}
-			 */
-			@Override
-			public <T> T deserialize(final String body, final Type returnType) {
-				final String fixedBody = body.replaceAll("\\\\null", "\"")
-					.replaceAll("\"criticalLevel\":\"(\\w+)\"",
-						"\"criticalLevel\":-1");
-
-				jsonLock.lock();
-				try {
-					rawJsonQueue.add(fixedBody);
-				} finally {
-					jsonLock.unlock();
-				}
-
-				return json.deserialize(fixedBody, returnType);
-			}
-		};
+	static Gson createGson(final Gson gson) {
+		return gson.newBuilder()
+			.registerTypeAdapterFactory(new CriticalLevelTypeAdapterFactory())
+			.create();
 	}
 
 	@Override
@@ -217,17 +110,26 @@ abstract class AbstractCodaClient implements CodaClient {
 	}
 
 	/**
-	 * @return a {@link List list} of the {@link String raw JSON body} of the most recent requests in FIFO order
+	 * Executes the supplied {@link Call call} and returns the {@link String raw JSON body} of its response
+	 * without deserializing it.
+	 *
+	 * @param call a {@link Call call} created by one of the generated APIs
+	 * @return the {@link String raw JSON body} or {@literal null} if the response has no body
+	 * @throws ApiException if the call fails or the response is not successful
 	 */
-	protected final List<String> getRawJsonOfRecentCalls() {
-		jsonLock.lock();
-		try {
-			final List<String> list = new ArrayList<>();
-			list.addAll(rawJsonQueue);
-
-			return list;
-		} finally {
-			jsonLock.unlock();
+	protected final String executeForJson(final Call call) throws ApiException {
+		try (final Response response = call.execute()) {
+			final ResponseBody body = response.body();
+			final String json = body == null ? null : body.string();
+
+			if (!response.isSuccessful()) {
+				throw new ApiException(response.message(), response.code(),
+					response.headers().toMultimap(), json);
+			}
+
+			return json;
+		} catch (final IOException e) {
+			throw new ApiException(e);
 		}
 	}
 
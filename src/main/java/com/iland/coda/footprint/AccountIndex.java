@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import net.codacloud.model.Account;
+
+/**
+ * An immutable snapshot of {@link Account accounts} indexed by name.
+ *
+ * @see CodaClient#findAccountWithName(String)
+ */
+final class AccountIndex {
+
+	private final Set<Account> accounts;
+	private final Map<String, Account> accountsByName = new HashMap<>();
+
+	AccountIndex(final Collection<Account> accounts) {
+		this.accounts =
+			Collections.unmodifiableSet(new LinkedHashSet<>(accounts));
+		// like a linear search the first account with a name wins
+		this.accounts.forEach(
+			account -> accountsByName.putIfAbsent(account.getName(), account));
+	}
+
+	Set<Account> accounts() {
+		return accounts;
+	}
+
+	Optional<Account> withName(final String name) {
+		return Optional.ofNullable(accountsByName.get(name));
+	}
+
+}
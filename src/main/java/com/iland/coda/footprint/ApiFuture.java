@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import net.codacloud.ApiCallback;
+import net.codacloud.ApiException;
+import okhttp3.Call;
+
+/**
+ * {@link ApiFuture} adapts the {@link ApiCallback callbacks} of the generated {@code *Async} methods to a
+ * {@link CompletableFuture}. Cancelling the future cancels the underlying {@link Call call}.
+ *
+ * @param <T> the response type
+ */
+final class ApiFuture<T> extends CompletableFuture<T> implements ApiCallback<T> {
+
+	/**
+	 * Starts a call of one of the generated {@code *Async} methods.
+	 *
+	 * @param <T> the response type
+	 */
+	@FunctionalInterface
+	interface AsyncCall<T> {
+
+		Call enqueue(ApiCallback<T> callback) throws ApiException;
+
+	}
+
+	private volatile Call call;
+
+	private ApiFuture() {
+	}
+
+	/**
+	 * Enqueues the call on the HTTP client's dispatcher.
+	 *
+	 * @param asyncCall the call, e.g. {@code callback -> consoleApi.consoleScanSurfaceScannersListAsync(accountId, callback)}
+	 * @param <T>       the response type
+	 * @return a {@link CompletableFuture future} that completes with the response or exceptionally with an {@link ApiException}
+	 */
+	static <T> CompletableFuture<T> enqueue(final AsyncCall<T> asyncCall) {
+		final ApiFuture<T> future = new ApiFuture<>();
+		try {
+			future.call = asyncCall.enqueue(future);
+		} catch (final ApiException e) {
+			future.completeExceptionally(e);
+		}
+
+		return future;
+	}
+
+	@Override
+	public boolean cancel(final boolean mayInterruptIfRunning) {
+		final Call call = this.call;
+		if (call != null) {
+			call.cancel();
+		}
+
+		return super.cancel(mayInterruptIfRunning);
+	}
+
+	@Override
+	public void onFailure(final ApiException e, final int statusCode,
+		final Map<String, List<String>> responseHeaders) {
+		completeExceptionally(e);
+	}
+
+	@Override
+	public void onSuccess(final T result, final int statusCode,
+		final Map<String, List<String>> responseHeaders) {
+		complete(result);
+	}
+
+	@Override
+	public void onUploadProgress(final long bytesWritten,
+		final long contentLength, final boolean done) {
+	}
+
+	@Override
+	public void onDownloadProgress(final long bytesRead,
+		final long contentLength, final boolean done) {
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import net.codacloud.ApiException;
+import net.codacloud.model.Account;
+import net.codacloud.model.AdminUser;
+import net.codacloud.model.AgentlessScannerSrz;
+import net.codacloud.model.CVR;
+import net.codacloud.model.ExtendMessageRequest;
+import net.codacloud.model.RegistrationLight;
+import net.codacloud.model.Scan;
+import net.codacloud.model.ScanStatus;
+import net.codacloud.model.ScanSurfaceEntry;
+import net.codacloud.model.ScanUuidScannerId;
+import net.codacloud.model.Task;
+
+import com.iland.coda.footprint.CodaClient.ReportType;
+
+/**
+ * The non-blocking counterpart of {@link CodaClient}. Calls are enqueued on the HTTP client's dispatcher instead of
+ * blocking the calling thread, so thousands of concurrent calls need only a handful of threads. The returned
+ * {@link CompletableFuture futures} complete exceptionally with an {@link ApiException} when a call fails.
+ *
+ * @see CodaClient
+ */
+public interface AsyncCodaClient {
+
+	/**
+	 * Authenticate against the CODA service.
+	 *
+	 * @return a {@link CompletableFuture future} of {@link AsyncCodaClient this}
+	 */
+	CompletableFuture<AsyncCodaClient> login();
+
+	/**
+	 * Provides a {@link Set set} of active registrations.
+	 *
+	 * @return a {@link CompletableFuture future} of a {@link Set set} of active registrations
+	 */
+	default CompletableFuture<Set<RegistrationLight>> listRegistrations() {
+		return listRegistrations(null);
+	}
+
+	/**
+	 * Provides a {@link Set set} of active registrations for a specific category.
+	 *
+	 * @param category the category of registrations you want
+	 * @return a {@link CompletableFuture future} of a {@link Set set} of active registrations for a specific category
+	 */
+	CompletableFuture<Set<RegistrationLight>> listRegistrations(
+		String category);
+
+	/**
+	 * Provides a {@link Set set} of {@link Account accounts}.
+	 *
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of a {@link Set set} of {@link Account accounts}
+	 */
+	CompletableFuture<Set<Account>> listAccounts(Integer accountId);
+
+	/**
+	 * Get list of available scanners. This includes the default Cloud Scanner, as well as internal scanners.
+	 *
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of a {@link List} of available {@link AgentlessScannerSrz scanners}
+	 */
+	CompletableFuture<List<AgentlessScannerSrz>> getScanners(
+		Integer accountId);
+
+	/**
+	 * Updates the scan surface with new data (extend scan surface modal). <strong>This is an idempotent operation!</strong>
+	 *
+	 * @param message         a {@link ExtendMessageRequest message} of targets and scanners
+	 * @param isNoScanRequest {@code true} to turn off automatic scan
+	 * @param accountId       Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of a {@link List list} of {@link ScanUuidScannerId scan UUIDs}
+	 */
+	CompletableFuture<List<ScanUuidScannerId>> updateScanSurface(
+		ExtendMessageRequest message, boolean isNoScanRequest,
+		Integer accountId);
+
+	/**
+	 * Rescans all user inputs from Scan Surface.
+	 *
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of a {@link List} of {@link ScanUuidScannerId scan UUIDs}
+	 */
+	CompletableFuture<List<ScanUuidScannerId>> rescan(Integer accountId);
+
+	/**
+	 * Provides information regarding currently active scans.
+	 *
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of the {@link ScanStatus scan status}
+	 */
+	CompletableFuture<ScanStatus> getScanStatus(Integer accountId);
+
+	/**
+	 * Provides information regarding a scan.
+	 *
+	 * @param scanId    the scan ID
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of the {@link Scan scan}
+	 */
+	CompletableFuture<Scan> getScanStatus(String scanId, Integer accountId);
+
+	/**
+	 * Retrieve the collated {@link ScanSurfaceEntry scan surface entries} of all scanners for the given
+	 * {@link Integer accountId}. All scanners are queried concurrently.
+	 *
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of the collated {@link ScanSurfaceEntry scan surface entries}
+	 */
+	default CompletableFuture<Set<ScanSurfaceEntry>> getScanSurface(
+		final Integer accountId) {
+		return getScanners(accountId).thenCompose(scanners -> {
+			final List<CompletableFuture<List<ScanSurfaceEntry>>> entries =
+				scanners.stream()
+					.map(scanner -> getScanSurface(scanner.getId(), accountId))
+					.collect(Collectors.toList());
+
+			return CompletableFuture.allOf(
+					entries.toArray(new CompletableFuture<?>[0]))
+				.thenApply(ignored -> entries.stream()
+					.map(CompletableFuture::join)
+					.flatMap(Collection::stream)
+					.collect(Collectors.toSet()));
+		});
+	}
+
+	/**
+	 * Retrieve {@link List list} of user inputs and the resulting assets.
+	 *
+	 * @param scannerId Optional scanner ID filter. If not set or invalid, falls back on all scanners
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of a {@link List list} of {@link ScanSurfaceEntry entries}
+	 */
+	default CompletableFuture<List<ScanSurfaceEntry>> getScanSurface(
+		final Integer scannerId, final Integer accountId) {
+		return getScanSurface(scannerId, null, accountId);
+	}
+
+	/**
+	 * Retrieve {@link List list} of user inputs and the resulting assets.
+	 *
+	 * @param scannerId  Optional scanner ID filter. If not set or invalid, falls back on all scanners
+	 * @param textFilter Optional page you want to request
+	 * @param accountId  Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of a {@link List list} of {@link ScanSurfaceEntry entries}
+	 */
+	CompletableFuture<List<ScanSurfaceEntry>> getScanSurface(
+		Integer scannerId, String textFilter, Integer accountId);
+
+	/**
+	 * Provides a list of report timestamps.
+	 *
+	 * @param reportType the {@link ReportType report type}
+	 * @param accountId  Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of a {@link List} of report timestamps
+	 */
+	default CompletableFuture<List<String>> getReportTimestamps(
+		final ReportType reportType, final Integer accountId) {
+		return getReportTimestamps(reportType, null, accountId);
+	}
+
+	/**
+	 * Provides a list of report timestamps.
+	 *
+	 * @param reportType     the {@link ReportType report type}
+	 * @param isXlsxDownload optional
+	 * @param accountId      Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of a {@link List} of report timestamps
+	 */
+	CompletableFuture<List<String>> getReportTimestamps(ReportType reportType,
+		Boolean isXlsxDownload, Integer accountId);
+
+	/**
+	 * Retrieve a {@link CVR report} including its technical report.
+	 *
+	 * @param timestamp  one of the {@link #getReportTimestamps(ReportType, Integer) report timestamps}
+	 * @param reportType the {@link ReportType report type}
+	 * @param accountId  Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of the {@link CVR report}
+	 */
+	CompletableFuture<CVR> getReport(String timestamp, ReportType reportType,
+		Integer accountId);
+
+	/**
+	 * Provides a {@link List} of {@link AdminUser users}.
+	 *
+	 * @return a {@link CompletableFuture future} of a {@link List} of {@link AdminUser users}
+	 */
+	CompletableFuture<List<AdminUser>> listUsers();
+
+	/**
+	 * Provides a {@link List} of scheduled {@link Task tasks}.
+	 *
+	 * @param scannerId the scanner ID
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of a {@link List} of scheduled {@link Task tasks}
+	 */
+	CompletableFuture<List<Task>> listScheduledTasks(String scannerId,
+		Integer accountId);
+
+	/**
+	 * Applies an action to a scheduled {@link Task task}.
+	 *
+	 * @param taskId    the task ID
+	 * @param action    the action, e.g. "disable"
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link CompletableFuture future} of the updated {@link Task task}
+	 */
+	CompletableFuture<Task> updateSchedule(String taskId, String action,
+		Integer accountId);
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * A service provider interface through which the caches of a caching
+ * {@link CodaClient} are exposed to a metrics system, e.g. as Micrometer
+ * function counters and gauges.
+ * <p>
+ * Each cache is registered once, when the client is created, with suppliers
+ * that are cheap enough to be polled on every scrape. The supplied
+ * {@link CacheStats statistics} are cumulative: hits, misses, loads and their
+ * total time in nanoseconds, and evictions.
+ * <p>
+ * Since several clients may share a metrics system, every cache is registered
+ * under the name of its client as well, e.g. as a {@code client} tag, and is
+ * unregistered by closing the returned {@link Registration registration}.
+ *
+ * @see CacheSettings#metrics(CacheMetrics)
+ */
+@FunctionalInterface
+public interface CacheMetrics {
+
+	/**
+	 * Registers a cache.
+	 *
+	 * @param client the name of the client the cache belongs to
+	 * @param cache  the name of the cache, e.g. {@code accounts}
+	 * @param stats  supplies a snapshot of the cache's {@link CacheStats statistics}
+	 * @param size   supplies the approximate number of entries in the cache
+	 * @return the {@link Registration registration} of the cache
+	 */
+	Registration register(String client, String cache,
+		Supplier<CacheStats> stats, LongSupplier size);
+
+	/**
+	 * @return {@link CacheMetrics} that ignore all caches
+	 */
+	static CacheMetrics none() {
+		return (client, cache, stats, size) -> () -> {
+		};
+	}
+
+	/**
+	 * The registration of a cache, which is removed from the metrics system
+	 * when it is closed.
+	 */
+	@FunctionalInterface
+	interface Registration extends AutoCloseable {
+
+		/**
+		 * Unregisters the cache. Closing a registration more than once has no
+		 * further effect.
+		 */
+		@Override
+		void close();
+
+	}
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import com.iland.coda.footprint.concurrent.IoExecutors;
+
+/**
+ * The expiry and refresh intervals of the caches of a caching
+ * {@link CodaClient}.
+ * <p>
+ * An entry is reloaded in the background on the
+ * {@link #refreshExecutor(Executor) refresh executor} when it is accessed
+ * after its refresh interval has elapsed; until the reload completes callers
+ * are served the previous value. An entry that has not been accessed for its
+ * whole expiry interval is discarded and the next caller waits for it to be
+ * loaded.
+ */
+public final class CacheSettings {
+
+	/**
+	 * The default maximum weight, in characters of JSON, of the reports held
+	 * in memory.
+	 */
+	public static final long DEFAULT_MAX_REPORT_WEIGHT = 128L * 1024 * 1024;
+
+	private Expiry registrations =
+		new Expiry(Duration.ofDays(1), Duration.ofHours(1));
+	private Expiry accounts =
+		new Expiry(Duration.ofDays(1), Duration.ofHours(1));
+	private Expiry scanners =
+		new Expiry(Duration.ofHours(1), Duration.ofMinutes(15));
+	private Expiry users =
+		new Expiry(Duration.ofHours(1), Duration.ofMinutes(15));
+	private Expiry scanSurface = new Expiry(Duration.ofHours(1), null);
+	private Executor refreshExecutor = IoExecutors.shared();
+	private long maxReportWeight = DEFAULT_MAX_REPORT_WEIGHT;
+	private CacheMetrics metrics = CacheMetrics.none();
+	private String clientName;
+
+	/**
+	 * Sets the intervals of the registration cache. Defaults to an expiry of
+	 * one day and a refresh of one hour.
+	 *
+	 * @param expireAfterWrite  the time after which an entry is discarded
+	 * @param refreshAfterWrite the time after which an entry is reloaded in the background or {@literal null} to never reload it
+	 * @return {@link CacheSettings this}
+	 */
+	public CacheSettings registrations(final Duration expireAfterWrite,
+		final Duration refreshAfterWrite) {
+		this.registrations = new Expiry(expireAfterWrite, refreshAfterWrite);
+		return this;
+	}
+
+	/**
+	 * Sets the intervals of the account cache. Defaults to an expiry of one
+	 * day and a refresh of one hour.
+	 *
+	 * @param expireAfterWrite  the time after which an entry is discarded
+	 * @param refreshAfterWrite the time after which an entry is reloaded in the background or {@literal null} to never reload it
+	 * @return {@link CacheSettings this}
+	 */
+	public CacheSettings accounts(final Duration expireAfterWrite,
+		final Duration refreshAfterWrite) {
+		this.accounts = new Expiry(expireAfterWrite, refreshAfterWrite);
+		return this;
+	}
+
+	/**
+	 * Sets the intervals of the scanner cache. Defaults to an expiry of one
+	 * hour and a refresh of 15 minutes.
+	 *
+	 * @param expireAfterWrite  the time after which an entry is discarded
+	 * @param refreshAfterWrite the time after which an entry is reloaded in the background or {@literal null} to never reload it
+	 * @return {@link CacheSettings this}
+	 */
+	public CacheSettings scanners(final Duration expireAfterWrite,
+		final Duration refreshAfterWrite) {
+		this.scanners = new Expiry(expireAfterWrite, refreshAfterWrite);
+		return this;
+	}
+
+	/**
+	 * Sets the intervals of the user cache. Defaults to an expiry of one hour
+	 * and a refresh of 15 minutes.
+	 *
+	 * @param expireAfterWrite  the time after which an entry is discarded
+	 * @param refreshAfterWrite the time after which an entry is reloaded in the background or {@literal null} to never reload it
+	 * @return {@link CacheSettings this}
+	 */
+	public CacheSettings users(final Duration expireAfterWrite,
+		final Duration refreshAfterWrite) {
+		this.users = new Expiry(expireAfterWrite, refreshAfterWrite);
+		return this;
+	}
+
+	/**
+	 * Sets the intervals of the scan surface cache. Defaults to an expiry of
+	 * one hour without a refresh.
+	 *
+	 * @param expireAfterWrite  the time after which an entry is discarded
+	 * @param refreshAfterWrite the time after which an entry is reloaded in the background or {@literal null} to never reload it
+	 * @return {@link CacheSettings this}
+	 */
+	public CacheSettings scanSurface(final Duration expireAfterWrite,
+		final Duration refreshAfterWrite) {
+		this.scanSurface = new Expiry(expireAfterWrite, refreshAfterWrite);
+		return this;
+	}
+
+	/**
+	 * Sets the {@link Executor executor} entries are reloaded on. Defaults to
+	 * {@link IoExecutors#shared()}.
+	 *
+	 * @param refreshExecutor an {@link Executor executor} suitable for blocking calls
+	 * @return {@link CacheSettings this}
+	 */
+	public CacheSettings refreshExecutor(final Executor refreshExecutor) {
+		this.refreshExecutor =
+			requireNonNull(refreshExecutor, "refreshExecutor must not be null");
+		return this;
+	}
+
+	/**
+	 * Sets the maximum weight, in characters of JSON, of the reports held in
+	 * memory. Defaults to {@link #DEFAULT_MAX_REPORT_WEIGHT}.
+	 *
+	 * @param maxReportWeight the maximum weight of the reports held in memory
+	 * @return {@link CacheSettings this}
+	 */
+	public CacheSettings maxReportWeight(final long maxReportWeight) {
+		checkArgument(maxReportWeight >= 0,
+			"maxReportWeight must not be negative");
+		this.maxReportWeight = maxReportWeight;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link CacheMetrics metrics} the caches are registered with.
+	 * Defaults to {@link CacheMetrics#none()}.
+	 *
+	 * @param metrics the {@link CacheMetrics metrics} to register the caches with
+	 * @return {@link CacheSettings this}
+	 */
+	public CacheSettings metrics(final CacheMetrics metrics) {
+		this.metrics = requireNonNull(metrics, "metrics must not be null");
+		return this;
+	}
+
+	/**
+	 * Sets the name under which the caches are registered with the
+	 * {@link #metrics(CacheMetrics) metrics}, e.g. the tenant of the client.
+	 * Defaults to a name that is unique to each client.
+	 *
+	 * @param clientName the name of the client
+	 * @return {@link CacheSettings this}
+	 */
+	public CacheSettings clientName(final String clientName) {
+		this.clientName =
+			requireNonNull(clientName, "clientName must not be null");
+		return this;
+	}
+
+	Expiry registrations() {
+		return registrations;
+	}
+
+	Expiry accounts() {
+		return accounts;
+	}
+
+	Expiry scanners() {
+		return scanners;
+	}
+
+	Expiry users() {
+		return users;
+	}
+
+	Expiry scanSurface() {
+		return scanSurface;
+	}
+
+	Executor refreshExecutor() {
+		return refreshExecutor;
+	}
+
+	long maxReportWeight() {
+		return maxReportWeight;
+	}
+
+	CacheMetrics metrics() {
+		return metrics;
+	}
+
+	String clientName() {
+		return clientName;
+	}
+
+	static final class Expiry {
+
+		private final Duration expireAfterWrite;
+		private final Duration refreshAfterWrite;
+
+		private Expiry(final Duration expireAfterWrite,
+			final Duration refreshAfterWrite) {
+			requireNonNull(expireAfterWrite, "expireAfterWrite must not be null");
+			checkArgument(refreshAfterWrite == null
+					|| refreshAfterWrite.compareTo(expireAfterWrite) < 0,
+				"refreshAfterWrite must be shorter than expireAfterWrite");
+			this.expireAfterWrite = expireAfterWrite;
+			this.refreshAfterWrite = refreshAfterWrite;
+		}
+
+		Duration expireAfterWrite() {
+			return expireAfterWrite;
+		}
+
+		Duration refreshAfterWrite() {
+			return refreshAfterWrite;
+		}
+
+	}
+
+}
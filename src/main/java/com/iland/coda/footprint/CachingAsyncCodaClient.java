@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import net.codacloud.model.Account;
+import net.codacloud.model.AdminUser;
+import net.codacloud.model.AgentlessScannerSrz;
+import net.codacloud.model.CVR;
+import net.codacloud.model.ExtendMessageRequest;
+import net.codacloud.model.RegistrationLight;
+import net.codacloud.model.Scan;
+import net.codacloud.model.ScanStatus;
+import net.codacloud.model.ScanSurfaceEntry;
+import net.codacloud.model.ScanUuidScannerId;
+import net.codacloud.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.iland.coda.footprint.CodaClient.ReportType;
+
+/**
+ * {@link CachingAsyncCodaClient} caches the same data as {@link CachingCodaClient} with the same
+ * {@link CacheSettings settings}. The {@link CompletableFuture futures} themselves are cached, so concurrent callers
+ * share a single in-flight call; failed futures are discarded so that the next caller tries again. An entry whose
+ * refresh interval has elapsed is reloaded through the asynchronous delegatee, so the
+ * {@link CacheSettings#refreshExecutor(Executor) refresh executor} is not used; callers are served the previous future
+ * until the reload succeeds.
+ */
+final class CachingAsyncCodaClient implements AsyncCodaClient, AutoCloseable {
+
+	private static final Logger logger =
+		LoggerFactory.getLogger(CachingAsyncCodaClient.class);
+	private static final int CONCURRENCY_LEVEL = 10;
+	private static final AtomicLong CLIENT_SEQUENCE = new AtomicLong();
+
+	private static final String DEFAULT_CATEGORY = "*";
+	private static final Integer DEFAULT_ACCOUNT_ID = 0;
+	private static final String DEFAULT_USER_KEY = "*";
+
+	private final AsyncCodaClient delegatee;
+
+	private final LoadingCache<String, CompletableFuture<Set<RegistrationLight>>>
+		registrationsCache;
+	private final LoadingCache<Integer, CompletableFuture<Set<Account>>>
+		accountCache;
+	private final LoadingCache<Integer, CompletableFuture<List<AgentlessScannerSrz>>>
+		scannerCache;
+	private final LoadingCache<String, CompletableFuture<List<AdminUser>>>
+		userCache;
+	private final Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+	private final List<CacheMetrics.Registration> registrations =
+		new ArrayList<>();
+
+	CachingAsyncCodaClient(final AsyncCodaClient delegatee) {
+		this(delegatee, new CacheSettings());
+	}
+
+	/**
+	 * @param delegatee the {@link AsyncCodaClient client} to delegate to
+	 * @param settings  the {@link CacheSettings settings} of the caches
+	 */
+	CachingAsyncCodaClient(final AsyncCodaClient delegatee,
+		final CacheSettings settings) {
+		this.delegatee =
+			Preconditions.checkNotNull(delegatee, "delegatee must not be null");
+
+		this.registrationsCache =
+			createCache("Registration cache", settings.registrations(),
+				category -> delegatee.listRegistrations(
+					Objects.equals(category, DEFAULT_CATEGORY) ?
+						null :
+						category));
+		this.accountCache = createCache("Account cache", settings.accounts(),
+			accountId -> delegatee.listAccounts(
+				Objects.equals(accountId, DEFAULT_ACCOUNT_ID) ?
+					null :
+					accountId));
+		this.scannerCache = createCache("Scanner cache", settings.scanners(),
+			accountId -> delegatee.getScanners(
+				Objects.equals(accountId, DEFAULT_ACCOUNT_ID) ?
+					null :
+					accountId));
+		this.userCache = createCache("User cache", settings.users(),
+			ignored -> delegatee.listUsers());
+
+		final String clientName = settings.clientName() != null ?
+			settings.clientName() :
+			"coda-async-" + CLIENT_SEQUENCE.incrementAndGet();
+		register(clientName, "registrations", registrationsCache,
+			settings.metrics());
+		register(clientName, "accounts", accountCache, settings.metrics());
+		register(clientName, "scanners", scannerCache, settings.metrics());
+		register(clientName, "users", userCache, settings.metrics());
+	}
+
+	/**
+	 * Creates a {@link LoadingCache cache} of {@link CompletableFuture futures}
+	 * whose entries are replaced by a reload once their refresh interval has
+	 * elapsed and the reloaded future has completed successfully.
+	 */
+	private static <K, V> LoadingCache<K, CompletableFuture<V>> createCache(
+		final String name, final CacheSettings.Expiry expiry,
+		final Function<K, CompletableFuture<V>> loader) {
+		final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+			.concurrencyLevel(CONCURRENCY_LEVEL)
+			.expireAfterWrite(expiry.expireAfterWrite().toNanos(),
+				TimeUnit.NANOSECONDS)
+			.recordStats();
+		if (expiry.refreshAfterWrite() != null) {
+			builder.refreshAfterWrite(expiry.refreshAfterWrite().toNanos(),
+				TimeUnit.NANOSECONDS);
+		}
+
+		return builder.removalListener(
+				CachingAsyncCodaClient.<K, CompletableFuture<V>>createRemovalListener(
+					name))
+			.build(new CacheLoader<K, CompletableFuture<V>>() {
+				@Override
+				public CompletableFuture<V> load(final K key) {
+					return loader.apply(key);
+				}
+
+				@Override
+				public ListenableFuture<CompletableFuture<V>> reload(
+					final K key, final CompletableFuture<V> oldValue) {
+					final SettableFuture<CompletableFuture<V>> reloaded =
+						SettableFuture.create();
+					final CompletableFuture<V> future = loader.apply(key);
+					future.whenComplete((value, throwable) -> {
+						if (throwable == null) {
+							reloaded.set(future);
+						} else {
+							reloaded.setException(throwable);
+						}
+					});
+
+					return reloaded;
+				}
+			});
+	}
+
+	private void register(final String clientName, final String name,
+		final Cache<?, ?> cache, final CacheMetrics metrics) {
+		caches.put(name, cache);
+		registrations.add(
+			metrics.register(clientName, name, cache::stats, cache::size));
+	}
+
+	/**
+	 * Unregisters the caches from their {@link CacheMetrics metrics}.
+	 */
+	@Override
+	public void close() {
+		synchronized (registrations) {
+			registrations.forEach(CacheMetrics.Registration::close);
+			registrations.clear();
+		}
+	}
+
+	@Override
+	public CompletableFuture<AsyncCodaClient> login() {
+		return delegatee.login().thenApply(ignored -> this);
+	}
+
+	@Override
+	public CompletableFuture<Set<RegistrationLight>> listRegistrations(
+		final String category) {
+		if (category == null || DEFAULT_CATEGORY.equals(category)) {
+			// only the default category is cached to simplify cache validation
+			return get(registrationsCache, DEFAULT_CATEGORY).thenApply(
+				Collections::unmodifiableSet);
+		}
+
+		return delegatee.listRegistrations(category);
+	}
+
+	@Override
+	public CompletableFuture<Set<Account>> listAccounts(
+		final Integer accountId) {
+		final Integer accountIdKey =
+			accountId == null ? DEFAULT_ACCOUNT_ID : accountId;
+
+		return get(accountCache, accountIdKey).thenApply(
+			Collections::unmodifiableSet);
+	}
+
+	@Override
+	public CompletableFuture<List<AgentlessScannerSrz>> getScanners(
+		final Integer accountId) {
+		final Integer accountIdKey =
+			accountId == null ? DEFAULT_ACCOUNT_ID : accountId;
+
+		return get(scannerCache, accountIdKey).thenApply(
+			Collections::unmodifiableList);
+	}
+
+	@Override
+	public CompletableFuture<List<ScanUuidScannerId>> updateScanSurface(
+		final ExtendMessageRequest message, final boolean isNoScanRequest,
+		final Integer accountId) {
+		return delegatee.updateScanSurface(message, isNoScanRequest, accountId);
+	}
+
+	@Override
+	public CompletableFuture<List<ScanUuidScannerId>> rescan(
+		final Integer accountId) {
+		return delegatee.rescan(accountId);
+	}
+
+	@Override
+	public CompletableFuture<ScanStatus> getScanStatus(
+		final Integer accountId) {
+		return delegatee.getScanStatus(accountId);
+	}
+
+	@Override
+	public CompletableFuture<Scan> getScanStatus(final String scanId,
+		final Integer accountId) {
+		return delegatee.getScanStatus(scanId, accountId);
+	}
+
+	@Override
+	public CompletableFuture<List<ScanSurfaceEntry>> getScanSurface(
+		final Integer scannerId, final String textFilter,
+		final Integer accountId) {
+		return delegatee.getScanSurface(scannerId, textFilter, accountId);
+	}
+
+	@Override
+	public CompletableFuture<List<String>> getReportTimestamps(
+		final ReportType reportType, final Boolean isXlsxDownload,
+		final Integer accountId) {
+		return delegatee.getReportTimestamps(reportType, isXlsxDownload,
+			accountId);
+	}
+
+	@Override
+	public CompletableFuture<CVR> getReport(final String timestamp,
+		final ReportType reportType, final Integer accountId) {
+		return delegatee.getReport(timestamp, reportType, accountId);
+	}
+
+	@Override
+	public CompletableFuture<List<AdminUser>> listUsers() {
+		return get(userCache, DEFAULT_USER_KEY).thenApply(
+			Collections::unmodifiableList);
+	}
+
+	@Override
+	public CompletableFuture<List<Task>> listScheduledTasks(
+		final String scannerId, final Integer accountId) {
+		return delegatee.listScheduledTasks(scannerId, accountId);
+	}
+
+	@Override
+	public CompletableFuture<Task> updateSchedule(final String taskId,
+		final String action, final Integer accountId) {
+		return delegatee.updateSchedule(taskId, action, accountId);
+	}
+
+	Map<String, CacheStats> getCacheStats() {
+		return ImmutableMap.copyOf(Maps.transformValues(caches, Cache::stats));
+	}
+
+	private static <K, V> CompletableFuture<V> get(
+		final LoadingCache<K, CompletableFuture<V>> cache, final K key) {
+		final CompletableFuture<V> future;
+		try {
+			future = cache.getUnchecked(key);
+		} catch (UncheckedExecutionException e) {
+			final CompletableFuture<V> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e.getCause());
+			return failed;
+		}
+
+		future.whenComplete((value, throwable) -> {
+			if (throwable != null) {
+				cache.asMap().remove(key, future);
+			}
+		});
+
+		return future;
+	}
+
+	private static <K, V> RemovalListener<K, V> createRemovalListener(
+		final String name) {
+		return notification -> logger.debug("{}: '{}' was {} because it was {}",
+			name, notification.getKey(),
+			notification.wasEvicted() ? "evicted" : "removed",
+			notification.getCause());
+	}
+
+}
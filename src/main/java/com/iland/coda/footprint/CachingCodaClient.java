@@ -18,26 +18,48 @@ package com.iland.coda.footprint;
 import static com.iland.coda.footprint.Registrations.toLight;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gson.Gson;
 import net.codacloud.ApiException;
+import net.codacloud.JSON;
 import net.codacloud.model.Account;
 import net.codacloud.model.AdminUser;
 import net.codacloud.model.AgentlessScannerSrz;
+import net.codacloud.model.CVR;
 import net.codacloud.model.ExtendMessageRequest;
 import net.codacloud.model.Registration;
 import net.codacloud.model.RegistrationCreateRequest;
@@ -58,79 +80,133 @@ import org.slf4j.LoggerFactory;
  *
  * @author <a href="mailto:tagspilman@1111systems.com">Tag Spilman</a>
  */
-final class CachingCodaClient implements CodaClient {
+final class CachingCodaClient implements CodaClient, AutoCloseable {
 
 	private static final Logger logger =
 		LoggerFactory.getLogger(CachingCodaClient.class);
 	private static final int CONCURRENCY_LEVEL = 10;
+	private static final AtomicLong CLIENT_SEQUENCE = new AtomicLong();
 
 	private static final String DEFAULT_CATEGORY = "*";
 	private static final Integer DEFAULT_ACCOUNT_ID = 0;
 	private static final String DEFAULT_USER_KEY = "*";
 
 	private final CodaClient delegatee;
+	private final ReportStore reportStore;
+	private final Gson gson;
+	private final Cache<ReportKey, Object> reportCache;
 
-	private final LoadingCache<String, Set<RegistrationLight>>
-		registrationsCache = CacheBuilder.newBuilder()
-		.concurrencyLevel(CONCURRENCY_LEVEL)
-		.expireAfterWrite(1, TimeUnit.DAYS)
-		.removalListener(
-			CachingCodaClient.<String, Set<RegistrationLight>>createRemovalListener(
-				"Registration cache"))
-		.build(new CacheLoader<String, Set<RegistrationLight>>() {
-			@Override
-			public Set<RegistrationLight> load(final String category)
-				throws Exception {
-				return delegatee.listRegistrations(
-					Objects.equals(category, DEFAULT_CATEGORY) ?
-						null :
-						category);
-			}
-		});
+	private final LoadingCache<String, RegistrationIndex> registrationsCache;
+	/**
+	 * Serializes updates of the cached registrations; a
+	 * {@link ReentrantLock lock} rather than a monitor, as in
+	 * {@link RetryCodaClient}.
+	 */
+	private final Lock registrationsLock = new ReentrantLock();
+	private final LoadingCache<Integer, AccountIndex> accountCache;
+	private final LoadingCache<Integer, ScannerIndex> scannerCache;
+	private final LoadingCache<ScanSurfaceKey, ScanSurface> scanSurfaceCache;
+	private final ConcurrentMap<Integer, AtomicLong> accountGenerations =
+		new ConcurrentHashMap<>();
+	private final ConcurrentMap<ScanSurfaceKey, AtomicLong>
+		scanSurfaceGenerations = new ConcurrentHashMap<>();
+	private final LoadingCache<String, List<AdminUser>> userCache;
+	private final Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+	private final List<CacheMetrics.Registration> registrations =
+		new ArrayList<>();
 
-	private final LoadingCache<Integer, Set<Account>> accountCache =
-		CacheBuilder.newBuilder()
-			.concurrencyLevel(CONCURRENCY_LEVEL)
-			.expireAfterWrite(1, TimeUnit.DAYS)
+	CachingCodaClient(final CodaClient delegatee) {
+		this(delegatee, null);
+	}
+
+	/**
+	 * @param delegatee   the {@link CodaClient client} to delegate to
+	 * @param reportStore the {@link ReportStore store} reports are persisted to or {@literal null} to not persist reports
+	 */
+	CachingCodaClient(final CodaClient delegatee,
+		final ReportStore reportStore) {
+		this(delegatee, reportStore, new CacheSettings());
+	}
+
+	/**
+	 * @param delegatee   the {@link CodaClient client} to delegate to
+	 * @param reportStore the {@link ReportStore store} reports are persisted to or {@literal null} to not persist reports
+	 * @param settings    the {@link CacheSettings settings} of the caches
+	 */
+	CachingCodaClient(final CodaClient delegatee,
+		final ReportStore reportStore, final CacheSettings settings) {
+		this.delegatee =
+			Preconditions.checkNotNull(delegatee, "delegatee must not be null");
+		this.reportStore = reportStore;
+		this.gson = AbstractCodaClient.createGson(new JSON().getGson());
+		// a single segment, since Guava divides the maximum weight among the
+		// segments and a report larger than its segment's share is evicted
+		this.reportCache = CacheBuilder.newBuilder()
+			.concurrencyLevel(1)
+			.maximumWeight(settings.maxReportWeight())
+			.weigher(CachingCodaClient::weigh)
+			.recordStats()
 			.removalListener(
-				CachingCodaClient.<Integer, Set<Account>>createRemovalListener(
-					"Account cache"))
-			.build(new CacheLoader<Integer, Set<Account>>() {
+				CachingCodaClient.<ReportKey, Object>createRemovalListener(
+					"Report cache"))
+			.build();
+
+		this.registrationsCache =
+			createCache("Registration cache", settings.registrations(),
+				settings.refreshExecutor(),
+				new CacheLoader<String, RegistrationIndex>() {
+					@Override
+					public RegistrationIndex load(final String category)
+						throws Exception {
+						return new RegistrationIndex(delegatee.listRegistrations(
+							Objects.equals(category, DEFAULT_CATEGORY) ?
+								null :
+								category));
+					}
+				});
+		this.accountCache = createCache("Account cache", settings.accounts(),
+			settings.refreshExecutor(),
+			new CacheLoader<Integer, AccountIndex>() {
 				@Override
-				public Set<Account> load(final Integer accountId)
+				public AccountIndex load(final Integer accountId)
 					throws Exception {
-					return delegatee.listAccounts(
+					return new AccountIndex(delegatee.listAccounts(
 						Objects.equals(accountId, DEFAULT_ACCOUNT_ID) ?
 							null :
-							accountId);
+							accountId));
 				}
 			});
-
-	private final LoadingCache<Integer, List<AgentlessScannerSrz>>
-		scannerCache = CacheBuilder.newBuilder()
-		.concurrencyLevel(CONCURRENCY_LEVEL)
-		.expireAfterWrite(1, TimeUnit.HOURS)
-		.removalListener(
-			CachingCodaClient.<Integer, List<AgentlessScannerSrz>>createRemovalListener(
-				"Scanner cache"))
-		.build(new CacheLoader<Integer, List<AgentlessScannerSrz>>() {
-			@Override
-			public List<AgentlessScannerSrz> load(final Integer accountId)
-				throws Exception {
-				return delegatee.getScanners(
-					Objects.equals(accountId, DEFAULT_ACCOUNT_ID) ?
-						null :
-						accountId);
-			}
-		});
-	private final LoadingCache<String, List<AdminUser>> userCache =
-		CacheBuilder.newBuilder()
-			.concurrencyLevel(CONCURRENCY_LEVEL)
-			.expireAfterWrite(1, TimeUnit.HOURS)
-			.removalListener(
-				CachingCodaClient.<String, List<AdminUser>>createRemovalListener(
-					"User cache"))
-			.build(new CacheLoader<String, List<AdminUser>>() {
+		this.scannerCache = createCache("Scanner cache", settings.scanners(),
+			settings.refreshExecutor(),
+			new CacheLoader<Integer, ScannerIndex>() {
+				@Override
+				public ScannerIndex load(final Integer accountId)
+					throws Exception {
+					return new ScannerIndex(delegatee.getScanners(
+						Objects.equals(accountId, DEFAULT_ACCOUNT_ID) ?
+							null :
+							accountId));
+				}
+			});
+		this.scanSurfaceCache =
+			createCache("Scan surface cache", settings.scanSurface(),
+				settings.refreshExecutor(),
+				new CacheLoader<ScanSurfaceKey, ScanSurface>() {
+					@Override
+					public ScanSurface load(final ScanSurfaceKey key)
+						throws Exception {
+						// read before retrieving so that an invalidation
+						// during the retrieval marks the result as stale
+						final long generation = generation(key);
+						return new ScanSurface(generation, ImmutableList.copyOf(
+							delegatee.getScanSurface(key.scannerId, null,
+								Objects.equals(key.accountId,
+									DEFAULT_ACCOUNT_ID) ? null : key.accountId)));
+					}
+				});
+		this.userCache = createCache("User cache", settings.users(),
+			settings.refreshExecutor(),
+			new CacheLoader<String, List<AdminUser>>() {
 				@Override
 				public List<AdminUser> load(final String value)
 					throws Exception {
@@ -138,9 +214,66 @@ final class CachingCodaClient implements CodaClient {
 				}
 			});
 
-	CachingCodaClient(final CodaClient delegatee) {
-		this.delegatee =
-			Preconditions.checkNotNull(delegatee, "delegatee must not be null");
+		final String clientName = settings.clientName() != null ?
+			settings.clientName() :
+			"coda-" + CLIENT_SEQUENCE.incrementAndGet();
+		register(clientName, "reports", reportCache, settings.metrics());
+		register(clientName, "registrations", registrationsCache,
+			settings.metrics());
+		register(clientName, "accounts", accountCache, settings.metrics());
+		register(clientName, "scanners", scannerCache, settings.metrics());
+		register(clientName, "scanSurface", scanSurfaceCache,
+			settings.metrics());
+		register(clientName, "users", userCache, settings.metrics());
+	}
+
+	/**
+	 * Creates a {@link LoadingCache cache} whose entries are reloaded
+	 * asynchronously once their refresh interval has elapsed so that callers
+	 * are served the previous value instead of waiting for the reload.
+	 */
+	private static <K, V> LoadingCache<K, V> createCache(final String name,
+		final CacheSettings.Expiry expiry, final Executor refreshExecutor,
+		final CacheLoader<K, V> loader) {
+		final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+			.concurrencyLevel(CONCURRENCY_LEVEL)
+			.expireAfterWrite(expiry.expireAfterWrite().toNanos(),
+				TimeUnit.NANOSECONDS)
+			.recordStats();
+		if (expiry.refreshAfterWrite() != null) {
+			builder.refreshAfterWrite(expiry.refreshAfterWrite().toNanos(),
+				TimeUnit.NANOSECONDS);
+		}
+
+		return builder.removalListener(
+				CachingCodaClient.<K, V>createRemovalListener(name))
+			.build(CacheLoader.asyncReloading(loader, refreshExecutor));
+	}
+
+	private void register(final String clientName, final String name,
+		final Cache<?, ?> cache, final CacheMetrics metrics) {
+		caches.put(name, cache);
+		registrations.add(
+			metrics.register(clientName, name, cache::stats, cache::size));
+	}
+
+	/**
+	 * Unregisters the caches from their {@link CacheMetrics metrics}.
+	 */
+	@Override
+	public void close() {
+		synchronized (registrations) {
+			registrations.forEach(CacheMetrics.Registration::close);
+			registrations.clear();
+		}
+	}
+
+	private static int weigh(final ReportKey key, final Object report) {
+		final long weight = report instanceof String ?
+			((String) report).length() :
+			JsonWeigher.INSTANCE.applyAsLong((CVR) report);
+
+		return (int) Math.min(weight, Integer.MAX_VALUE);
 	}
 
 	@Override
@@ -150,32 +283,46 @@ final class CachingCodaClient implements CodaClient {
 		return this;
 	}
 
+	/**
+	 * Returns the registrations for a given category. If the default category
+	 * is supplied then the results may be from the cache. <strong>Only the
+	 * default category is cached to simplify cache validation!</strong>
+	 */
 	@Override
 	public Set<RegistrationLight> listRegistrations(final String category)
 		throws ApiException {
-		return Collections.unmodifiableSet(getRegistrations(category));
+		if (category == null || DEFAULT_CATEGORY.equals(category)) {
+			return getRegistrationIndex().registrations();
+		}
+
+		return Collections.unmodifiableSet(
+			delegatee.listRegistrations(category));
 	}
 
-	/**
-	 * Returns the registrations for a given category. If the default category
-	 * is supplied then the results may be from the cache. <strong>Only the
-	 * default category is cached to simplify cache validation!</strong> The
-	 * results should be wrapped in an immutable collection before returning
-	 * outside this class.
-	 */
-	private Set<RegistrationLight> getRegistrations(final String category)
+	@Override
+	public Optional<RegistrationLight> getRegistrationForLabel(
+		final String label) throws ApiException {
+		return getRegistrationIndex().forLabel(label);
+	}
+
+	private RegistrationIndex getRegistrationIndex() throws ApiException {
+		try {
+			// only the default category is cached to simplify cache validation
+			return registrationsCache.get(DEFAULT_CATEGORY);
+		} catch (ExecutionException e) {
+			Throwables.throwIfInstanceOf(e.getCause(), ApiException.class);
+			throw new ApiException(e);
+		}
+	}
+
+	@Override
+	public Stream<RegistrationLight> streamRegistrations(final String category)
 		throws ApiException {
 		if (category == null || DEFAULT_CATEGORY.equals(category)) {
-			try {
-				// only the default category is cached to simplify cache validation
-				return registrationsCache.get(DEFAULT_CATEGORY);
-			} catch (ExecutionException e) {
-				Throwables.throwIfInstanceOf(e.getCause(), ApiException.class);
-				throw new ApiException(e);
-			}
+			return listRegistrations(category).stream();
 		}
 
-		return delegatee.listRegistrations(category);
+		return delegatee.streamRegistrations(category);
 	}
 
 	@Override
@@ -185,9 +332,18 @@ final class CachingCodaClient implements CodaClient {
 			final Integer accountIdKey =
 				Optional.ofNullable(accountId).orElse(DEFAULT_ACCOUNT_ID);
 
-			final Set<Account> accounts = accountCache.get(accountIdKey);
+			return accountCache.get(accountIdKey).accounts();
+		} catch (ExecutionException e) {
+			Throwables.throwIfInstanceOf(e.getCause(), ApiException.class);
+			throw new ApiException(e);
+		}
+	}
 
-			return Collections.unmodifiableSet(accounts);
+	@Override
+	public Optional<Account> findAccountWithName(final String name)
+		throws ApiException {
+		try {
+			return accountCache.get(DEFAULT_ACCOUNT_ID).withName(name);
 		} catch (ExecutionException e) {
 			Throwables.throwIfInstanceOf(e.getCause(), ApiException.class);
 			throw new ApiException(e);
@@ -200,7 +356,7 @@ final class CachingCodaClient implements CodaClient {
 		final RegistrationLight newRegistration =
 			delegatee.createRegistration(registration);
 
-		getRegistrations(DEFAULT_CATEGORY).add(newRegistration);
+		updateRegistrations(index -> index.with(newRegistration));
 		accountCache.invalidateAll();
 
 		return newRegistration;
@@ -212,15 +368,8 @@ final class CachingCodaClient implements CodaClient {
 		final Registration updatedRegistration =
 			delegatee.updateRegistration(registrationId, edit);
 
-		final Set<RegistrationLight> registrations =
-			getRegistrations(DEFAULT_CATEGORY);
-		registrations.stream()
-			.filter(r -> registrationId.equals(r.getId()))
-			.findFirst()
-			.ifPresent(r -> {
-				registrations.remove(r);
-				registrations.add(toLight(updatedRegistration));
-			});
+		updateRegistrations(index -> index.replace(registrationId,
+			toLight(updatedRegistration)));
 
 		accountCache.invalidateAll();
 
@@ -233,12 +382,28 @@ final class CachingCodaClient implements CodaClient {
 		delegatee.deleteRegistration(registration);
 		accountCache.invalidateAll();
 
-		final Set<RegistrationLight> registrations =
-			getRegistrations(DEFAULT_CATEGORY);
-		registrations.stream()
-			.filter(r -> Objects.equals(r.getId(), registration.getId()))
-			.findFirst()
-			.ifPresent(registrations::remove);
+		updateRegistrations(index -> index.without(registration.getId()));
+	}
+
+	/**
+	 * Caches a modified copy of the cached registrations. Putting the copy
+	 * also discards a background refresh which started before the
+	 * modification. The registrations are loaded, if necessary, before the
+	 * lock is taken so that updates do not wait for each other's retrievals.
+	 */
+	private void updateRegistrations(
+		final UnaryOperator<RegistrationIndex> update) throws ApiException {
+		final RegistrationIndex loaded = getRegistrationIndex();
+		registrationsLock.lock();
+		try {
+			// an update that completed meanwhile must not be lost
+			final RegistrationIndex current =
+				registrationsCache.getIfPresent(DEFAULT_CATEGORY);
+			registrationsCache.put(DEFAULT_CATEGORY,
+				update.apply(current != null ? current : loaded));
+		} finally {
+			registrationsLock.unlock();
+		}
 	}
 
 	@Override
@@ -248,10 +413,21 @@ final class CachingCodaClient implements CodaClient {
 			final Integer accountIdKey =
 				Optional.ofNullable(accountId).orElse(DEFAULT_ACCOUNT_ID);
 
-			final List<AgentlessScannerSrz> scanners =
-				scannerCache.get(accountIdKey);
+			return scannerCache.get(accountIdKey).scanners();
+		} catch (ExecutionException e) {
+			Throwables.throwIfInstanceOf(e.getCause(), ApiException.class);
+			throw new ApiException(e);
+		}
+	}
+
+	@Override
+	public Map<String, Integer> getScannerIdByLabel(final Integer accountId)
+		throws ApiException {
+		try {
+			final Integer accountIdKey =
+				Optional.ofNullable(accountId).orElse(DEFAULT_ACCOUNT_ID);
 
-			return Collections.unmodifiableList(scanners);
+			return scannerCache.get(accountIdKey).scannerIdByLabel();
 		} catch (ExecutionException e) {
 			Throwables.throwIfInstanceOf(e.getCause(), ApiException.class);
 			throw new ApiException(e);
@@ -261,17 +437,25 @@ final class CachingCodaClient implements CodaClient {
 	@Override
 	public List<ScanUuidScannerId> updateScanSurface(final List<String> targets,
 		final List<Integer> scanners, final boolean isNoScanRequest,
-		final Integer accountId) throws ApiException {
-		// TODO: invalidate scan surface cache
-		return delegatee.updateScanSurface(targets, scanners, isNoScanRequest,
-			accountId);
+		final CidrMode cidrMode, final Integer accountId) throws ApiException {
+		try {
+			return delegatee.updateScanSurface(targets, scanners,
+				isNoScanRequest, cidrMode, accountId);
+		} finally {
+			invalidateScanSurface(scanners, accountId);
+		}
 	}
 
 	@Override
 	public List<ScanUuidScannerId> updateScanSurface(
 		final ExtendMessageRequest message, final boolean isNoScanRequest,
 		final Integer accountId) throws ApiException {
-		return delegatee.updateScanSurface(message, isNoScanRequest, accountId);
+		try {
+			return delegatee.updateScanSurface(message, isNoScanRequest,
+				accountId);
+		} finally {
+			invalidateScanSurface(message.getScanners(), accountId);
+		}
 	}
 
 	@Override
@@ -279,18 +463,71 @@ final class CachingCodaClient implements CodaClient {
 		final boolean deleteAssets, final Integer accountId)
 		throws ApiException {
 		delegatee.deleteScanSurfaceEntry(entry, deleteAssets, accountId);
+
+		// remove the entry from every cached scan surface of the account
+		final Integer accountIdKey =
+			Optional.ofNullable(accountId).orElse(DEFAULT_ACCOUNT_ID);
+		scanSurfaceCache.asMap()
+			.keySet()
+			.stream()
+			.filter(key -> key.accountId.equals(accountIdKey))
+			.forEach(key -> scanSurfaceCache.asMap()
+				.computeIfPresent(key,
+					(k, scanSurface) -> new ScanSurface(scanSurface.generation,
+						scanSurface.entries.stream()
+							.filter(e -> !Objects.equals(e.getId(), entry.getId()))
+							.collect(ImmutableList.toImmutableList()))));
 	}
 
 	@Override
 	public List<ScanUuidScannerId> rescan(final Integer accountId)
 		throws ApiException {
-		return delegatee.rescan(accountId);
+		try {
+			return delegatee.rescan(accountId);
+		} finally {
+			invalidateScanSurface(null, accountId);
+		}
 	}
 
 	@Override
 	public ScanUuidScannerId rescan(final Integer scannerId,
 		final Integer accountId) throws ApiException {
-		return delegatee.rescan(scannerId, accountId);
+		try {
+			return delegatee.rescan(scannerId, accountId);
+		} finally {
+			invalidateScanSurface(Collections.singletonList(scannerId),
+				accountId);
+		}
+	}
+
+	/**
+	 * Invalidates the cached scan surfaces of the given scanners, as well as
+	 * the cached scan surface of all scanners, of an account. If no scanners
+	 * are given the cached scan surfaces of all scanners of the account are
+	 * invalidated. Scan surfaces that are being loaded are not in the cache
+	 * yet, so their generation is advanced to have them reloaded when read.
+	 */
+	private void invalidateScanSurface(final List<Integer> scannerIds,
+		final Integer accountId) {
+		final Integer accountIdKey =
+			Optional.ofNullable(accountId).orElse(DEFAULT_ACCOUNT_ID);
+		final boolean allScanners = scannerIds == null || scannerIds.isEmpty();
+		if (allScanners) {
+			generationCounter(accountGenerations, accountIdKey).incrementAndGet();
+		} else {
+			Stream.concat(scannerIds.stream(), Stream.of((Integer) null))
+				.map(scannerId -> new ScanSurfaceKey(accountIdKey, scannerId))
+				.forEach(key -> generationCounter(scanSurfaceGenerations, key)
+					.incrementAndGet());
+		}
+
+		scanSurfaceCache.invalidateAll(scanSurfaceCache.asMap()
+			.keySet()
+			.stream()
+			.filter(key -> key.accountId.equals(accountIdKey))
+			.filter(key -> allScanners || key.scannerId == null
+				|| scannerIds.contains(key.scannerId))
+			.collect(Collectors.toList()));
 	}
 
 	@Override
@@ -305,23 +542,173 @@ final class CachingCodaClient implements CodaClient {
 		return delegatee.getScanStatus(scanId, accountId);
 	}
 
+	@Override
+	public Set<ScanSurfaceEntry> getScanSurface(final List<Integer> scannerIds,
+		final Integer accountId) throws ApiException {
+		// fan out over this client so that each scanner is served from the cache
+		return CodaClient.super.getScanSurface(scannerIds, accountId);
+	}
+
+	/**
+	 * Returns the scan surface of a scanner from the cache. Text filters are
+	 * applied by CODA, so text-filtered scan surfaces are not cached.
+	 */
 	@Override
 	public List<ScanSurfaceEntry> getScanSurface(final Integer scannerId,
 		final String textFilter, final Integer accountId) throws ApiException {
-		return delegatee.getScanSurface(scannerId, textFilter, accountId);
+		if (textFilter != null && !textFilter.isEmpty()) {
+			return delegatee.getScanSurface(scannerId, textFilter, accountId);
+		}
+
+		final ScanSurfaceKey key = new ScanSurfaceKey(
+			Optional.ofNullable(accountId).orElse(DEFAULT_ACCOUNT_ID), scannerId);
+		try {
+			ScanSurface scanSurface = scanSurfaceCache.get(key);
+			while (scanSurface.generation < generation(key)) {
+				// loaded before an invalidation
+				scanSurfaceCache.asMap().remove(key, scanSurface);
+				scanSurface = scanSurfaceCache.get(key);
+			}
+
+			return scanSurface.entries;
+		} catch (ExecutionException e) {
+			Throwables.throwIfInstanceOf(e.getCause(), ApiException.class);
+			throw new ApiException(e);
+		}
+	}
+
+	/**
+	 * Returns the generation of a scan surface, which advances whenever it is
+	 * invalidated.
+	 */
+	private long generation(final ScanSurfaceKey key) {
+		return generationCounter(accountGenerations, key.accountId).get()
+			+ generationCounter(scanSurfaceGenerations, key).get();
+	}
+
+	private static <K> AtomicLong generationCounter(
+		final ConcurrentMap<K, AtomicLong> generations, final K key) {
+		return generations.computeIfAbsent(key, k -> new AtomicLong());
+	}
+
+	@Override
+	public Stream<ScanSurfaceEntry> streamScanSurface(final Integer scannerId,
+		final String textFilter, final Integer accountId) throws ApiException {
+		return getScanSurface(scannerId, textFilter, accountId).stream();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The retrieved {@link CVR reports} are cached and shared by every caller,
+	 * so they must not be modified. If there is a {@link ReportStore}, reports
+	 * are retrieved as JSON, which is what the store persists, and parsed.
+	 */
 	@Override
 	public Map<LocalDateTime, LazyCVR> getReports(final ReportType reportType,
 		final Integer accountId) throws ApiException {
-		return delegatee.getReports(reportType, accountId);
+		final Map<LocalDateTime, LazyCVR> reports = new LinkedHashMap<>();
+		if (reportStore == null) {
+			delegatee.getReports(reportType, accountId)
+				.forEach((generationDate, report) -> {
+					final ReportKey key = new ReportKey(CVR.class, reportType,
+						accountId, generationDate);
+					reports.put(generationDate,
+						() -> getReport(key, report::retrieve));
+				});
+		} else {
+			delegatee.getReportsJson(reportType, accountId)
+				.forEach((generationDate, report) -> {
+					final ReportKey key = new ReportKey(CVR.class, reportType,
+						accountId, generationDate);
+					reports.put(generationDate,
+						() -> getReport(key, () -> retrieveReport(key, report)));
+				});
+		}
+
+		return reports;
 	}
 
 	@Override
 	public Map<LocalDateTime, LazyCvrJson> getReportsJson(
 		final ReportType reportType, final Integer accountId)
 		throws ApiException {
-		return delegatee.getReportsJson(reportType, accountId);
+		final Map<LocalDateTime, LazyCvrJson> reports = new LinkedHashMap<>();
+		delegatee.getReportsJson(reportType, accountId)
+			.forEach((generationDate, report) -> {
+				final ReportKey key = new ReportKey(String.class, reportType,
+					accountId, generationDate);
+				reports.put(generationDate, () -> getReport(key,
+					() -> retrieveReportJson(key, report)));
+			});
+
+		return reports;
+	}
+
+	/**
+	 * Returns a report from the report cache; concurrent retrievals of the same
+	 * report wait for a single retrieval. {@literal null} reports are not cached.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T getReport(final ReportKey key, final Callable<T> retrieval)
+		throws ApiException {
+		try {
+			// the key's type is the type of the retrieved report
+			return (T) reportCache.get(key, retrieval);
+		} catch (CacheLoader.InvalidCacheLoadException e) {
+			return null;
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			Throwables.throwIfInstanceOf(e.getCause(), ApiException.class);
+			throw new ApiException(e.getCause());
+		}
+	}
+
+	private CVR retrieveReport(final ReportKey key, final LazyCvrJson report)
+		throws ApiException {
+		final String json = retrieveReportJson(key, report);
+		return json == null ? null : gson.fromJson(json, CVR.class);
+	}
+
+	private String retrieveReportJson(final ReportKey key,
+		final LazyCvrJson report) throws ApiException {
+		final Optional<String> json = readReport(key);
+		if (json.isPresent()) {
+			return json.get();
+		}
+
+		final String cvr = report.retrieveJson();
+		if (cvr != null && reportStore != null) {
+			writeReport(key, cvr);
+		}
+
+		return cvr;
+	}
+
+	/**
+	 * Failures of the {@link ReportStore report store} are logged and treated
+	 * as a miss so that the report is retrieved from CODA instead.
+	 */
+	private Optional<String> readReport(final ReportKey key) {
+		if (reportStore == null) {
+			return Optional.empty();
+		}
+
+		try {
+			return reportStore.get(key.accountId, key.reportType,
+				key.generationDate);
+		} catch (IOException e) {
+			logger.warn("Failed to read report {}", key, e);
+			return Optional.empty();
+		}
+	}
+
+	private void writeReport(final ReportKey key, final String json) {
+		try {
+			reportStore.put(key.accountId, key.reportType, key.generationDate,
+				json);
+		} catch (IOException e) {
+			logger.warn("Failed to store report {}", key, e);
+		}
 	}
 
 	@Override
@@ -379,7 +766,21 @@ final class CachingCodaClient implements CodaClient {
 	}
 
 	Map<Integer, Set<Account>> getAccountCache() {
-		return Collections.unmodifiableMap(accountCache.asMap());
+		return Collections.unmodifiableMap(
+			Maps.transformValues(accountCache.asMap(), AccountIndex::accounts));
+	}
+
+	/**
+	 * @return a snapshot of the {@link CacheStats statistics} of each cache keyed by cache name
+	 */
+	Map<String, CacheStats> getCacheStats() {
+		return ImmutableMap.copyOf(Maps.transformValues(caches, Cache::stats));
+	}
+
+	Map<ScanSurfaceKey, List<ScanSurfaceEntry>> getScanSurfaceCache() {
+		return Collections.unmodifiableMap(
+			Maps.transformValues(scanSurfaceCache.asMap(),
+				scanSurface -> scanSurface.entries));
 	}
 
 	private static <K, V> RemovalListener<K, V> createRemovalListener(
@@ -390,4 +791,107 @@ final class CachingCodaClient implements CodaClient {
 			notification.getCause());
 	}
 
+	/**
+	 * Identifies the cached scan surface of a scanner, or of all scanners if
+	 * the scanner is {@literal null}, of an account.
+	 */
+	static final class ScanSurfaceKey {
+
+		private final Integer accountId;
+		private final Integer scannerId;
+
+		ScanSurfaceKey(final Integer accountId, final Integer scannerId) {
+			this.accountId = accountId;
+			this.scannerId = scannerId;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			final ScanSurfaceKey that = (ScanSurfaceKey) o;
+			return accountId.equals(that.accountId)
+				&& Objects.equals(scannerId, that.scannerId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(accountId, scannerId);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("scanner %s of account %s", scannerId,
+				accountId);
+		}
+
+	}
+
+	/**
+	 * A cached scan surface and the generation it was loaded in.
+	 */
+	private static final class ScanSurface {
+
+		private final long generation;
+		private final List<ScanSurfaceEntry> entries;
+
+		private ScanSurface(final long generation,
+			final List<ScanSurfaceEntry> entries) {
+			this.generation = generation;
+			this.entries = entries;
+		}
+
+	}
+
+	/**
+	 * Identifies a report in the report cache by its representation, i.e.
+	 * {@link CVR} or {@link String JSON}, and its origin.
+	 */
+	static final class ReportKey {
+
+		private final Class<?> type;
+		private final ReportType reportType;
+		private final Integer accountId;
+		private final LocalDateTime generationDate;
+
+		ReportKey(final Class<?> type, final ReportType reportType,
+			final Integer accountId, final LocalDateTime generationDate) {
+			this.type = type;
+			this.reportType = reportType;
+			this.accountId = accountId;
+			this.generationDate = generationDate;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			final ReportKey that = (ReportKey) o;
+			return type.equals(that.type) && reportType == that.reportType
+				&& Objects.equals(accountId, that.accountId)
+				&& generationDate.equals(that.generationDate);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, reportType, accountId, generationDate);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s %s of %s for account %s",
+				reportType.value(), type.getSimpleName(), generationDate,
+				accountId);
+		}
+
+	}
+
 }
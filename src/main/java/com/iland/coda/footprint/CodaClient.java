@@ -21,6 +21,7 @@ import static java.util.stream.Collectors.toMap;
 import java.io.File;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -28,7 +29,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import net.codacloud.ApiException;
 import net.codacloud.model.Account;
@@ -48,9 +51,14 @@ import net.codacloud.model.ScanSurfaceEntry;
 import net.codacloud.model.ScanUuidScannerId;
 import net.codacloud.model.Task;
 import net.codacloud.model.TaskEditRequest;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.iland.coda.footprint.concurrent.FanOut;
+import com.iland.coda.footprint.concurrent.IoExecutors;
+import com.iland.coda.footprint.reactive.StreamPublisher;
+
 /**
  * {@link CodaClient}.
  *
@@ -59,7 +67,25 @@ import org.slf4j.LoggerFactory;
 public interface CodaClient {
 
 	boolean DEFAULT_IS_NO_SCAN = true;
+	int DEFAULT_MAX_PARALLEL_SCANNERS = 4;
 
+	/**
+	 * How targets in CIDR notation are sent by {@link #updateScanSurface(List, List, boolean, CidrMode, Integer)}.
+	 */
+	enum CidrMode {
+		/**
+		 * Expand each block into its individual hosts (the default).
+		 */
+		EXPAND,
+		/**
+		 * Send each block as-is; blocks with more addresses than fit into a single update are split.
+		 */
+		PASSTHROUGH,
+		/**
+		 * Merge blocks and IPv4 addresses into the smallest set of covering blocks and send those.
+		 */
+		AGGREGATE
+	}
 
 	enum ReportType {
 		HISTORIC("historic"),
@@ -179,6 +205,58 @@ public interface CodaClient {
 	Set<RegistrationLight> listRegistrations(final String category)
 		throws ApiException;
 
+	/**
+	 * Provides a lazy {@link Stream} of active registrations.
+	 *
+	 * @return a lazy {@link Stream} of active registrations
+	 * @throws ApiException ...
+	 * @see #streamRegistrations(String)
+	 */
+	default Stream<RegistrationLight> streamRegistrations()
+		throws ApiException {
+		return streamRegistrations(null);
+	}
+
+	/**
+	 * Provides a lazy {@link Stream} of active registrations for a specific
+	 * category. Implementations may fetch pages as the stream is consumed, in
+	 * which case an {@link ApiException} is rethrown as the cause of a
+	 * {@link RuntimeException}. The stream should be closed when it is not
+	 * fully consumed.
+	 *
+	 * @param category the category of registrations you want
+	 * @return a lazy {@link Stream} of active registrations for a specific category
+	 * @throws ApiException ...
+	 */
+	default Stream<RegistrationLight> streamRegistrations(final String category)
+		throws ApiException {
+		return listRegistrations(category).stream();
+	}
+
+	/**
+	 * Provides a {@link Publisher} of active registrations.
+	 *
+	 * @return a {@link Publisher} of active registrations
+	 * @see #publishRegistrations(String)
+	 */
+	default Publisher<RegistrationLight> publishRegistrations() {
+		return publishRegistrations(null);
+	}
+
+	/**
+	 * Provides a {@link Publisher} of active registrations for a specific
+	 * category. Items are emitted page by page from
+	 * {@link #streamRegistrations(String)} as the subscriber requests them.
+	 *
+	 * @param category the category of registrations you want
+	 * @return a {@link Publisher} of active registrations for a specific category
+	 */
+	default Publisher<RegistrationLight> publishRegistrations(
+		final String category) {
+		return new StreamPublisher<>(() -> streamRegistrations(category),
+			IoExecutors.shared());
+	}
+
 	/**
 	 * Returns the {@link Integer accountId} for the supplied {@link String label}.
 	 *
@@ -230,6 +308,35 @@ public interface CodaClient {
 	 */
 	Set<Account> listAccounts(Integer accountId) throws ApiException;
 
+	/**
+	 * Provides a lazy {@link Stream} of {@link Account accounts} into which the
+	 * current user can sign in to. Implementations may fetch pages as the
+	 * stream is consumed, in which case an {@link ApiException} is rethrown as
+	 * the cause of a {@link RuntimeException}. The stream should be closed when
+	 * it is not fully consumed.
+	 *
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint
+	 * @return a lazy {@link Stream} of {@link Account accounts}
+	 * @throws ApiException ...
+	 */
+	default Stream<Account> streamAccounts(final Integer accountId)
+		throws ApiException {
+		return listAccounts(accountId).stream();
+	}
+
+	/**
+	 * Provides a {@link Publisher} of {@link Account accounts} into which the
+	 * current user can sign in to. Items are emitted page by page from
+	 * {@link #streamAccounts(Integer)} as the subscriber requests them.
+	 *
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint
+	 * @return a {@link Publisher} of {@link Account accounts}
+	 */
+	default Publisher<Account> publishAccounts(final Integer accountId) {
+		return new StreamPublisher<>(() -> streamAccounts(accountId),
+			IoExecutors.shared());
+	}
+
 	/**
 	 * Crates a registration with blank {@link RegistrationSignupData registration signup data} accessible to all active users with the <code>"Global Admin"</code> role.
 	 *
@@ -360,9 +467,31 @@ public interface CodaClient {
 	 * @return a {@link List} of {@link ScanUuidScannerId scan UUIDs}
 	 * @throws ApiException ...
 	 */
+	default List<ScanUuidScannerId> updateScanSurface(
+		final List<String> targets, final List<Integer> scanners,
+		final boolean isNoScanRequest, final Integer accountId)
+		throws ApiException {
+		return updateScanSurface(targets, scanners, isNoScanRequest,
+			CidrMode.EXPAND, accountId);
+	}
+
+	/**
+	 * Updates the scan surface with new data (extend scan surface modal). <strong>This is an idempotent operation!</strong>
+	 * <p>
+	 * With {@link CidrMode#PASSTHROUGH} or {@link CidrMode#AGGREGATE} blocks in CIDR notation are sent to CODA instead
+	 * of their hosts. Each block counts with its number of addresses towards the maximum size of an update.
+	 *
+	 * @param targets         a {@link List} of targets, e.g. hostname, IP address, or CIDR notation
+	 * @param scanners        There's no documentation on this value. The scanners to use for the scan?
+	 * @param isNoScanRequest {@code true} to turn off automatic scan
+	 * @param cidrMode        how targets in CIDR notation are sent
+	 * @param accountId       Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link List} of {@link ScanUuidScannerId scan UUIDs}
+	 * @throws ApiException ...
+	 */
 	List<ScanUuidScannerId> updateScanSurface(List<String> targets,
-		List<Integer> scanners, boolean isNoScanRequest, Integer accountId)
-		throws ApiException;
+		List<Integer> scanners, boolean isNoScanRequest, CidrMode cidrMode,
+		Integer accountId) throws ApiException;
 
 	/**
 	 * Updates the scan surface with new data (extend scan surface modal). <strong>This is an idempotent operation!</strong>
@@ -450,46 +579,60 @@ public interface CodaClient {
 	 */
 	default Set<ScanSurfaceEntry> getScanSurface(final Integer accountId)
 		throws ApiException {
-		try {
-			return getScannerIdByLabel(accountId).values()
-				.stream()
-				.map(scannerId -> {
-					try {
-						return getScanSurface(scannerId, accountId);
-					} catch (ApiException e) {
-						throw new RuntimeException(e);
-					}
-				})
-				.flatMap(Collection::stream)
-				.collect(Collectors.toSet());
-		} catch (RuntimeException e) {
-			throwIfInstanceOf(e.getCause(), ApiException.class);
-			throw e;
-		}
+		return getScanSurface(
+			new ArrayList<>(getScannerIdByLabel(accountId).values()),
+			accountId);
 	}
 
 	/**
 	 * Retrieve the collated {@link ScanSurfaceEntry scan surface entries} for the given scanners and {@link Integer accountId}.
+	 * The scanners are queried concurrently on {@link IoExecutors#shared()}.
 	 *
 	 * @param scannerIds a {@link List} of scanner IDs
 	 * @param accountId  Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
 	 * @return a collated {@link ScanSurfaceEntry scan surface entries} for all scanners for the given {@link Integer accountId}
-	 * @throws ApiException ...
+	 * @throws ScanSurfaceException if any of the scanners failed
+	 * @throws ApiException         ...
+	 * @see #getScanSurface(List, Integer, Executor, int)
 	 */
 	default Set<ScanSurfaceEntry> getScanSurface(final List<Integer> scannerIds,
 		final Integer accountId) throws ApiException {
-		try {
-			return scannerIds.stream().map(scannerId -> {
-				try {
-					return getScanSurface(scannerId, accountId);
-				} catch (ApiException e) {
-					throw new RuntimeException(e);
-				}
-			}).flatMap(Collection::stream).collect(Collectors.toSet());
-		} catch (RuntimeException e) {
-			throwIfInstanceOf(e.getCause(), ApiException.class);
-			throw e;
+		return getScanSurface(scannerIds, accountId, IoExecutors.shared(),
+			DEFAULT_MAX_PARALLEL_SCANNERS);
+	}
+
+	/**
+	 * Retrieve the collated {@link ScanSurfaceEntry scan surface entries} for the given scanners and {@link Integer accountId}.
+	 * The scanners are queried concurrently on the supplied {@link Executor executor}.
+	 * A failing scanner does not abort the others; once all scanners have
+	 * completed the failures are thrown as a {@link ScanSurfaceException}.
+	 *
+	 * @param scannerIds          a {@link List} of scanner IDs
+	 * @param accountId           Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @param executor            the {@link Executor executor} the scanners are queried on
+	 * @param maxParallelScanners the maximum number of scanners queried concurrently
+	 * @return a collated {@link ScanSurfaceEntry scan surface entries} for all scanners for the given {@link Integer accountId}
+	 * @throws ScanSurfaceException if any of the scanners failed
+	 * @throws ApiException         ...
+	 */
+	default Set<ScanSurfaceEntry> getScanSurface(final List<Integer> scannerIds,
+		final Integer accountId, final Executor executor,
+		final int maxParallelScanners) throws ApiException {
+		final FanOut.Result<Integer, List<ScanSurfaceEntry>> result =
+			FanOut.apply(scannerIds,
+				scannerId -> getScanSurface(scannerId, accountId), executor,
+				maxParallelScanners);
+
+		final Set<ScanSurfaceEntry> scanSurface = result.getValues()
+			.values()
+			.stream()
+			.flatMap(Collection::stream)
+			.collect(Collectors.toSet());
+		if (!result.getFailures().isEmpty()) {
+			throw new ScanSurfaceException(scanSurface, result.getFailures());
 		}
+
+		return scanSurface;
 	}
 
 	/**
@@ -517,6 +660,70 @@ public interface CodaClient {
 	List<ScanSurfaceEntry> getScanSurface(Integer scannerId, String textFilter,
 		Integer accountId) throws ApiException;
 
+	/**
+	 * Retrieve a lazy {@link Stream} of user inputs and the resulting assets.
+	 *
+	 * @param scannerId Optional scanner ID filter. If not set or invalid, falls back on all scanners
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a lazy {@link Stream} of {@link ScanSurfaceEntry entries}
+	 * @throws ApiException ...
+	 * @see #streamScanSurface(Integer, String, Integer)
+	 */
+	default Stream<ScanSurfaceEntry> streamScanSurface(final Integer scannerId,
+		final Integer accountId) throws ApiException {
+		return streamScanSurface(scannerId, null, accountId);
+	}
+
+	/**
+	 * Retrieve a lazy {@link Stream} of user inputs and the resulting assets.
+	 * Implementations may fetch pages as the stream is consumed, in which case
+	 * an {@link ApiException} is rethrown as the cause of a
+	 * {@link RuntimeException}. The stream should be closed when it is not
+	 * fully consumed.
+	 *
+	 * @param scannerId  Optional scanner ID filter. If not set or invalid, falls back on all scanners
+	 * @param textFilter Optional page you want to request
+	 * @param accountId  Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a lazy {@link Stream} of {@link ScanSurfaceEntry entries}
+	 * @throws ApiException ...
+	 */
+	default Stream<ScanSurfaceEntry> streamScanSurface(final Integer scannerId,
+		final String textFilter, final Integer accountId) throws ApiException {
+		return getScanSurface(scannerId, textFilter, accountId).stream();
+	}
+
+	/**
+	 * Provides a {@link Publisher} of user inputs and the resulting assets.
+	 *
+	 * @param scannerId Optional scanner ID filter. If not set or invalid, falls back on all scanners
+	 * @param accountId Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link Publisher} of {@link ScanSurfaceEntry entries}
+	 * @see #publishScanSurface(Integer, String, Integer)
+	 */
+	default Publisher<ScanSurfaceEntry> publishScanSurface(
+		final Integer scannerId, final Integer accountId) {
+		return publishScanSurface(scannerId, null, accountId);
+	}
+
+	/**
+	 * Provides a {@link Publisher} of user inputs and the resulting assets.
+	 * Items are emitted page by page from
+	 * {@link #streamScanSurface(Integer, String, Integer)} as the subscriber
+	 * requests them, so a slow subscriber holds back the fetching of pages.
+	 *
+	 * @param scannerId  Optional scanner ID filter. If not set or invalid, falls back on all scanners
+	 * @param textFilter Optional page you want to request
+	 * @param accountId  Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @return a {@link Publisher} of {@link ScanSurfaceEntry entries}
+	 */
+	default Publisher<ScanSurfaceEntry> publishScanSurface(
+		final Integer scannerId, final String textFilter,
+		final Integer accountId) {
+		return new StreamPublisher<>(
+			() -> streamScanSurface(scannerId, textFilter, accountId),
+			IoExecutors.shared());
+	}
+
 	/**
 	 * Retrieve an {@link Optional} containing the latest (i.e. newest) {@link CVR report}.
 	 *
@@ -561,7 +768,8 @@ public interface CodaClient {
 	}
 
 	/**
-	 * Return a {@link Map}, keyed by report date, of lazily loadable {@link CVR reports}.
+	 * Return a {@link Map}, keyed by report date, of lazily loadable {@link CVR reports}. Retrieved reports may be
+	 * cached and shared with other callers, so they must not be modified.
 	 *
 	 * @param reportType the {@link ReportType report type}
 	 * @param accountId  Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import com.iland.coda.footprint.concurrent.IoExecutors;
+
+/**
+ * The HTTP transport of a {@link CodaClient}: a connection pool, a dispatcher
+ * and timeouts. A transport should be shared by all clients that talk to the
+ * same host, e.g. one client per tenant; every client adds its own
+ * authentication on top of the shared connections.
+ */
+public final class CodaTransport {
+
+	/**
+	 * The kinds of calls that may have their own timeouts.
+	 */
+	public enum CallType {
+		/**
+		 * Any call that is not covered by one of the other types.
+		 */
+		DEFAULT,
+		/**
+		 * Report retrieval, i.e. {@code /console/report/}.
+		 */
+		REPORT,
+		/**
+		 * Scan surface updates, i.e. {@code POST /console/scanSurface/}.
+		 */
+		SCAN_SURFACE_UPDATE;
+
+		static CallType of(final Request request) {
+			final String path = request.url().encodedPath();
+			if (path.contains("/console/report/")) {
+				return REPORT;
+			}
+			if ("POST".equals(request.method()) && path.endsWith(
+				"/console/scanSurface/")) {
+				return SCAN_SURFACE_UPDATE;
+			}
+
+			return DEFAULT;
+		}
+	}
+
+	private static final class DefaultHolder {
+
+		private static final CodaTransport TRANSPORT = builder().build();
+
+	}
+
+	private final OkHttpClient client;
+	private final TransferMetrics transferMetrics = new TransferMetrics();
+	private final Map<CallType, Duration> readTimeouts;
+	private final Map<CallType, Duration> writeTimeouts;
+
+	private CodaTransport(final Builder builder) {
+		this.readTimeouts =
+			Collections.unmodifiableMap(new EnumMap<>(builder.readTimeouts));
+		this.writeTimeouts =
+			Collections.unmodifiableMap(new EnumMap<>(builder.writeTimeouts));
+
+		final Dispatcher dispatcher = new Dispatcher(IoExecutors.shared());
+		dispatcher.setMaxRequests(builder.maxRequests);
+		dispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+
+		this.client = new OkHttpClient.Builder().connectionPool(
+				new ConnectionPool(builder.maxIdleConnections,
+					builder.keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+			.dispatcher(dispatcher)
+			.protocols(builder.preferHttp2
+				? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+				: Collections.singletonList(Protocol.HTTP_1_1))
+			.connectTimeout(builder.connectTimeout)
+			.readTimeout(readTimeouts.get(CallType.DEFAULT))
+			.writeTimeout(writeTimeouts.get(CallType.DEFAULT))
+			.addInterceptor(new TimeoutInterceptor())
+			.addNetworkInterceptor(new CompressionInterceptor(transferMetrics,
+				builder.compression))
+			.build();
+	}
+
+	/**
+	 * Returns the transport that clients use unless they are given one.
+	 *
+	 * @return the default {@link CodaTransport}
+	 */
+	public static CodaTransport defaultTransport() {
+		return DefaultHolder.TRANSPORT;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns the {@link TransferMetrics transfer metrics} of all clients that
+	 * share this transport.
+	 *
+	 * @return the {@link TransferMetrics transfer metrics}
+	 */
+	public TransferMetrics transferMetrics() {
+		return transferMetrics;
+	}
+
+	/**
+	 * Returns the read timeout of a {@link CallType call type}.
+	 *
+	 * @param callType the {@link CallType call type}
+	 * @return the read timeout
+	 */
+	public Duration readTimeout(final CallType callType) {
+		return readTimeouts.get(callType);
+	}
+
+	/**
+	 * Returns the write timeout of a {@link CallType call type}.
+	 *
+	 * @param callType the {@link CallType call type}
+	 * @return the write timeout
+	 */
+	public Duration writeTimeout(final CallType callType) {
+		return writeTimeouts.get(callType);
+	}
+
+	/**
+	 * Creates an {@link OkHttpClient} that shares the connection pool and the
+	 * dispatcher of this transport.
+	 *
+	 * @param interceptors the client's own interceptors
+	 * @return a new {@link OkHttpClient}
+	 */
+	OkHttpClient newClient(final Interceptor... interceptors) {
+		final OkHttpClient.Builder builder = client.newBuilder();
+		Arrays.stream(interceptors).forEach(builder::addInterceptor);
+
+		return builder.build();
+	}
+
+	/**
+	 * Applies the timeouts of the {@link CallType call type} of each request.
+	 */
+	private final class TimeoutInterceptor implements Interceptor {
+
+		@Override
+		public Response intercept(final Chain chain) throws IOException {
+			final CallType callType = CallType.of(chain.request());
+			if (callType == CallType.DEFAULT) {
+				return chain.proceed(chain.request());
+			}
+
+			return chain.withReadTimeout(
+					(int) readTimeout(callType).toMillis(), TimeUnit.MILLISECONDS)
+				.withWriteTimeout((int) writeTimeout(callType).toMillis(),
+					TimeUnit.MILLISECONDS)
+				.proceed(chain.request());
+		}
+
+	}
+
+	/**
+	 * {@link Builder} for {@link CodaTransport}. The defaults match OkHttp's,
+	 * except for the connect and read timeouts, which are 30 and 120 seconds,
+	 * and the maximum number of asynchronous calls per host. All clients of a
+	 * transport usually talk to the same host, so that limit defaults to the
+	 * overall maximum of 64 instead of 5; the number of calls of each client is
+	 * bounded by its own page and batch limits.
+	 */
+	public static final class Builder {
+
+		private int maxIdleConnections = 5;
+		private Duration keepAlive = Duration.ofMinutes(5);
+		private int maxRequests = 64;
+		private int maxRequestsPerHost = maxRequests;
+		private boolean preferHttp2 = true;
+		private boolean compression = true;
+		private Duration connectTimeout = Duration.ofSeconds(30);
+		private final Map<CallType, Duration> readTimeouts =
+			new EnumMap<>(CallType.class);
+		private final Map<CallType, Duration> writeTimeouts =
+			new EnumMap<>(CallType.class);
+
+		private Builder() {
+			for (final CallType callType : CallType.values()) {
+				readTimeouts.put(callType, Duration.ofSeconds(120));
+				writeTimeouts.put(callType, Duration.ofSeconds(10));
+			}
+		}
+
+		/**
+		 * @param maxIdleConnections the maximum number of idle connections kept in the pool
+		 * @return {@link Builder this}
+		 */
+		public Builder maxIdleConnections(final int maxIdleConnections) {
+			checkArgument(maxIdleConnections >= 0,
+				"maxIdleConnections must not be negative");
+			this.maxIdleConnections = maxIdleConnections;
+			return this;
+		}
+
+		/**
+		 * @param keepAlive how long an idle connection is kept in the pool
+		 * @return {@link Builder this}
+		 */
+		public Builder keepAlive(final Duration keepAlive) {
+			this.keepAlive = requirePositive(keepAlive, "keepAlive");
+			return this;
+		}
+
+		/**
+		 * @param maxRequests the maximum number of asynchronous calls executed concurrently
+		 * @return {@link Builder this}
+		 */
+		public Builder maxRequests(final int maxRequests) {
+			checkArgument(maxRequests > 0, "maxRequests must be greater than 0");
+			this.maxRequests = maxRequests;
+			return this;
+		}
+
+		/**
+		 * @param maxRequestsPerHost the maximum number of asynchronous calls executed concurrently per host
+		 * @return {@link Builder this}
+		 */
+		public Builder maxRequestsPerHost(final int maxRequestsPerHost) {
+			checkArgument(maxRequestsPerHost > 0,
+				"maxRequestsPerHost must be greater than 0");
+			this.maxRequestsPerHost = maxRequestsPerHost;
+			return this;
+		}
+
+		/**
+		 * @param preferHttp2 {@code true} to negotiate HTTP/2 where the server supports it, {@code false} for HTTP/1.1 only
+		 * @return {@link Builder this}
+		 */
+		public Builder preferHttp2(final boolean preferHttp2) {
+			this.preferHttp2 = preferHttp2;
+			return this;
+		}
+
+		/**
+		 * @param compression {@code true} to request gzip or deflate compressed responses, which are decompressed as they are read
+		 * @return {@link Builder this}
+		 */
+		public Builder compression(final boolean compression) {
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * @param connectTimeout the connect timeout
+		 * @return {@link Builder this}
+		 */
+		public Builder connectTimeout(final Duration connectTimeout) {
+			this.connectTimeout =
+				requirePositive(connectTimeout, "connectTimeout");
+			return this;
+		}
+
+		/**
+		 * Sets the read timeout of all {@link CallType call types}.
+		 *
+		 * @param readTimeout the read timeout
+		 * @return {@link Builder this}
+		 */
+		public Builder readTimeout(final Duration readTimeout) {
+			for (final CallType callType : CallType.values()) {
+				readTimeout(callType, readTimeout);
+			}
+			return this;
+		}
+
+		/**
+		 * @param callType    the {@link CallType call type}
+		 * @param readTimeout the read timeout
+		 * @return {@link Builder this}
+		 */
+		public Builder readTimeout(final CallType callType,
+			final Duration readTimeout) {
+			readTimeouts.put(requireNonNull(callType, "callType must not be null"),
+				requirePositive(readTimeout, "readTimeout"));
+			return this;
+		}
+
+		/**
+		 * Sets the write timeout of all {@link CallType call types}.
+		 *
+		 * @param writeTimeout the write timeout
+		 * @return {@link Builder this}
+		 */
+		public Builder writeTimeout(final Duration writeTimeout) {
+			for (final CallType callType : CallType.values()) {
+				writeTimeout(callType, writeTimeout);
+			}
+			return this;
+		}
+
+		/**
+		 * @param callType     the {@link CallType call type}
+		 * @param writeTimeout the write timeout
+		 * @return {@link Builder this}
+		 */
+		public Builder writeTimeout(final CallType callType,
+			final Duration writeTimeout) {
+			writeTimeouts.put(
+				requireNonNull(callType, "callType must not be null"),
+				requirePositive(writeTimeout, "writeTimeout"));
+			return this;
+		}
+
+		public CodaTransport build() {
+			return new CodaTransport(this);
+		}
+
+		private static Duration requirePositive(final Duration duration,
+			final String name) {
+			requireNonNull(duration, name + " must not be null");
+			checkArgument(!duration.isNegative() && !duration.isZero(),
+				name + " must be positive");
+			return duration;
+		}
+
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.zip.Inflater;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.GzipSource;
+import okio.InflaterSource;
+import okio.Okio;
+import okio.Source;
+import org.jetbrains.annotations.NotNull;
+
+import com.iland.coda.footprint.CodaTransport.CallType;
+
+/**
+ * A network interceptor that negotiates compressed responses and decompresses
+ * them as they are read, so the application interceptors (e.g.
+ * {@link ResponseNormalizer}) and the generated {@code ApiClient} consume the
+ * decoded stream without any change. Transferred and decompressed bytes are
+ * recorded in {@link TransferMetrics}.
+ * <p>
+ * OkHttp decodes gzip on its own, but only for the encodings it advertised
+ * and without exposing the transferred byte counts, hence this interceptor
+ * advertises and decodes the encodings itself.
+ */
+final class CompressionInterceptor implements Interceptor {
+
+	private static final String ACCEPT_ENCODING = "Accept-Encoding";
+	private static final String CONTENT_ENCODING = "Content-Encoding";
+	private static final String CONTENT_LENGTH = "Content-Length";
+
+	/**
+	 * The supported encodings in order of preference.
+	 */
+	private static final Map<String, Function<Source, Source>> DECODERS;
+
+	static {
+		final Map<String, Function<Source, Source>> decoders =
+			new LinkedHashMap<>();
+		decoders.put("gzip", GzipSource::new);
+		decoders.put("deflate",
+			source -> inflate(source, new Inflater()));
+
+		DECODERS = Collections.unmodifiableMap(decoders);
+	}
+
+	private final TransferMetrics metrics;
+	private final String acceptEncoding;
+
+	/**
+	 * @param metrics     the {@link TransferMetrics} to record bytes in
+	 * @param compression {@code false} to request uncompressed responses
+	 */
+	CompressionInterceptor(final TransferMetrics metrics,
+		final boolean compression) {
+		this.metrics = metrics;
+		this.acceptEncoding =
+			compression ? String.join(", ", DECODERS.keySet()) : "identity";
+	}
+
+	@NotNull
+	@Override
+	public Response intercept(@NotNull final Chain chain) throws IOException {
+		final Request request = chain.request()
+			.newBuilder()
+			.header(ACCEPT_ENCODING, acceptEncoding)
+			.build();
+		final Response response = chain.proceed(request);
+
+		final ResponseBody body = response.body();
+		if (body == null || "HEAD".equals(request.method())
+			|| response.code() == 204 || response.code() == 304) {
+			return response;
+		}
+
+		final TransferMetrics.Counters counters =
+			metrics.counters(CallType.of(request));
+		counters.responses.increment();
+
+		final String encoding = response.header(CONTENT_ENCODING);
+		final Function<Source, Source> decoder = encoding == null
+			? null
+			: DECODERS.get(encoding.trim().toLowerCase(Locale.ROOT));
+		if (decoder == null) {
+			// identity or an encoding we did not ask for
+			final Source source =
+				new CountingSource(body.source(), counters.transferredBytes,
+					counters.decompressedBytes);
+			return response.newBuilder()
+				.body(ResponseBody.create(Okio.buffer(source),
+					body.contentType(), body.contentLength()))
+				.build();
+		}
+
+		counters.compressedResponses.increment();
+		final Source transferred =
+			new CountingSource(body.source(), counters.transferredBytes);
+		final Source decompressed =
+			new CountingSource(decoder.apply(transferred),
+				counters.decompressedBytes);
+
+		return response.newBuilder()
+			.removeHeader(CONTENT_ENCODING)
+			.removeHeader(CONTENT_LENGTH)
+			.body(ResponseBody.create(Okio.buffer(decompressed),
+				body.contentType(), -1L))
+			.build();
+	}
+
+	/**
+	 * Decodes a deflate {@link Source source}. The returned source owns the
+	 * {@link Inflater} and ends it when closed to release its native memory;
+	 * current Okio versions end it in {@link InflaterSource#close()} as well,
+	 * but do not document it, and ending it twice is harmless.
+	 */
+	static Source inflate(final Source source, final Inflater inflater) {
+		return new ForwardingSource(new InflaterSource(source, inflater)) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					inflater.end();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Adds the number of bytes read to one or more counters.
+	 */
+	private static final class CountingSource extends ForwardingSource {
+
+		private final LongAdder[] counters;
+
+		private CountingSource(final Source delegate,
+			final LongAdder... counters) {
+			super(delegate);
+			this.counters = counters;
+		}
+
+		@Override
+		public long read(@NotNull final Buffer sink, final long byteCount)
+			throws IOException {
+			final long read = super.read(sink, byteCount);
+			if (read > 0) {
+				for (final LongAdder counter : counters) {
+					counter.add(read);
+				}
+			}
+
+			return read;
+		}
+
+	}
+
+}
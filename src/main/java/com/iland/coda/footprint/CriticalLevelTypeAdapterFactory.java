@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+package com.iland.coda.footprint;
+
+import java.io.IOException;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.codacloud.model.CVRMeta;
+
+/**
+ * The OpenAPI declaration types {@link CVRMeta#getCriticalLevel()} as a number
+ * but the snapshot reports contain words, e.g. "high". Such values are
+ * replaced with {@literal -1} while the {@link CVRMeta meta} is parsed.
+ * {@link ResponseNormalizer} already replaces them in responses; this covers
+ * JSON that did not pass through it, e.g. reports from a {@link ReportStore}.
+ */
+final class CriticalLevelTypeAdapterFactory implements TypeAdapterFactory {
+
+	static final double UNKNOWN_CRITICAL_LEVEL = -1;
+
+	@Override
+	public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+		if (!CVRMeta.class.equals(type.getRawType())) {
+			return null;
+		}
+
+		final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+		final TypeAdapter<JsonElement> elementAdapter =
+			gson.getAdapter(JsonElement.class);
+
+		return new TypeAdapter<T>() {
+			@Override
+			public void write(final JsonWriter out, final T value)
+				throws IOException {
+				delegate.write(out, value);
+			}
+
+			@Override
+			public T read(final JsonReader in) throws IOException {
+				final JsonElement element = elementAdapter.read(in);
+				if (element.isJsonObject()) {
+					fixCriticalLevel(element.getAsJsonObject());
+				}
+
+				return delegate.fromJsonTree(element);
+			}
+		};
+	}
+
+	private static void fixCriticalLevel(final JsonObject meta) {
+		final JsonElement criticalLevel =
+			meta.get(CVRMeta.SERIALIZED_NAME_CRITICAL_LEVEL);
+		if (criticalLevel != null && criticalLevel.isJsonPrimitive()
+			&& criticalLevel.getAsJsonPrimitive().isString()) {
+			meta.add(CVRMeta.SERIALIZED_NAME_CRITICAL_LEVEL,
+				new JsonPrimitive(UNKNOWN_CRITICAL_LEVEL));
+		}
+	}
+
+}
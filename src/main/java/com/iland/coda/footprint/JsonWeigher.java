@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.io.Writer;
+import java.util.function.ToLongFunction;
+
+import com.google.gson.Gson;
+import net.codacloud.JSON;
+import net.codacloud.model.CVR;
+
+/**
+ * Weighs a {@link CVR report} by the length of its JSON representation
+ * without materializing it.
+ */
+enum JsonWeigher implements ToLongFunction<CVR> {
+	INSTANCE;
+
+	private final Gson gson = new JSON().getGson();
+
+	@Override
+	public long applyAsLong(final CVR cvr) {
+		final CountingWriter writer = new CountingWriter();
+		gson.toJson(cvr, writer);
+
+		return writer.count;
+	}
+
+	private static final class CountingWriter extends Writer {
+
+		private long count;
+
+		@Override
+		public void write(final char[] cbuf, final int off, final int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(final String str, final int off, final int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(final int c) {
+			count++;
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
@@ -18,33 +18,77 @@ package com.iland.coda.footprint;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import net.codacloud.ApiClient;
 import net.codacloud.ApiException;
+import net.codacloud.api.AuthApi;
 import net.codacloud.api.CommonApi;
+import net.codacloud.model.SessionLoggedInSrz;
 import net.codacloud.model.SessionLoginSrzRequest;
+import net.codacloud.model.TokenRefreshRequest;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.iland.coda.footprint.concurrent.IoExecutors;
 
 /**
- * Extracts bearer access token to be used in future requests.
+ * Extracts bearer access token to be used in future requests. The access
+ * token is renewed with the refresh token from the login shortly before it
+ * expires, so that requests are not rejected when it does. {@link #close()
+ * Closing} stops the renewal.
  *
  * @author <a href="mailto:tagspilman@1111systems.com">Tag Spilman</a>
  */
-public final class PasswordAuthentication implements Authentication {
+public final class PasswordAuthentication
+	implements Authentication, AutoCloseable {
+
+	private static final Logger logger =
+		LoggerFactory.getLogger(PasswordAuthentication.class);
+
+	/**
+	 * How long before its expiry an access token is refreshed.
+	 */
+	static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofMinutes(1);
 
 	private final String username, password;
+	private final ScheduledExecutorService scheduler;
+	private final Duration refreshMargin;
 
 	final AtomicReference<String> accessToken = new AtomicReference<>();
+	private final AtomicReference<String> refreshToken =
+		new AtomicReference<>();
+	private ScheduledFuture<?> scheduledRefresh;
+	private boolean closed;
 
 	public PasswordAuthentication(final String username,
 		final String password) {
+		this(username, password, IoExecutors.scheduler(),
+			DEFAULT_REFRESH_MARGIN);
+	}
+
+	PasswordAuthentication(final String username, final String password,
+		final ScheduledExecutorService scheduler, final Duration refreshMargin) {
 		this.username = requireNonNull(username, "username must not be null");
 		this.password = requireNonNull(password, "password must not be null");
+		this.scheduler = requireNonNull(scheduler, "scheduler must not be null");
+		this.refreshMargin =
+			requireNonNull(refreshMargin, "refreshMargin must not be null");
 	}
 
 	@Override
@@ -53,7 +97,102 @@ public final class PasswordAuthentication implements Authentication {
 
 		final SessionLoginSrzRequest credentials =
 			new SessionLoginSrzRequest().username(username).password(password);
-		new CommonApi(apiClient).login(null, credentials);
+		final SessionLoggedInSrz session =
+			new CommonApi(apiClient).login(null, credentials);
+
+		if (session != null && session.getRefresh() != null) {
+			refreshToken.set(session.getRefresh());
+			scheduleRefresh(apiClient);
+		}
+	}
+
+	/**
+	 * Schedules the renewal of the current access token ahead of its expiry.
+	 * Tokens without a readable expiry are not renewed; they are replaced by
+	 * a login once they are rejected.
+	 */
+	private synchronized void scheduleRefresh(final ApiClient apiClient) {
+		cancelRefresh();
+		if (closed) {
+			return;
+		}
+
+		final Instant expiry = expiry(accessToken.get());
+		if (expiry == null) {
+			return;
+		}
+
+		final long delayMillis = Math.max(0L,
+			Duration.between(Instant.now(), expiry.minus(refreshMargin))
+				.toMillis());
+		// the refresh is a blocking call so it does not run on the scheduler
+		scheduledRefresh = scheduler.schedule(
+			() -> IoExecutors.shared().execute(() -> refresh(apiClient)),
+			delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private void cancelRefresh() {
+		if (scheduledRefresh != null) {
+			scheduledRefresh.cancel(false);
+			scheduledRefresh = null;
+		}
+	}
+
+	/**
+	 * Stops renewing the access token. Requests are still authenticated; once
+	 * the access token is rejected it is replaced by a login, which is not
+	 * renewed either.
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		cancelRefresh();
+	}
+
+	private void refresh(final ApiClient apiClient) {
+		try {
+			final String access = new AuthApi(apiClient).authTokenRefreshCreate(
+					new TokenRefreshRequest().refresh(refreshToken.get()), null)
+				.getAccess();
+			if (access == null) {
+				return;
+			}
+
+			accessToken.set(access);
+			scheduleRefresh(apiClient);
+		} catch (ApiException e) {
+			// the next rejected request triggers a login instead
+			logger.warn("Failed to refresh the access token", e);
+		}
+	}
+
+	/**
+	 * Decodes the {@code exp} claim of a JSON web token.
+	 *
+	 * @return the expiry of the token or {@literal null} if it cannot be decoded
+	 */
+	static Instant expiry(final String jwt) {
+		if (jwt == null) {
+			return null;
+		}
+
+		final String[] parts = jwt.split("\\.");
+		if (parts.length < 2) {
+			return null;
+		}
+
+		try {
+			final String payload = new String(
+				Base64.getUrlDecoder().decode(parts[1]),
+				StandardCharsets.UTF_8);
+			final JsonObject claims =
+				JsonParser.parseString(payload).getAsJsonObject();
+			final JsonElement exp = claims.get("exp");
+
+			return exp == null ? null : Instant.ofEpochSecond(exp.getAsLong());
+		} catch (RuntimeException e) {
+			return null;
+		}
 	}
 
 	@NotNull
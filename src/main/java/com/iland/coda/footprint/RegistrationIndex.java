@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import net.codacloud.model.RegistrationLight;
+
+/**
+ * An immutable snapshot of {@link RegistrationLight registrations} with a
+ * prefix tree of their labels, so that the registration for a label is found
+ * in time proportional to the length of the label rather than the number of
+ * registrations.
+ *
+ * @see CodaClient#getRegistrationForLabel(String)
+ */
+final class RegistrationIndex {
+
+	private final Set<RegistrationLight> registrations;
+	private final Node root = new Node();
+
+	RegistrationIndex(final Collection<RegistrationLight> registrations) {
+		this.registrations =
+			Collections.unmodifiableSet(new LinkedHashSet<>(registrations));
+
+		for (final RegistrationLight registration : this.registrations) {
+			if (registration.getId() == null
+				|| registration.getLabel() == null) {
+				continue;
+			}
+
+			Node node = root;
+			for (final char c : registration.getLabel().toCharArray()) {
+				node = node.children.computeIfAbsent(c, k -> new Node());
+			}
+			node.offer(registration);
+		}
+	}
+
+	Set<RegistrationLight> registrations() {
+		return registrations;
+	}
+
+	/**
+	 * Returns the {@link RegistrationLight registration} with the lowest id
+	 * whose label is a prefix of the supplied label.
+	 */
+	Optional<RegistrationLight> forLabel(final String label) {
+		RegistrationLight match = root.registration;
+		Node node = root;
+		for (int i = 0; i < label.length(); i++) {
+			node = node.children.get(label.charAt(i));
+			if (node == null) {
+				break;
+			}
+			if (node.registration != null && (match == null
+				|| node.registration.getId() < match.getId())) {
+				match = node.registration;
+			}
+		}
+
+		return Optional.ofNullable(match);
+	}
+
+	/**
+	 * @return a new {@link RegistrationIndex index} with the supplied registration added
+	 */
+	RegistrationIndex with(final RegistrationLight registration) {
+		final Set<RegistrationLight> copy = new LinkedHashSet<>(registrations);
+		copy.add(registration);
+
+		return new RegistrationIndex(copy);
+	}
+
+	/**
+	 * @return a new {@link RegistrationIndex index} with the registration of the supplied id replaced
+	 */
+	RegistrationIndex replace(final Integer id,
+		final RegistrationLight registration) {
+		if (registrations.stream().noneMatch(hasId(id))) {
+			return this;
+		}
+
+		final Set<RegistrationLight> copy = new LinkedHashSet<>(registrations);
+		copy.removeIf(hasId(id));
+		copy.add(registration);
+
+		return new RegistrationIndex(copy);
+	}
+
+	/**
+	 * @return a new {@link RegistrationIndex index} without the registration of the supplied id
+	 */
+	RegistrationIndex without(final Integer id) {
+		final Set<RegistrationLight> copy = new LinkedHashSet<>(registrations);
+		copy.removeIf(hasId(id));
+
+		return new RegistrationIndex(copy);
+	}
+
+	private static Predicate<RegistrationLight> hasId(final Integer id) {
+		return r -> Objects.equals(r.getId(), id);
+	}
+
+	private static final class Node {
+
+		private final Map<Character, Node> children = new HashMap<>();
+		private RegistrationLight registration;
+
+		private void offer(final RegistrationLight candidate) {
+			if (registration == null
+				|| candidate.getId() < registration.getId()) {
+				registration = candidate;
+			}
+		}
+
+	}
+
+}
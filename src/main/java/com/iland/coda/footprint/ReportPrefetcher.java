@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+import com.google.common.base.Stopwatch;
+import net.codacloud.ApiException;
+import net.codacloud.model.CVR;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.iland.coda.footprint.CodaClient.LazyCVR;
+import com.iland.coda.footprint.CodaClient.ReportType;
+import com.iland.coda.footprint.concurrent.IoExecutors;
+
+/**
+ * Downloads the reports of a date range concurrently and hands them to a
+ * consumer in date order. The reports held in memory, i.e. those in flight and
+ * those completed but not yet consumed, are bounded by
+ * {@link #maxInFlightBytes(long) maxInFlightBytes}. As the size of a report is
+ * only known once it has been downloaded, the first report is downloaded on
+ * its own and later reports reserve the size of the largest report seen so
+ * far.
+ * <p>
+ * Reports are retrieved via {@link CodaClient#getReports(ReportType, Integer)},
+ * so they are retried if the client is (or wraps) a {@link RetryCodaClient}.
+ */
+public final class ReportPrefetcher {
+
+	private static final Logger logger =
+		LoggerFactory.getLogger(ReportPrefetcher.class);
+
+	/**
+	 * The default maximum number of bytes held by reports in flight or awaiting consumption.
+	 */
+	public static final long DEFAULT_MAX_IN_FLIGHT_BYTES = 256L << 20;
+
+	/**
+	 * The default maximum number of concurrently downloaded reports.
+	 */
+	public static final int DEFAULT_MAX_IN_FLIGHT_REPORTS = 4;
+
+	private final CodaClient client;
+
+	private Executor executor = IoExecutors.shared();
+	private long maxInFlightBytes = DEFAULT_MAX_IN_FLIGHT_BYTES;
+	private int maxInFlightReports = DEFAULT_MAX_IN_FLIGHT_REPORTS;
+	private ToLongFunction<CVR> weigher = JsonWeigher.INSTANCE;
+
+	public ReportPrefetcher(final CodaClient client) {
+		this.client = requireNonNull(client, "client must not be null");
+	}
+
+	/**
+	 * Sets the {@link Executor executor} on which reports are downloaded.
+	 * Defaults to {@link IoExecutors#shared()}.
+	 *
+	 * @param executor an {@link Executor executor} suitable for blocking calls
+	 * @return {@link ReportPrefetcher this}
+	 */
+	public ReportPrefetcher executor(final Executor executor) {
+		this.executor = requireNonNull(executor, "executor must not be null");
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of bytes held by reports in flight or awaiting
+	 * consumption. A single report larger than this is still downloaded, but
+	 * on its own. Defaults to {@link #DEFAULT_MAX_IN_FLIGHT_BYTES}.
+	 *
+	 * @param maxInFlightBytes the maximum number of bytes
+	 * @return {@link ReportPrefetcher this}
+	 */
+	public ReportPrefetcher maxInFlightBytes(final long maxInFlightBytes) {
+		checkArgument(maxInFlightBytes > 0,
+			"maxInFlightBytes must be greater than 0");
+		this.maxInFlightBytes = maxInFlightBytes;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of concurrently downloaded reports. Defaults to
+	 * {@link #DEFAULT_MAX_IN_FLIGHT_REPORTS}.
+	 *
+	 * @param maxInFlightReports the maximum number of reports
+	 * @return {@link ReportPrefetcher this}
+	 */
+	public ReportPrefetcher maxInFlightReports(final int maxInFlightReports) {
+		checkArgument(maxInFlightReports > 0,
+			"maxInFlightReports must be greater than 0");
+		this.maxInFlightReports = maxInFlightReports;
+		return this;
+	}
+
+	/**
+	 * Sets the function that estimates the number of bytes a {@link CVR report}
+	 * occupies. Defaults to the length of its JSON representation.
+	 *
+	 * @param weigher returns the size of a {@link CVR report} in bytes
+	 * @return {@link ReportPrefetcher this}
+	 */
+	public ReportPrefetcher weigher(final ToLongFunction<CVR> weigher) {
+		this.weigher = requireNonNull(weigher, "weigher must not be null");
+		return this;
+	}
+
+	/**
+	 * Downloads all reports generated between {@code from} and {@code to} and
+	 * passes them to the {@link BiConsumer consumer} in date order on the
+	 * calling thread. Downloading stops at the first failure.
+	 *
+	 * @param reportType the {@link ReportType report type}
+	 * @param accountId  Account ID you want to receive request for. If not provided, falls back on <code>original_account_id</code> from the auth endpoint.
+	 * @param from       the earliest generation date (inclusive) or {@literal null}
+	 * @param to         the latest generation date (inclusive) or {@literal null}
+	 * @param consumer   receives the generation date and the {@link CVR report}
+	 * @throws ApiException if the reports could not be listed or one could not be downloaded
+	 */
+	public void prefetch(final ReportType reportType, final Integer accountId,
+		final LocalDateTime from, final LocalDateTime to,
+		final BiConsumer<LocalDateTime, CVR> consumer) throws ApiException {
+		requireNonNull(consumer, "consumer must not be null");
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final TreeMap<LocalDateTime, LazyCVR> reports =
+			new TreeMap<>(client.getReports(reportType, accountId));
+		final Iterator<Map.Entry<LocalDateTime, LazyCVR>> pending =
+			(from == null ? reports : reports.tailMap(from, true)).entrySet()
+				.stream()
+				.filter(e -> to == null || !e.getKey().isAfter(to))
+				.iterator();
+
+		final Deque<Download> downloads = new ArrayDeque<>();
+		long largest = 0;
+		int consumed = 0;
+		try {
+			while (pending.hasNext() || !downloads.isEmpty()) {
+				// start as many downloads as the limits allow, oldest first
+				while (pending.hasNext() && (downloads.isEmpty() || (largest > 0
+					&& downloads.size() < maxInFlightReports
+					&& reserved(downloads, largest) + largest
+					<= maxInFlightBytes))) {
+					downloads.add(start(pending.next()));
+				}
+
+				final Download download = downloads.poll();
+				final CVR cvr = await(download.future);
+				largest = Math.max(largest, download.weight);
+
+				consumer.accept(download.date, cvr);
+				consumed++;
+			}
+		} finally {
+			downloads.forEach(download -> download.future.cancel(true));
+			logger.debug("Prefetched {} reports in {}", consumed, stopwatch);
+		}
+	}
+
+	private Download start(final Map.Entry<LocalDateTime, LazyCVR> report) {
+		final Download download = new Download(report.getKey());
+		download.future = CompletableFuture.supplyAsync(() -> {
+			try {
+				final CVR cvr = report.getValue().retrieve();
+				download.weight = weigher.applyAsLong(cvr);
+				return cvr;
+			} catch (ApiException e) {
+				throw new RuntimeException(e);
+			}
+		}, executor);
+
+		return download;
+	}
+
+	/**
+	 * Returns the bytes held by the supplied downloads; those that have not
+	 * completed yet are assumed to be as large as the largest report so far.
+	 */
+	private static long reserved(final Deque<Download> downloads,
+		final long largest) {
+		long reserved = 0;
+		for (final Download download : downloads) {
+			reserved += download.future.isDone() && download.weight > 0
+				? download.weight
+				: largest;
+		}
+
+		return reserved;
+	}
+
+	private static CVR await(final CompletableFuture<CVR> future)
+		throws ApiException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApiException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException
+				&& cause.getCause() instanceof ApiException) {
+				throw (ApiException) cause.getCause();
+			}
+			throw new ApiException(cause);
+		}
+	}
+
+	private static final class Download {
+
+		private final LocalDateTime date;
+		private CompletableFuture<CVR> future;
+		/**
+		 * Written before the future completes.
+		 */
+		private volatile long weight;
+
+		private Download(final LocalDateTime date) {
+			this.date = date;
+		}
+
+	}
+
+}
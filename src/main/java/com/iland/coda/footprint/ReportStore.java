@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+package com.iland.coda.footprint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.CharStreams;
+
+import com.iland.coda.footprint.CodaClient.ReportType;
+
+/**
+ * A persistent, content-addressed store of {@link net.codacloud.model.CVR
+ * report} JSON. Reports are immutable once generated, so a report stored under
+ * its (account, {@link ReportType report type}, generation date) key never
+ * needs to be fetched again, not even after a restart.
+ * <p>
+ * Each report is stored gzip-compressed under the SHA-256 of its JSON in
+ * {@code objects/}; {@code keys/} maps a key to that hash, so identical
+ * reports are stored once. Files are written to a temporary file and moved
+ * into place, so concurrent writers and crashes never leave a partial report
+ * behind. A report that is truncated or whose content does not match its hash
+ * is treated as missing and deleted, so that the next put stores it again.
+ */
+public final class ReportStore {
+
+	private static final String OBJECTS = "objects";
+	private static final String KEYS = "keys";
+	private static final String DEFAULT_ACCOUNT = "default";
+
+	private final Path directory;
+
+	/**
+	 * @param directory the directory of the store; created if it does not exist
+	 * @throws IOException if the directory cannot be created
+	 */
+	public ReportStore(final Path directory) throws IOException {
+		this.directory = Files.createDirectories(
+			requireNonNull(directory, "directory must not be null"));
+	}
+
+	/**
+	 * Returns the JSON of a stored report.
+	 *
+	 * @param accountId      the account or {@literal null} for the current account
+	 * @param reportType     the {@link ReportType report type}
+	 * @param generationDate the {@link GenerationDate generation date}
+	 * @return the JSON of the report or {@link Optional#empty()} if it is not stored
+	 * @throws IOException if the store cannot be read
+	 */
+	public Optional<String> get(final Integer accountId,
+		final ReportType reportType, final LocalDateTime generationDate)
+		throws IOException {
+		final Path key = keyPath(accountId, reportType, generationDate);
+		if (!Files.exists(key)) {
+			return Optional.empty();
+		}
+
+		final String hash = new String(Files.readAllBytes(key), UTF_8).trim();
+		final Path object = objectPath(hash);
+		if (!Files.exists(object)) {
+			return Optional.empty();
+		}
+
+		final String json;
+		try (final InputStream in = new GZIPInputStream(
+			Files.newInputStream(object))) {
+			json = CharStreams.toString(new InputStreamReader(in, UTF_8));
+		} catch (EOFException | ZipException e) {
+			// truncated or not gzip
+			delete(key, object);
+			return Optional.empty();
+		}
+
+		if (!hash.equals(hash(json))) {
+			delete(key, object);
+			return Optional.empty();
+		}
+
+		return Optional.of(json);
+	}
+
+	/**
+	 * Stores the JSON of a report.
+	 *
+	 * @param accountId      the account or {@literal null} for the current account
+	 * @param reportType     the {@link ReportType report type}
+	 * @param generationDate the {@link GenerationDate generation date}
+	 * @param json           the JSON of the report
+	 * @throws IOException if the store cannot be written
+	 */
+	public void put(final Integer accountId, final ReportType reportType,
+		final LocalDateTime generationDate, final String json)
+		throws IOException {
+		final String hash = hash(json);
+
+		final Path object = objectPath(hash);
+		if (!Files.exists(object)) {
+			write(object, out -> {
+				try (final OutputStream gzip = new GZIPOutputStream(out)) {
+					gzip.write(json.getBytes(UTF_8));
+				}
+			});
+		}
+
+		write(keyPath(accountId, reportType, generationDate),
+			out -> out.write(hash.getBytes(UTF_8)));
+	}
+
+	/**
+	 * Deletes a corrupt object, and the key that refers to it, since a put
+	 * does not overwrite an existing object. Other keys that refer to the
+	 * object are deleted when they are read.
+	 */
+	private static void delete(final Path key, final Path object)
+		throws IOException {
+		Files.deleteIfExists(object);
+		Files.deleteIfExists(key);
+	}
+
+	private Path objectPath(final String hash) {
+		return directory.resolve(OBJECTS)
+			.resolve(hash.substring(0, 2))
+			.resolve(hash + ".json.gz");
+	}
+
+	private Path keyPath(final Integer accountId, final ReportType reportType,
+		final LocalDateTime generationDate) {
+		return directory.resolve(KEYS)
+			.resolve(accountId == null ? DEFAULT_ACCOUNT : accountId.toString())
+			.resolve(reportType.value())
+			// ':' is not allowed in Windows file names
+			.resolve(generationDate.toString().replace(':', '-'));
+	}
+
+	private static String hash(final String json) {
+		return Hashing.sha256().hashString(json, UTF_8).toString();
+	}
+
+	private static void write(final Path path, final Writer writer)
+		throws IOException {
+		Files.createDirectories(path.getParent());
+		final Path temp =
+			Files.createTempFile(path.getParent(), path.getFileName().toString(),
+				".tmp");
+		try {
+			try (final OutputStream out = Files.newOutputStream(temp)) {
+				writer.write(out);
+			}
+
+			try {
+				Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Writer {
+
+		void write(OutputStream out) throws IOException;
+
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+package com.iland.coda.footprint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.regex.Pattern;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Works around invalid OpenAPI declarations by rewriting JSON responses in a
+ * single streaming pass:
+ * <ul>
+ *     <li>empty strings are replaced with {@literal null} (empty Strings cause a JSON parse exception in GSON)</li>
+ *     <li>"None" member values are replaced with {@literal null}</li>
+ *     <li>empty "schedulerConfig" objects are replaced with {@literal null} (FIXME: parse scheduler config)</li>
+ *     <li>dates of the format "2018-07-19 01:29:00+00:00" or "2022-05-18 15:28:09.807554+00:00" are replaced with "2022-05-18T15:28:09..."</li>
+ *     <li>"criticalLevel" words, e.g. "high", are replaced with {@literal -1} as the OpenAPI declaration types them as numbers</li>
+ * </ul>
+ */
+final class ResponseNormalizer implements Interceptor {
+
+	private static final String NONE = "None";
+	private static final String SCHEDULER_CONFIG = "schedulerConfig";
+	private static final String CRITICAL_LEVEL = "criticalLevel";
+	private static final Pattern WORD_PATTERN = Pattern.compile("\\w+");
+	private static final String UTC_OFFSET = "+00:00";
+
+	private static final Pattern DATE_TIME_PATTERN = Pattern.compile(
+		"(\\d{4}-\\d{2}-\\d{2})\\s*(\\d{2}:\\d{2}:\\d{2})(\\.\\d+)?(\\+00:00)");
+
+	ResponseNormalizer() {
+	}
+
+	@NotNull
+	@Override
+	public Response intercept(@NotNull final Chain chain) throws IOException {
+		final Request request = chain.request();
+		final Response response = chain.proceed(request);
+
+		final ResponseBody body = response.body();
+		if (response.code() != 200 || body == null || !isJson(
+			body.contentType())) {
+			return response;
+		}
+
+		final Buffer buffer = new Buffer();
+		try (final BufferedSource source = body.source()) {
+			if (source.exhausted()) {
+				return response.newBuilder()
+					.body(ResponseBody.Companion.create(buffer,
+						body.contentType(), 0L))
+					.build();
+			}
+
+			normalize(source, buffer);
+		}
+
+		return response.newBuilder()
+			.body(ResponseBody.Companion.create(buffer, body.contentType(),
+				buffer.size()))
+			.build();
+	}
+
+	/**
+	 * Returns whether the supplied {@link MediaType} is JSON. A missing content
+	 * type is treated as JSON, in line with the generated {@code ApiClient}.
+	 *
+	 * @param mediaType a {@link MediaType} or {@literal null}
+	 * @return whether the supplied {@link MediaType} is JSON
+	 */
+	private static boolean isJson(final MediaType mediaType) {
+		if (mediaType == null) {
+			return true;
+		}
+
+		final String subtype = mediaType.subtype();
+		return "json".equalsIgnoreCase(subtype) || subtype.toLowerCase()
+			.endsWith("+json");
+	}
+
+	/**
+	 * Copies the JSON document from the {@link BufferedSource source} to the
+	 * {@link BufferedSink sink} token by token, applying all fixes on the way.
+	 *
+	 * @param source the original JSON
+	 * @param sink   receives the normalized JSON
+	 * @throws IOException if the source is not valid JSON
+	 */
+	static void normalize(final BufferedSource source, final BufferedSink sink)
+		throws IOException {
+		final JsonReader reader =
+			new JsonReader(new InputStreamReader(source.inputStream(), UTF_8));
+		reader.setLenient(true);
+		final JsonWriter writer =
+			new JsonWriter(new OutputStreamWriter(sink.outputStream(), UTF_8));
+		writer.setLenient(true);
+
+		while (reader.peek() != JsonToken.END_DOCUMENT) {
+			copyValue(reader, writer, null);
+		}
+
+		writer.flush();
+	}
+
+	/**
+	 * Copies the next value.
+	 *
+	 * @param name the member name if the value belongs to an object, otherwise {@literal null}
+	 */
+	private static void copyValue(final JsonReader reader,
+		final JsonWriter writer, final String name) throws IOException {
+		switch (reader.peek()) {
+			case BEGIN_OBJECT:
+				reader.beginObject();
+				if (SCHEDULER_CONFIG.equals(name)
+					&& reader.peek() == JsonToken.END_OBJECT) {
+					reader.endObject();
+					writer.nullValue();
+					break;
+				}
+
+				writer.beginObject();
+				while (reader.hasNext()) {
+					final String memberName = reader.nextName();
+					writer.name(memberName);
+					copyValue(reader, writer, memberName);
+				}
+				reader.endObject();
+				writer.endObject();
+				break;
+			case BEGIN_ARRAY:
+				reader.beginArray();
+				writer.beginArray();
+				while (reader.hasNext()) {
+					copyValue(reader, writer, null);
+				}
+				reader.endArray();
+				writer.endArray();
+				break;
+			case STRING:
+				final String value = reader.nextString();
+				if (value.isEmpty() || (name != null && NONE.equals(value))) {
+					writer.nullValue();
+				} else if (CRITICAL_LEVEL.equals(name)
+					&& WORD_PATTERN.matcher(value).matches()) {
+					writer.value(-1);
+				} else {
+					writer.value(fixDate(value));
+				}
+				break;
+			case NUMBER:
+				// preserve the original representation of the number
+				writer.jsonValue(reader.nextString());
+				break;
+			case BOOLEAN:
+				writer.value(reader.nextBoolean());
+				break;
+			case NULL:
+				reader.nextNull();
+				writer.nullValue();
+				break;
+			default:
+				throw new IllegalStateException(
+					"Unexpected JSON token: " + reader.peek());
+		}
+	}
+
+	/**
+	 * Replaces dates of the format "2018-07-19 01:29:00+00:00" or "2022-05-18 15:28:09.807554+00:00" with "2022-05-18T15:28:09...".
+	 *
+	 * @param value a {@link String} value
+	 * @return the value with all dates replaced with properly formatted values
+	 */
+	static String fixDate(final String value) {
+		if (value.length() < 24 || !value.contains(UTC_OFFSET)) {
+			return value;
+		}
+
+		return DATE_TIME_PATTERN.matcher(value).replaceAll("$1T$2$3$4");
+	}
+
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.google.common.base.Preconditions;
+import net.codacloud.ApiException;
+import net.codacloud.model.Account;
+import net.codacloud.model.AdminUser;
+import net.codacloud.model.AgentlessScannerSrz;
+import net.codacloud.model.CVR;
+import net.codacloud.model.ExtendMessageRequest;
+import net.codacloud.model.RegistrationLight;
+import net.codacloud.model.Scan;
+import net.codacloud.model.ScanStatus;
+import net.codacloud.model.ScanSurfaceEntry;
+import net.codacloud.model.ScanUuidScannerId;
+import net.codacloud.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.iland.coda.footprint.CodaClient.ReportType;
+import com.iland.coda.footprint.concurrent.IoExecutors;
+
+/**
+ * {@link RetryAsyncCodaClient} applies the retry policy of {@link RetryCodaClient} without blocking: failed calls are
+ * rescheduled on a {@link ScheduledExecutorService scheduler} with a Fibonacci backoff of at most one minute until
+ * three minutes have passed. A 401 or 403 response triggers a {@link #login() login} before the next attempt.
+ */
+final class RetryAsyncCodaClient implements AsyncCodaClient {
+
+	private static final Logger logger =
+		LoggerFactory.getLogger(RetryAsyncCodaClient.class);
+
+	private static final long MAXIMUM_WAIT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private static final long STOP_AFTER_MILLIS = TimeUnit.MINUTES.toMillis(3);
+
+	private final AsyncCodaClient delegatee;
+	private final ScheduledExecutorService scheduler;
+	private final long stopAfterMillis;
+
+	/**
+	 * Incremented after every login, successful or not. A request that fails
+	 * with a 401 or 403 only logs in again if no login has been attempted
+	 * since it was sent.
+	 */
+	private final AtomicLong loginGeneration = new AtomicLong();
+	/**
+	 * Guards {@link #inFlightLogin} and {@link #loginFailure}; a
+	 * {@link ReentrantLock lock} so that virtual threads waiting for it do not
+	 * pin their carrier.
+	 */
+	private final Lock loginLock = new ReentrantLock();
+	private CompletableFuture<?> inFlightLogin;
+	/**
+	 * The failure of the last login or {@literal null} if it succeeded.
+	 */
+	private Throwable loginFailure;
+
+	RetryAsyncCodaClient(final AsyncCodaClient delegatee) {
+		this(delegatee, IoExecutors.scheduler(), STOP_AFTER_MILLIS);
+	}
+
+	RetryAsyncCodaClient(final AsyncCodaClient delegatee,
+		final ScheduledExecutorService scheduler, final long stopAfterMillis) {
+		this.delegatee =
+			Preconditions.checkNotNull(delegatee, "delegatee must not be null");
+		this.scheduler =
+			Preconditions.checkNotNull(scheduler, "scheduler must not be null");
+		this.stopAfterMillis = stopAfterMillis;
+	}
+
+	@Override
+	public CompletableFuture<AsyncCodaClient> login() {
+		return retryIfNecessary(delegatee::login).thenApply(ignored -> this);
+	}
+
+	@Override
+	public CompletableFuture<Set<RegistrationLight>> listRegistrations(
+		final String category) {
+		return retryIfNecessary(() -> delegatee.listRegistrations(category));
+	}
+
+	@Override
+	public CompletableFuture<Set<Account>> listAccounts(
+		final Integer accountId) {
+		return retryIfNecessary(() -> delegatee.listAccounts(accountId));
+	}
+
+	@Override
+	public CompletableFuture<List<AgentlessScannerSrz>> getScanners(
+		final Integer accountId) {
+		return retryIfNecessary(() -> delegatee.getScanners(accountId));
+	}
+
+	@Override
+	public CompletableFuture<List<ScanUuidScannerId>> updateScanSurface(
+		final ExtendMessageRequest message, final boolean isNoScanRequest,
+		final Integer accountId) {
+		return retryIfNecessary(
+			() -> delegatee.updateScanSurface(message, isNoScanRequest,
+				accountId));
+	}
+
+	@Override
+	public CompletableFuture<List<ScanUuidScannerId>> rescan(
+		final Integer accountId) {
+		return retryIfNecessary(() -> delegatee.rescan(accountId));
+	}
+
+	@Override
+	public CompletableFuture<ScanStatus> getScanStatus(
+		final Integer accountId) {
+		return retryIfNecessary(() -> delegatee.getScanStatus(accountId));
+	}
+
+	@Override
+	public CompletableFuture<Scan> getScanStatus(final String scanId,
+		final Integer accountId) {
+		return retryIfNecessary(
+			() -> delegatee.getScanStatus(scanId, accountId));
+	}
+
+	@Override
+	public CompletableFuture<List<ScanSurfaceEntry>> getScanSurface(
+		final Integer scannerId, final String textFilter,
+		final Integer accountId) {
+		return retryIfNecessary(
+			() -> delegatee.getScanSurface(scannerId, textFilter, accountId));
+	}
+
+	@Override
+	public CompletableFuture<List<String>> getReportTimestamps(
+		final ReportType reportType, final Boolean isXlsxDownload,
+		final Integer accountId) {
+		return retryIfNecessary(
+			() -> delegatee.getReportTimestamps(reportType, isXlsxDownload,
+				accountId));
+	}
+
+	@Override
+	public CompletableFuture<CVR> getReport(final String timestamp,
+		final ReportType reportType, final Integer accountId) {
+		return retryIfNecessary(
+			() -> delegatee.getReport(timestamp, reportType, accountId));
+	}
+
+	@Override
+	public CompletableFuture<List<AdminUser>> listUsers() {
+		return retryIfNecessary(delegatee::listUsers);
+	}
+
+	@Override
+	public CompletableFuture<List<Task>> listScheduledTasks(
+		final String scannerId, final Integer accountId) {
+		return retryIfNecessary(
+			() -> delegatee.listScheduledTasks(scannerId, accountId));
+	}
+
+	@Override
+	public CompletableFuture<Task> updateSchedule(final String taskId,
+		final String action, final Integer accountId) {
+		return retryIfNecessary(
+			() -> delegatee.updateSchedule(taskId, action, accountId));
+	}
+
+	private <V> CompletableFuture<V> retryIfNecessary(
+		final Supplier<CompletableFuture<V>> retryable) {
+		final CompletableFuture<V> result = new CompletableFuture<>();
+		attempt(retryable, result, 1, System.nanoTime());
+
+		return result;
+	}
+
+	private <V> void attempt(final Supplier<CompletableFuture<V>> retryable,
+		final CompletableFuture<V> result, final int attemptNumber,
+		final long startNanos) {
+		if (result.isDone()) {
+			// cancelled by the caller
+			return;
+		}
+
+		final long generation = loginGeneration.get();
+		// from the second attempt on this runs on the scheduler, which would
+		// swallow the exception and leave the result incomplete
+		final CompletableFuture<V> call;
+		try {
+			call = retryable.get();
+		} catch (RuntimeException e) {
+			result.completeExceptionally(e);
+			return;
+		}
+
+		call.whenComplete((value, throwable) -> {
+			if (throwable == null) {
+				result.complete(value);
+				return;
+			}
+
+			final Throwable cause = unwrap(throwable);
+			final long elapsedMillis =
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+			if (!isRetryable(cause) || elapsedMillis >= stopAfterMillis) {
+				result.completeExceptionally(cause);
+				return;
+			}
+
+			if (cause.getCause() instanceof SocketTimeoutException) {
+				logger.warn("Yet another timeout...");
+			}
+
+			final CompletableFuture<?> recovery;
+			try {
+				recovery = requiresLogin(cause)
+					? reauthenticate(generation)
+					: CompletableFuture.completedFuture(null);
+			} catch (RuntimeException e) {
+				result.completeExceptionally(e);
+				return;
+			}
+			recovery.whenComplete((ignored, failure) -> {
+				// a failed login replaces the failure of the request
+				if (failure != null && !isRetryable(unwrap(failure))) {
+					result.completeExceptionally(unwrap(failure));
+					return;
+				}
+
+				try {
+					scheduler.schedule(
+						() -> attempt(retryable, result, attemptNumber + 1,
+							startNanos), fibonacciWaitMillis(attemptNumber),
+						TimeUnit.MILLISECONDS);
+				} catch (RejectedExecutionException e) {
+					result.completeExceptionally(e);
+				}
+			});
+		});
+	}
+
+	/**
+	 * Logs in unless a login has been attempted since the supplied
+	 * generation. Concurrent callers share a single in-flight login; if that
+	 * login failed, later callers of the same generation fail with its
+	 * exception rather than each trying again.
+	 */
+	private CompletableFuture<?> reauthenticate(final long generation) {
+		loginLock.lock();
+		try {
+			if (loginGeneration.get() != generation) {
+				if (loginFailure != null) {
+					final CompletableFuture<?> failed = new CompletableFuture<>();
+					failed.completeExceptionally(loginFailure);
+					return failed;
+				}
+				return CompletableFuture.completedFuture(null);
+			}
+
+			if (inFlightLogin != null) {
+				return inFlightLogin;
+			}
+
+			CompletableFuture<?> login;
+			try {
+				login = delegatee.login();
+			} catch (RuntimeException e) {
+				login = new CompletableFuture<>();
+				login.completeExceptionally(e);
+			}
+			inFlightLogin = login;
+			// runs on this thread, which holds the lock, if already complete
+			login.whenComplete((ignored, failure) -> {
+				loginLock.lock();
+				try {
+					loginFailure = failure == null ? null : unwrap(failure);
+					loginGeneration.incrementAndGet();
+					inFlightLogin = null;
+				} finally {
+					loginLock.unlock();
+				}
+			});
+
+			return login;
+		} finally {
+			loginLock.unlock();
+		}
+	}
+
+	private static Throwable unwrap(final Throwable throwable) {
+		return throwable instanceof CompletionException
+			&& throwable.getCause() != null ? throwable.getCause() : throwable;
+	}
+
+	private static boolean isRetryable(final Throwable t) {
+		return requiresLogin(t)
+			|| t.getCause() instanceof SocketTimeoutException;
+	}
+
+	private static boolean requiresLogin(final Throwable t) {
+		return t instanceof ApiException && RetryCodaClient.retryCodes.contains(
+			((ApiException) t).getCode());
+	}
+
+	/**
+	 * Mirrors {@code WaitStrategies.fibonacciWait(1, MINUTES)} as used by {@link RetryCodaClient}.
+	 */
+	static long fibonacciWaitMillis(final int attemptNumber) {
+		long previous = 0L;
+		long current = 1L;
+		for (int i = 1; i < attemptNumber && current < MAXIMUM_WAIT_MILLIS;
+			i++) {
+			final long next = previous + current;
+			previous = current;
+			current = next;
+		}
+
+		return Math.min(current, MAXIMUM_WAIT_MILLIS);
+	}
+
+}
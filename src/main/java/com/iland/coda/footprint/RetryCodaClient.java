@@ -24,14 +24,20 @@ import java.net.SocketTimeoutException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.github.rholder.retry.RetryException;
 import com.github.rholder.retry.Retryer;
@@ -39,6 +45,7 @@ import com.github.rholder.retry.RetryerBuilder;
 import com.github.rholder.retry.StopStrategies;
 import com.github.rholder.retry.WaitStrategies;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
 import net.codacloud.ApiException;
 import net.codacloud.model.Account;
 import net.codacloud.model.AdminUser;
@@ -46,6 +53,7 @@ import net.codacloud.model.AgentlessScannerSrz;
 import net.codacloud.model.ExtendMessageRequest;
 import net.codacloud.model.PaginatedAccountList;
 import net.codacloud.model.PaginatedRegistrationLightList;
+import net.codacloud.model.PaginatedScanSurfaceEntryList;
 import net.codacloud.model.Registration;
 import net.codacloud.model.RegistrationCreateRequest;
 import net.codacloud.model.RegistrationEditRequest;
@@ -60,6 +68,7 @@ import net.codacloud.model.TaskEditRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.iland.coda.footprint.concurrent.IoExecutors;
 import com.iland.coda.footprint.pagination.Paginator;
 
 /**
@@ -72,7 +81,7 @@ final class RetryCodaClient implements CodaClient {
 	private static final Logger logger =
 		LoggerFactory.getLogger(RetryCodaClient.class);
 
-	private static final Set<Integer> retryCodes;
+	static final Set<Integer> retryCodes;
 
 	static {
 		final Set<Integer> set = new HashSet<>();
@@ -83,6 +92,7 @@ final class RetryCodaClient implements CodaClient {
 	}
 
 	private final CodaClient delegatee;
+	private final ScanSurfaceDispatcher scanSurfaceDispatcher;
 	private final Retryer retryer = RetryerBuilder.newBuilder()
 		.retryIfException(t -> t instanceof ApiException && retryCodes.contains(
 			((ApiException) t).getCode()))
@@ -91,14 +101,47 @@ final class RetryCodaClient implements CodaClient {
 		.withStopStrategy(StopStrategies.stopAfterDelay(3L, TimeUnit.MINUTES))
 		.build();
 
+	/**
+	 * Serializes logins; a {@link ReentrantLock lock} rather than a monitor so
+	 * that waiting virtual threads do not pin their carrier.
+	 */
+	private final Lock loginLock = new ReentrantLock();
+	/**
+	 * Incremented after every login, successful or not. A request that fails
+	 * with a 401 or 403 only logs in again if no login has been attempted
+	 * since it was sent.
+	 */
+	private final AtomicLong loginGeneration = new AtomicLong();
+	/**
+	 * The failure of the last login or {@literal null} if it succeeded;
+	 * guarded by {@link #loginLock}.
+	 */
+	private ApiException loginFailure;
+
 	RetryCodaClient(final CodaClient delegatee) {
+		this(delegatee, new ScanSurfaceDispatcher(IoExecutors.shared(),
+			ScanSurfaceDispatcher.DEFAULT_MAX_IN_FLIGHT_BATCHES));
+	}
+
+	/**
+	 * @param delegatee             the {@link CodaClient client} to delegate to
+	 * @param scanSurfaceDispatcher sends scan surface batches; pass the dispatcher of another client to share its
+	 *                              per-tenant limits
+	 */
+	RetryCodaClient(final CodaClient delegatee,
+		final ScanSurfaceDispatcher scanSurfaceDispatcher) {
 		this.delegatee =
 			Preconditions.checkNotNull(delegatee, "delegatee must not be null");
+		this.scanSurfaceDispatcher = Preconditions.checkNotNull(
+			scanSurfaceDispatcher, "scanSurfaceDispatcher must not be null");
 	}
 
 	@Override
 	public CodaClient login() throws ApiException {
-		retryIfNecessary(() -> delegatee.login());
+		retry(() -> {
+			reauthenticate(loginGeneration.get());
+			return null;
+		});
 
 		return this;
 	}
@@ -116,12 +159,35 @@ final class RetryCodaClient implements CodaClient {
 				PaginatedRegistrationLightList::getPage,
 				PaginatedRegistrationLightList::getTotalPages,
 				PaginatedRegistrationLightList::getTotalCount,
-				PaginatedRegistrationLightList::getItems).fetchAllAsync();
+				PaginatedRegistrationLightList::getItems).executor(
+					simpleCodaClient.executor)
+				.maxInFlightPages(simpleCodaClient.maxInFlightPages)
+				.fetchAllAsync();
 		}
 
 		return retryIfNecessary(() -> delegatee.listRegistrations(category));
 	}
 
+	@Override
+	public Stream<RegistrationLight> streamRegistrations(final String category)
+		throws ApiException {
+		if (delegatee instanceof SimpleCodaClient) {
+			final SimpleCodaClient simpleCodaClient =
+				(SimpleCodaClient) delegatee;
+
+			return new Paginator<>(pageNo -> retryIfNecessary(
+				() -> simpleCodaClient.adminApi.adminRegistrationsLightRetrieve(
+					category, pageNo, MAX_PAGE_SIZE)),
+				PaginatedRegistrationLightList::getPage,
+				PaginatedRegistrationLightList::getTotalPages,
+				PaginatedRegistrationLightList::getTotalCount,
+				PaginatedRegistrationLightList::getItems).executor(
+				simpleCodaClient.executor).stream();
+		}
+
+		return delegatee.streamRegistrations(category);
+	}
+
 	@Override
 	public Set<Account> listAccounts(final Integer accountId)
 		throws ApiException {
@@ -134,12 +200,34 @@ final class RetryCodaClient implements CodaClient {
 					MAX_PAGE_SIZE, accountId)), PaginatedAccountList::getPage,
 				PaginatedAccountList::getTotalPages,
 				PaginatedAccountList::getTotalCount,
-				PaginatedAccountList::getItems).fetchAllAsync();
+				PaginatedAccountList::getItems).executor(
+					simpleCodaClient.executor)
+				.maxInFlightPages(simpleCodaClient.maxInFlightPages)
+				.fetchAllAsync();
 		}
 
 		return retryIfNecessary(() -> delegatee.listAccounts(accountId));
 	}
 
+	@Override
+	public Stream<Account> streamAccounts(final Integer accountId)
+		throws ApiException {
+		if (delegatee instanceof SimpleCodaClient) {
+			final SimpleCodaClient simpleCodaClient =
+				(SimpleCodaClient) delegatee;
+
+			return new Paginator<>(pageNo -> retryIfNecessary(
+				() -> simpleCodaClient.commonApi.getAccounts(null, pageNo,
+					MAX_PAGE_SIZE, accountId)), PaginatedAccountList::getPage,
+				PaginatedAccountList::getTotalPages,
+				PaginatedAccountList::getTotalCount,
+				PaginatedAccountList::getItems).executor(
+				simpleCodaClient.executor).stream();
+		}
+
+		return delegatee.streamAccounts(accountId);
+	}
+
 	@Override
 	public RegistrationLight createRegistration(
 		final RegistrationCreateRequest registration) throws ApiException {
@@ -172,25 +260,13 @@ final class RetryCodaClient implements CodaClient {
 	@Override
 	public List<ScanUuidScannerId> updateScanSurface(final List<String> targets,
 		final List<Integer> scanners, final boolean isNoScanRequest,
-		final Integer accountId) throws ApiException {
-		try {
-			return new ScanSurfaceBatcher().createBatches(targets)
-				.stream()
-				.map(batch -> batch.scanners(scanners))
-				.map(message -> {
-					try {
-						return updateScanSurface(message, isNoScanRequest,
-							accountId);
-					} catch (ApiException e) {
-						throw new RuntimeException(e);
-					}
-				})
-				.flatMap(List::stream)
-				.collect(Collectors.toList());
-		} catch (final RuntimeException e) {
-			throwIfInstanceOf(e.getCause(), ApiException.class);
-			throw e;
-		}
+		final CidrMode cidrMode, final Integer accountId) throws ApiException {
+		final Iterator<ExtendMessageRequest> batches = Iterators.transform(
+			new ScanSurfaceBatcher().batches(targets, cidrMode),
+			batch -> batch.scanners(scanners));
+
+		return scanSurfaceDispatcher.dispatch(batches, accountId,
+			message -> updateScanSurface(message, isNoScanRequest, accountId));
 	}
 
 	@Override
@@ -238,6 +314,17 @@ final class RetryCodaClient implements CodaClient {
 			() -> delegatee.getScanStatus(scanId, accountId));
 	}
 
+	@Override
+	public Set<ScanSurfaceEntry> getScanSurface(final List<Integer> scannerIds,
+		final Integer accountId) throws ApiException {
+		final Executor executor = delegatee instanceof SimpleCodaClient
+			? ((SimpleCodaClient) delegatee).executor
+			: IoExecutors.shared();
+
+		return getScanSurface(scannerIds, accountId, executor,
+			DEFAULT_MAX_PARALLEL_SCANNERS);
+	}
+
 	@Override
 	public List<ScanSurfaceEntry> getScanSurface(final Integer scannerId,
 		final String textFilter, final Integer accountId) throws ApiException {
@@ -245,6 +332,26 @@ final class RetryCodaClient implements CodaClient {
 			() -> delegatee.getScanSurface(scannerId, textFilter, accountId));
 	}
 
+	@Override
+	public Stream<ScanSurfaceEntry> streamScanSurface(final Integer scannerId,
+		final String textFilter, final Integer accountId) throws ApiException {
+		if (delegatee instanceof SimpleCodaClient) {
+			final SimpleCodaClient simpleCodaClient =
+				(SimpleCodaClient) delegatee;
+
+			return new Paginator<>(pageNo -> retryIfNecessary(
+				() -> simpleCodaClient.consoleApi.consoleScanSurfaceRetrieve(
+					pageNo, scannerId, textFilter, accountId)),
+				PaginatedScanSurfaceEntryList::getPage,
+				PaginatedScanSurfaceEntryList::getTotalPages,
+				PaginatedScanSurfaceEntryList::getTotalCount,
+				PaginatedScanSurfaceEntryList::getItems).executor(
+				simpleCodaClient.executor).stream();
+		}
+
+		return delegatee.streamScanSurface(scannerId, textFilter, accountId);
+	}
+
 	@Override
 	public Map<LocalDateTime, LazyCVR> getReports(final ReportType reportType,
 		final Integer accountId) throws ApiException {
@@ -335,28 +442,64 @@ final class RetryCodaClient implements CodaClient {
 			() -> delegatee.updateSchedule(taskId, taskEditRequest, accountId));
 	}
 
-	@SuppressWarnings({"unchecked"})
 	private <V> V retryIfNecessary(final Callable<V> retryable)
 		throws ApiException {
+		return retry(() -> {
+			final long generation = loginGeneration.get();
+			try {
+				return retryable.call();
+			} catch (ApiException e) {
+				switch (e.getCode()) {
+					case 401:
+					case 403:
+						reauthenticate(generation);
+						break;
+				}
+
+				if (e.getCause() instanceof SocketTimeoutException) {
+					logger.warn("Yet another timeout...");
+				}
+
+				throw e;
+			}
+		});
+	}
+
+	/**
+	 * Logs in unless a login has been attempted since the supplied
+	 * generation. Concurrent callers wait for a single login and then retry
+	 * with its credentials instead of each logging in, which would reset the
+	 * credentials that the others' requests are using; if that login failed
+	 * they fail with its exception rather than each trying again.
+	 */
+	private void reauthenticate(final long generation) throws ApiException {
+		loginLock.lock();
 		try {
-			return (V) retryer.call(() -> {
-				try {
-					return retryable.call();
-				} catch (ApiException e) {
-					switch (e.getCode()) {
-						case 401:
-						case 403:
-							login();
-							break;
-					}
-
-					if (e.getCause() instanceof SocketTimeoutException) {
-						logger.warn("Yet another timeout...");
-					}
-
-					throw e;
+			if (loginGeneration.get() != generation) {
+				if (loginFailure != null) {
+					throw loginFailure;
 				}
-			});
+				return;
+			}
+
+			try {
+				delegatee.login();
+				loginFailure = null;
+			} catch (ApiException e) {
+				loginFailure = e;
+				throw e;
+			} finally {
+				loginGeneration.incrementAndGet();
+			}
+		} finally {
+			loginLock.unlock();
+		}
+	}
+
+	@SuppressWarnings({"unchecked"})
+	private <V> V retry(final Callable<V> retryable) throws ApiException {
+		try {
+			return (V) retryer.call(retryable);
 		} catch (ExecutionException | RetryException e) {
 			throwIfInstanceOf(e.getCause(), ApiException.class);
 
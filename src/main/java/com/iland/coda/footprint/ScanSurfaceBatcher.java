@@ -15,16 +15,21 @@
 
 package com.iland.coda.footprint;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
 import net.codacloud.model.ExtendMessageRequest;
-import org.apache.commons.net.util.SubnetUtils;
+
+import com.iland.coda.footprint.CodaClient.CidrMode;
+import com.iland.networking.Cidr;
+import com.iland.networking.NetworkUtils;
 
 /**
  * {@link ScanSurfaceBatcher} batches a list of targets into one or more {@link ExtendMessageRequest messages} with a configurable maximum size.
@@ -53,26 +58,190 @@ final class ScanSurfaceBatcher {
 	 *
 	 * @param targets a {@link Collection} of targets, e.g. hostname, IP address, or CIDR notation
 	 * @return a {@link List} of {@link ExtendMessageRequest messages} without the scanners initialized
+	 * @see #batches(Collection)
 	 */
 	List<ExtendMessageRequest> createBatches(final Collection<String> targets) {
-		final String cidrRegex =
-			"\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}/\\d{1,2}";
-		final List<String> addresses = targets.stream().map(String::trim)
-			.filter(target -> !Pattern.matches(cidrRegex, target))
-			.collect(Collectors.toList());
-		final List<String> cidrAddresses = targets.stream().map(String::trim)
-			.filter(target -> Pattern.matches(cidrRegex, target))
-			.map(SubnetUtils::new).map(SubnetUtils::getInfo)
-			.map(SubnetUtils.SubnetInfo::getAllAddresses).map(Arrays::asList)
-			.flatMap(List::stream).collect(Collectors.toList());
-
-		final AtomicInteger counter = new AtomicInteger();
-		return Stream.of(addresses, cidrAddresses).flatMap(List::stream)
-			.collect(Collectors.groupingBy(
-				it -> counter.getAndIncrement() / maxIpsPerBatch)).values()
-			.stream()
-			.map(batch -> new ExtendMessageRequest().scanTargets(batch))
-			.collect(Collectors.toList());
+		final List<ExtendMessageRequest> batches = new ArrayList<>();
+		batches(targets).forEachRemaining(batches::add);
+
+		return batches;
+	}
+
+	/**
+	 * Lazily creates batches with a maximum size from a list of targets. CIDR blocks are expanded as the batches are
+	 * consumed, so at most one batch of addresses is materialized at a time.
+	 *
+	 * @param targets a {@link Collection} of targets, e.g. hostname, IP address, or CIDR notation
+	 * @return an {@link Iterator} of {@link ExtendMessageRequest messages} without the scanners initialized
+	 */
+	Iterator<ExtendMessageRequest> batches(final Collection<String> targets) {
+		return batches(NetworkUtils.iterator(targets));
+	}
+
+	/**
+	 * Lazily creates batches with a maximum size from a list of targets. Unless the {@link CidrMode} is
+	 * {@link CidrMode#EXPAND} blocks in CIDR notation are kept and count with their number of addresses towards the
+	 * maximum size; blocks larger than the maximum size are split.
+	 *
+	 * @param targets  a {@link Collection} of targets, e.g. hostname, IP address, or CIDR notation
+	 * @param cidrMode how blocks in CIDR notation are batched
+	 * @return an {@link Iterator} of {@link ExtendMessageRequest messages} without the scanners initialized
+	 */
+	Iterator<ExtendMessageRequest> batches(final Collection<String> targets,
+		final CidrMode cidrMode) {
+		switch (cidrMode) {
+			case PASSTHROUGH:
+				return pack(passthrough(targets));
+			case AGGREGATE:
+				return pack(aggregate(targets));
+			default:
+				return batches(targets);
+		}
+	}
+
+	/**
+	 * Lazily creates batches with a maximum size from individual hostnames and IP addresses.
+	 *
+	 * @param addresses an {@link Iterator} of individual hostnames and IP addresses
+	 * @return an {@link Iterator} of {@link ExtendMessageRequest messages} without the scanners initialized
+	 */
+	Iterator<ExtendMessageRequest> batches(final Iterator<String> addresses) {
+		return new Iterator<ExtendMessageRequest>() {
+			@Override
+			public boolean hasNext() {
+				return addresses.hasNext();
+			}
+
+			@Override
+			public ExtendMessageRequest next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				final List<String> batch = new ArrayList<>(
+					Math.min(maxIpsPerBatch, MAX_IPS_PER_SCAN_SURFACE_UPDATE));
+				while (batch.size() < maxIpsPerBatch && addresses.hasNext()) {
+					batch.add(addresses.next());
+				}
+
+				return new ExtendMessageRequest().scanTargets(batch);
+			}
+		};
+	}
+
+	/**
+	 * Hostnames and IP addresses followed by the blocks, split to fit into a batch. Invalid blocks, e.g.
+	 * "999.0.0.0/8", are passed through unchanged like hostnames.
+	 */
+	private Iterator<String> passthrough(final Collection<String> targets) {
+		final Iterator<String> addresses = targets.stream()
+			.map(String::trim)
+			.filter(target -> toBlock(target) == null)
+			.iterator();
+		final Iterator<Iterator<String>> blocks = targets.stream()
+			.map(String::trim)
+			.filter(NetworkUtils::isCidr)
+			.map(ScanSurfaceBatcher::toBlock)
+			.filter(Objects::nonNull)
+			.map(cidr -> Iterators.transform(cidr.subnets(maxPrefixLength()),
+				Cidr::toString))
+			.iterator();
+
+		return Iterators.concat(addresses, Iterators.concat(blocks));
+	}
+
+	/**
+	 * Hostnames followed by the aggregated blocks and IPv4 addresses, split to fit into a batch. Invalid addresses and
+	 * blocks, e.g. "999.1.1.1", are passed through unchanged like hostnames.
+	 */
+	private Iterator<String> aggregate(final Collection<String> targets) {
+		final List<String> trimmed =
+			targets.stream().map(String::trim).collect(Collectors.toList());
+		final Iterator<String> hostnames = trimmed.stream()
+			.filter(target -> toIpv4Block(target) == null)
+			.iterator();
+		final List<Cidr> blocks = Cidr.aggregate(trimmed.stream()
+			.map(ScanSurfaceBatcher::toIpv4Block)
+			.filter(Objects::nonNull)
+			.collect(Collectors.toList()));
+		final Iterator<Iterator<String>> aggregated = blocks.stream()
+			.map(cidr -> Iterators.transform(cidr.subnets(maxPrefixLength()),
+				subnet -> subnet.getPrefixLength() == 32
+					? Cidr.format(subnet.getNetwork())
+					: subnet.toString()))
+			.iterator();
+
+		return Iterators.concat(hostnames, Iterators.concat(aggregated));
+	}
+
+	/**
+	 * @return the longest prefix whose block still fits into a single batch
+	 */
+	private int maxPrefixLength() {
+		return 32 - (31 - Integer.numberOfLeadingZeros(maxIpsPerBatch));
+	}
+
+	/**
+	 * Packs targets into batches, counting blocks in CIDR notation with their number of addresses.
+	 */
+	private Iterator<ExtendMessageRequest> pack(final Iterator<String> targets) {
+		final PeekingIterator<String> iterator =
+			Iterators.peekingIterator(targets);
+
+		return new Iterator<ExtendMessageRequest>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public ExtendMessageRequest next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				final List<String> batch = new ArrayList<>();
+				long addresses = 0;
+				do {
+					final String target = iterator.next();
+					addresses += addressCount(target);
+					batch.add(target);
+				} while (iterator.hasNext()
+					&& addresses + addressCount(iterator.peek())
+					<= maxIpsPerBatch);
+
+				return new ExtendMessageRequest().scanTargets(batch);
+			}
+		};
+	}
+
+	private static long addressCount(final String target) {
+		final Cidr block = toBlock(target);
+		return block == null ? 1 : block.getAddressCount();
+	}
+
+	/**
+	 * @return the block in CIDR notation or {@literal null} if the target is not a valid one
+	 */
+	private static Cidr toBlock(final String target) {
+		if (!NetworkUtils.isCidr(target)) {
+			return null;
+		}
+
+		try {
+			return Cidr.parse(target);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the block in CIDR notation, the IPv4 address as a /32 block, or {@literal null} if the target is neither
+	 */
+	private static Cidr toIpv4Block(final String target) {
+		return NetworkUtils.isIpv4Address(target)
+			? Cidr.of(target)
+			: toBlock(target);
 	}
 
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Iterators;
+import net.codacloud.ApiException;
+import net.codacloud.model.ExtendMessageRequest;
+import net.codacloud.model.ScanUuidScannerId;
+
+import com.iland.coda.footprint.concurrent.FanOut;
+
+/**
+ * {@link ScanSurfaceDispatcher} submits the {@link ExtendMessageRequest batches} lazily created by the
+ * {@link ScanSurfaceBatcher} concurrently. The number of batches in flight is limited per tenant (i.e. {@link Integer accountId}) across all calls,
+ * and the results are merged in batch order regardless of the order in which the batches complete.
+ */
+final class ScanSurfaceDispatcher {
+
+	static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 4;
+
+	@FunctionalInterface
+	interface BatchSender {
+
+		List<ScanUuidScannerId> send(ExtendMessageRequest batch)
+			throws ApiException;
+
+	}
+
+	private final Executor executor;
+	private final int maxInFlightBatches;
+	/**
+	 * keyed by {@link Integer accountId}; {@literal null} is the authenticated user's own account
+	 */
+	private final ConcurrentMap<Integer, Semaphore> permitsByTenant =
+		new ConcurrentHashMap<>();
+	private final Semaphore ownTenantPermits;
+
+	ScanSurfaceDispatcher(final Executor executor,
+		final int maxInFlightBatches) {
+		checkArgument(maxInFlightBatches > 0,
+			"maxInFlightBatches must be greater than 0");
+		this.executor = executor;
+		this.maxInFlightBatches = maxInFlightBatches;
+		this.ownTenantPermits = new Semaphore(maxInFlightBatches);
+	}
+
+	/**
+	 * Sends all batches and merges the distinct, non-null results in batch order. The batches are pulled from the
+	 * {@link Iterator iterator} only as permits become available, and no further batches are sent once one has failed.
+	 *
+	 * @param batches   the {@link ExtendMessageRequest batches}
+	 * @param accountId the tenant the batches are sent to
+	 * @param sender    sends a single batch
+	 * @return the merged {@link ScanUuidScannerId results}
+	 * @throws ApiException the failure of the first failing batch, with the failures of other batches in flight suppressed
+	 */
+	List<ScanUuidScannerId> dispatch(
+		final Iterator<ExtendMessageRequest> batches, final Integer accountId,
+		final BatchSender sender) throws ApiException {
+		// the batches are wrapped as they may be equal to one another
+		final Iterable<Batch> keys =
+			() -> Iterators.transform(batches, Batch::new);
+
+		final FanOut.Result<Batch, List<ScanUuidScannerId>> result =
+			FanOut.applyUntilFailure(keys, batch -> sender.send(batch.message),
+				executor, permits(accountId));
+
+		final Iterator<ApiException> failures =
+			result.getFailures().values().iterator();
+		if (failures.hasNext()) {
+			final ApiException failure = failures.next();
+			failures.forEachRemaining(failure::addSuppressed);
+			throw failure;
+		}
+
+		return result.getValues()
+			.values()
+			.stream()
+			.filter(Objects::nonNull)
+			.flatMap(List::stream)
+			.filter(Objects::nonNull)
+			.distinct()
+			.collect(Collectors.toCollection(ArrayList::new));
+	}
+
+	private Semaphore permits(final Integer accountId) {
+		return accountId == null
+			? ownTenantPermits
+			: permitsByTenant.computeIfAbsent(accountId,
+				key -> new Semaphore(maxInFlightBatches));
+	}
+
+	private static final class Batch {
+
+		private final ExtendMessageRequest message;
+
+		private Batch(final ExtendMessageRequest message) {
+			this.message = message;
+		}
+
+	}
+
+}
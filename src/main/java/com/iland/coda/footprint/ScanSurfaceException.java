@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import net.codacloud.ApiException;
+import net.codacloud.model.ScanSurfaceEntry;
+
+/**
+ * Thrown when the scan surface of one or more scanners could not be
+ * retrieved. The {@link #getFailures() failures} are keyed by scanner ID and
+ * the entries of all other scanners are available as the
+ * {@link #getPartialScanSurface() partial scan surface}. The first failure is
+ * the {@link #getCause() cause}; the others are suppressed.
+ */
+public class ScanSurfaceException extends ApiException {
+
+	private final Set<ScanSurfaceEntry> partialScanSurface;
+	private final Map<Integer, ApiException> failures;
+
+	ScanSurfaceException(final Set<ScanSurfaceEntry> partialScanSurface,
+		final Map<Integer, ApiException> failures) {
+		super("Failed to retrieve the scan surface of scanners "
+				+ failures.keySet(), failures.values().iterator().next(),
+			failures.values().iterator().next().getCode(), null);
+		this.partialScanSurface =
+			Collections.unmodifiableSet(partialScanSurface);
+		this.failures = Collections.unmodifiableMap(failures);
+		failures.values().stream().skip(1).forEach(this::addSuppressed);
+	}
+
+	/**
+	 * @return the {@link ScanSurfaceEntry entries} of all scanners that did not fail
+	 */
+	public Set<ScanSurfaceEntry> getPartialScanSurface() {
+		return partialScanSurface;
+	}
+
+	/**
+	 * @return the failures keyed by scanner ID
+	 */
+	public Map<Integer, ApiException> getFailures() {
+		return failures;
+	}
+
+}
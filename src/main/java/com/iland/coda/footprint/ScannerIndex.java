@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static java.util.stream.Collectors.collectingAndThen;
+import static java.util.stream.Collectors.toMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import net.codacloud.model.AgentlessScannerSrz;
+
+/**
+ * An immutable snapshot of {@link AgentlessScannerSrz scanners} with their ids
+ * keyed by label.
+ *
+ * @see CodaClient#getScannerIdByLabel(Integer)
+ */
+final class ScannerIndex {
+
+	private final List<AgentlessScannerSrz> scanners;
+	private final Map<String, Integer> scannerIdByLabel;
+
+	ScannerIndex(final Collection<AgentlessScannerSrz> scanners) {
+		this.scanners = Collections.unmodifiableList(new ArrayList<>(scanners));
+		this.scannerIdByLabel = this.scanners.stream()
+			.collect(collectingAndThen(
+				toMap(AgentlessScannerSrz::getLabel, AgentlessScannerSrz::getId,
+					/* in the event of a duplicate key use the newer scanner */
+					Math::max), Collections::unmodifiableMap));
+	}
+
+	List<AgentlessScannerSrz> scanners() {
+		return scanners;
+	}
+
+	Map<String, Integer> scannerIdByLabel() {
+		return scannerIdByLabel;
+	}
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static com.iland.coda.footprint.AbstractCodaClient.DEFAULT_PAGE_SIZE;
+import static com.iland.coda.footprint.ApiFuture.enqueue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.google.common.base.Preconditions;
+import net.codacloud.ApiException;
+import net.codacloud.api.AdminApi;
+import net.codacloud.api.CommonApi;
+import net.codacloud.api.ConsoleApi;
+import net.codacloud.model.Account;
+import net.codacloud.model.AdminUser;
+import net.codacloud.model.AgentlessScannerSrz;
+import net.codacloud.model.CVR;
+import net.codacloud.model.ExtendMessageRequest;
+import net.codacloud.model.PaginatedAccountList;
+import net.codacloud.model.PaginatedRegistrationLightList;
+import net.codacloud.model.PaginatedScanSurfaceEntryList;
+import net.codacloud.model.PatchedScanSurfaceRescanRequest;
+import net.codacloud.model.RegistrationLight;
+import net.codacloud.model.Scan;
+import net.codacloud.model.ScanStatus;
+import net.codacloud.model.ScanSurfaceEntry;
+import net.codacloud.model.ScanUuidScannerId;
+import net.codacloud.model.Task;
+
+import com.iland.coda.footprint.CodaClient.ReportType;
+import com.iland.coda.footprint.pagination.AsyncPaginator;
+
+/**
+ * {@link SimpleAsyncCodaClient} shares the HTTP client and credentials of a {@link SimpleCodaClient} and issues its
+ * calls through the generated {@code *Async} methods.
+ */
+final class SimpleAsyncCodaClient implements AsyncCodaClient {
+
+	private final SimpleCodaClient client;
+	private final AdminApi adminApi;
+	private final CommonApi commonApi;
+	private final ConsoleApi consoleApi;
+
+	SimpleAsyncCodaClient(final SimpleCodaClient client) {
+		this.client =
+			Preconditions.checkNotNull(client, "client must not be null");
+		this.adminApi = client.adminApi;
+		this.commonApi = client.commonApi;
+		this.consoleApi = client.consoleApi;
+	}
+
+	@Override
+	public CompletableFuture<AsyncCodaClient> login() {
+		// authentication is synchronous, so it is the only call that occupies a thread
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				client.login();
+			} catch (ApiException e) {
+				throw new CompletionException(e);
+			}
+
+			return this;
+		}, client.executor);
+	}
+
+	@Override
+	public CompletableFuture<Set<RegistrationLight>> listRegistrations(
+		final String category) {
+		return new AsyncPaginator<>(pageNo -> enqueue(
+			callback -> adminApi.adminRegistrationsLightRetrieveAsync(category,
+				pageNo, DEFAULT_PAGE_SIZE, callback)),
+			PaginatedRegistrationLightList::getPage,
+			PaginatedRegistrationLightList::getTotalPages,
+			PaginatedRegistrationLightList::getTotalCount,
+			PaginatedRegistrationLightList::getItems).fetchAll()
+			.thenApply(HashSet::new);
+	}
+
+	@Override
+	public CompletableFuture<Set<Account>> listAccounts(
+		final Integer accountId) {
+		return new AsyncPaginator<>(pageNo -> enqueue(
+			callback -> commonApi.getAccountsAsync(null, pageNo,
+				DEFAULT_PAGE_SIZE, accountId, callback)),
+			PaginatedAccountList::getPage, PaginatedAccountList::getTotalPages,
+			PaginatedAccountList::getTotalCount,
+			PaginatedAccountList::getItems).fetchAll().thenApply(HashSet::new);
+	}
+
+	@Override
+	public CompletableFuture<List<AgentlessScannerSrz>> getScanners(
+		final Integer accountId) {
+		return enqueue(
+			callback -> consoleApi.consoleScanSurfaceScannersListAsync(accountId,
+				callback));
+	}
+
+	@Override
+	public CompletableFuture<List<ScanUuidScannerId>> updateScanSurface(
+		final ExtendMessageRequest message, final boolean isNoScanRequest,
+		final Integer accountId) {
+		return enqueue(
+			callback -> consoleApi.consoleScanSurfaceCreateAsync(message,
+				isNoScanRequest, accountId, callback));
+	}
+
+	@Override
+	public CompletableFuture<List<ScanUuidScannerId>> rescan(
+		final Integer accountId) {
+		final PatchedScanSurfaceRescanRequest request =
+			new PatchedScanSurfaceRescanRequest();
+		return enqueue(
+			callback -> consoleApi.consoleScanSurfaceRescanPartialUpdateAsync(
+				accountId, request, callback));
+	}
+
+	@Override
+	public CompletableFuture<ScanStatus> getScanStatus(
+		final Integer accountId) {
+		return enqueue(
+			callback -> consoleApi.consoleStatusScanRetrieveAsync(accountId,
+				callback));
+	}
+
+	@Override
+	public CompletableFuture<Scan> getScanStatus(final String scanId,
+		final Integer accountId) {
+		return enqueue(
+			callback -> consoleApi.consoleScansRetrieveAsync(scanId, accountId,
+				callback));
+	}
+
+	@Override
+	public CompletableFuture<List<ScanSurfaceEntry>> getScanSurface(
+		final Integer scannerId, final String textFilter,
+		final Integer accountId) {
+		return new AsyncPaginator<>(pageNo -> enqueue(
+			callback -> consoleApi.consoleScanSurfaceRetrieveAsync(pageNo,
+				scannerId, textFilter, accountId, callback)),
+			PaginatedScanSurfaceEntryList::getPage,
+			PaginatedScanSurfaceEntryList::getTotalPages,
+			PaginatedScanSurfaceEntryList::getTotalCount,
+			PaginatedScanSurfaceEntryList::getItems).fetchAll();
+	}
+
+	@Override
+	public CompletableFuture<List<String>> getReportTimestamps(
+		final ReportType reportType, final Boolean isXlsxDownload,
+		final Integer accountId) {
+		return enqueue(
+			callback -> consoleApi.allCvrDatesRetrieveAsync(reportType.value(),
+				isXlsxDownload, accountId, callback));
+	}
+
+	@Override
+	public CompletableFuture<CVR> getReport(final String timestamp,
+		final ReportType reportType, final Integer accountId) {
+		final TechnicalReportSplits splits = client.technicalReportSplits;
+		// fetch both parts at once if the tenant's last report was split
+		final CompletableFuture<CVR> prefetched = splits.isExpected(accountId)
+			? fetchTechnicalReport(timestamp, reportType, accountId)
+			: null;
+
+		return ApiFuture.<CVR>enqueue(
+				callback -> consoleApi.cvrRetrieveAsync(timestamp,
+					reportType.value(), null, accountId, callback))
+			.whenComplete((cvr, t) -> {
+				if (t != null && prefetched != null) {
+					prefetched.cancel(true);
+				}
+			})
+			.thenCompose(cvr -> {
+				final boolean split = cvr.getTechnicalReport().isEmpty();
+				splits.record(accountId, split);
+				if (!split) {
+					if (prefetched != null) {
+						prefetched.cancel(true);
+					}
+					return CompletableFuture.completedFuture(cvr);
+				}
+
+				return (prefetched != null
+					? prefetched
+					: fetchTechnicalReport(timestamp, reportType,
+						accountId)).thenApply(techReport -> {
+					cvr.setTechnicalReport(techReport.getTechnicalReport());
+					return cvr;
+				});
+			});
+	}
+
+	private CompletableFuture<CVR> fetchTechnicalReport(final String timestamp,
+		final ReportType reportType, final Integer accountId) {
+		return enqueue(
+			callback -> consoleApi.cvrRetrieveAsync(timestamp, reportType.value(),
+				true, accountId, callback));
+	}
+
+	@Override
+	public CompletableFuture<List<AdminUser>> listUsers() {
+		return enqueue(adminApi::adminUsersRetrieveAsync);
+	}
+
+	@Override
+	public CompletableFuture<List<Task>> listScheduledTasks(
+		final String scannerId, final Integer accountId) {
+		return enqueue(
+			callback -> consoleApi.consoleSchedulerListAsync(scannerId,
+				accountId, callback));
+	}
+
+	@Override
+	public CompletableFuture<Task> updateSchedule(final String taskId,
+		final String action, final Integer accountId) {
+		return enqueue(
+			callback -> consoleApi.consoleSchedulerCreate2Async(action, taskId,
+				accountId, "", callback));
+	}
+
+}
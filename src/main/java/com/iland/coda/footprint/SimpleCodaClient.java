@@ -17,6 +17,7 @@ package com.iland.coda.footprint;
 
 import static com.google.common.base.Predicates.not;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.iland.coda.footprint.Registrations.toLight;
 
 import java.io.File;
@@ -27,19 +28,29 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Iterators;
 import com.google.common.io.ByteStreams;
 import net.codacloud.ApiException;
 import net.codacloud.api.ConsoleApi;
@@ -63,10 +74,14 @@ import net.codacloud.model.ScanSurfaceEntry;
 import net.codacloud.model.ScanUuidScannerId;
 import net.codacloud.model.Task;
 import net.codacloud.model.TaskEditRequest;
+import okhttp3.Call;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.iland.coda.footprint.concurrent.IoExecutors;
 import com.iland.coda.footprint.pagination.Paginator;
+import com.iland.networking.Cidr;
+import com.iland.networking.HostnameResolver;
 import com.iland.networking.NetworkUtils;
 
 /**
@@ -79,9 +94,47 @@ final class SimpleCodaClient extends AbstractCodaClient {
 	private static final Logger logger =
 		LoggerFactory.getLogger(SimpleCodaClient.class);
 
+	private static final String EMPTY_TECHNICAL_REPORT =
+		"\"technicalReport\":[]";
+
+	/**
+	 * how long resolved hostname targets are cached by default
+	 */
+	static final Duration DEFAULT_HOSTNAME_TTL = Duration.ofMinutes(5);
+
+	final TechnicalReportSplits technicalReportSplits =
+		new TechnicalReportSplits();
+	private final HostnameResolver hostnameResolver;
+
 	SimpleCodaClient(final String apiBasePath,
 		final Authentication authentication) {
-		super(apiBasePath, authentication);
+		this(apiBasePath, authentication, CodaTransport.defaultTransport());
+	}
+
+	SimpleCodaClient(final String apiBasePath,
+		final Authentication authentication, final CodaTransport transport) {
+		this(apiBasePath, authentication, transport, IoExecutors.shared(),
+			Paginator.DEFAULT_MAX_IN_FLIGHT_PAGES,
+			ScanSurfaceDispatcher.DEFAULT_MAX_IN_FLIGHT_BATCHES,
+			new HostnameResolver(IoExecutors.shared(), DEFAULT_HOSTNAME_TTL));
+	}
+
+	/**
+	 * @param apiBasePath        the base path of the API, e.g. "https://foo.codacloud.net/api"
+	 * @param authentication     the {@link Authentication}
+	 * @param transport          the {@link CodaTransport transport}, which may be shared with other clients
+	 * @param executor           the {@link Executor executor} on which pages and scan surface batches are sent concurrently
+	 * @param maxInFlightPages   the maximum number of pages fetched concurrently per listing
+	 * @param maxInFlightBatches the maximum number of scan surface batches in flight per tenant
+	 * @param hostnameResolver   resolves hostname targets to filter private ones; {@literal null} to keep all hostnames
+	 */
+	SimpleCodaClient(final String apiBasePath,
+		final Authentication authentication, final CodaTransport transport,
+		final Executor executor, final int maxInFlightPages,
+		final int maxInFlightBatches, final HostnameResolver hostnameResolver) {
+		super(apiBasePath, authentication, transport, executor,
+			maxInFlightPages, maxInFlightBatches);
+		this.hostnameResolver = hostnameResolver;
 	}
 
 	@Override
@@ -96,12 +149,25 @@ final class SimpleCodaClient extends AbstractCodaClient {
 				PaginatedRegistrationLightList::getPage,
 				PaginatedRegistrationLightList::getTotalPages,
 				PaginatedRegistrationLightList::getTotalCount,
-				PaginatedRegistrationLightList::getItems).fetchAllAsync();
+				PaginatedRegistrationLightList::getItems).executor(executor)
+				.maxInFlightPages(maxInFlightPages)
+				.fetchAllAsync();
 		} finally {
 			logger.debug("...registrations retrieved in {}", stopwatch);
 		}
 	}
 
+	@Override
+	public Stream<RegistrationLight> streamRegistrations(final String category) {
+		return new Paginator<>(
+			pageNo -> adminApi.adminRegistrationsLightRetrieve(category, pageNo,
+				DEFAULT_PAGE_SIZE), PaginatedRegistrationLightList::getPage,
+			PaginatedRegistrationLightList::getTotalPages,
+			PaginatedRegistrationLightList::getTotalCount,
+			PaginatedRegistrationLightList::getItems).executor(executor)
+			.stream();
+	}
+
 	@Override
 	public Set<Account> listAccounts(final Integer accountId)
 		throws ApiException {
@@ -113,12 +179,24 @@ final class SimpleCodaClient extends AbstractCodaClient {
 					accountId), PaginatedAccountList::getPage,
 				PaginatedAccountList::getTotalPages,
 				PaginatedAccountList::getTotalCount,
-				PaginatedAccountList::getItems).fetchAllAsync();
+				PaginatedAccountList::getItems).executor(executor)
+				.maxInFlightPages(maxInFlightPages)
+				.fetchAllAsync();
 		} finally {
 			logger.debug("...registrations retrieved in {}", stopwatch);
 		}
 	}
 
+	@Override
+	public Stream<Account> streamAccounts(final Integer accountId) {
+		return new Paginator<>(
+			pageNo -> commonApi.getAccounts(null, pageNo, DEFAULT_PAGE_SIZE,
+				accountId), PaginatedAccountList::getPage,
+			PaginatedAccountList::getTotalPages,
+			PaginatedAccountList::getTotalCount,
+			PaginatedAccountList::getItems).executor(executor).stream();
+	}
+
 	@Override
 	public RegistrationLight createRegistration(
 		final RegistrationCreateRequest newRegistration) throws ApiException {
@@ -147,32 +225,26 @@ final class SimpleCodaClient extends AbstractCodaClient {
 	@Override
 	public List<ScanUuidScannerId> updateScanSurface(final List<String> targets,
 		final List<Integer> scanners, final boolean isNoScanRequest,
-		final Integer accountId) throws ApiException {
+		final CidrMode cidrMode, final Integer accountId) throws ApiException {
+		final List<String> publicTargets = filterPrivateTargets(targets);
+
+		final ScanSurfaceBatcher batcher = new ScanSurfaceBatcher();
+		final Iterator<ExtendMessageRequest> unscannedBatches;
+		if (cidrMode == CidrMode.EXPAND) {
+			unscannedBatches = batcher.batches(
+				NetworkUtils.iterator(publicTargets, NetworkUtils.RFC1918_BLOCKS));
+		} else {
+			unscannedBatches = batcher.batches(publicTargets.stream()
+				.flatMap(SimpleCodaClient::subtractRFC1918Blocks)
+				.collect(Collectors.toList()), cidrMode);
+		}
 
-		final List<String> filteredTargets = NetworkUtils.toStream(targets)
-			.filter(not(NetworkUtils::isRFC1918IpAddress))
-			.collect(Collectors.toList());
+		final Iterator<ExtendMessageRequest> batches =
+			Iterators.transform(unscannedBatches,
+				batch -> batch.scanners(scanners));
 
-		try {
-			return new ScanSurfaceBatcher().createBatches(filteredTargets)
-				.stream()
-				.map(batch -> batch.scanners(scanners))
-				.map(batch -> {
-					try {
-						return updateScanSurface(batch, isNoScanRequest,
-							accountId);
-					} catch (final ApiException e) {
-						throw new RuntimeException(e);
-					}
-				})
-				.flatMap(List::stream)
-				.filter(Objects::nonNull)
-				.distinct()
-				.collect(Collectors.toList());
-		} catch (final RuntimeException e) {
-			throwIfInstanceOf(e.getCause(), ApiException.class);
-			throw e;
-		}
+		return scanSurfaceDispatcher.dispatch(batches, accountId,
+			batch -> updateScanSurface(batch, isNoScanRequest, accountId));
 	}
 
 	@Override
@@ -219,6 +291,13 @@ final class SimpleCodaClient extends AbstractCodaClient {
 		return consoleApi.consoleScansRetrieve(scanId, accountId);
 	}
 
+	@Override
+	public Set<ScanSurfaceEntry> getScanSurface(final List<Integer> scannerIds,
+		final Integer accountId) throws ApiException {
+		return getScanSurface(scannerIds, accountId, executor,
+			DEFAULT_MAX_PARALLEL_SCANNERS);
+	}
+
 	@Override
 	public List<ScanSurfaceEntry> getScanSurface(final Integer scannerId,
 		final String textFilter, final Integer accountId) throws ApiException {
@@ -231,6 +310,18 @@ final class SimpleCodaClient extends AbstractCodaClient {
 			PaginatedScanSurfaceEntryList::getItems).fetchAll();
 	}
 
+	@Override
+	public Stream<ScanSurfaceEntry> streamScanSurface(final Integer scannerId,
+		final String textFilter, final Integer accountId) {
+		return new Paginator<>(
+			pageNo -> consoleApi.consoleScanSurfaceRetrieve(pageNo, scannerId,
+				textFilter, accountId), PaginatedScanSurfaceEntryList::getPage,
+			PaginatedScanSurfaceEntryList::getTotalPages,
+			PaginatedScanSurfaceEntryList::getTotalCount,
+			PaginatedScanSurfaceEntryList::getItems).executor(executor)
+			.stream();
+	}
+
 	@Override
 	public Map<LocalDateTime, LazyCVR> getReports(final ReportType reportType,
 		final Integer accountId) throws ApiException {
@@ -264,25 +355,52 @@ final class SimpleCodaClient extends AbstractCodaClient {
 
 	String getCvrJson(final String timestamp, final ReportType reportType,
 		final Integer accountId) throws ApiException {
-		jsonLock.lock();
-		try {
-			getReport(timestamp, reportType, accountId);
+		final Stopwatch stopwatch = Stopwatch.createStarted();
 
-			final List<String> recentJson = getRawJsonOfRecentCalls();
-			final String cvr = recentJson.remove(0);
-			final String techReport = recentJson.remove(0);
+		try {
+			return fetchReport(accountId, () -> executeForJson(
+					consoleApi.cvrRetrieveCall(timestamp, reportType.value(),
+						null, accountId, null)), () -> executeForJsonAsync(
+					() -> consoleApi.cvrRetrieveCall(timestamp,
+						reportType.value(), true, accountId, null)),
+				cvr -> cvr != null && cvr.contains(EMPTY_TECHNICAL_REPORT),
+				(cvr, techReport) -> cvr.replace(EMPTY_TECHNICAL_REPORT,
+					techReport.substring(1, techReport.length() - 1)));
+		} finally {
+			logger.debug("Retrieved report JSON after {}", stopwatch);
+		}
+	}
 
-			if (cvr.contains("\"technicalReport\":[]")) {
-				final String technicalReport =
-					techReport.substring(1, techReport.length() - 1);
+	/**
+	 * Executes a {@link Call call} on the {@link Executor executor}; cancelling
+	 * the returned future cancels the call.
+	 */
+	private CompletableFuture<String> executeForJsonAsync(
+		final Callable<Call> callFactory) {
+		final Call call;
+		try {
+			call = callFactory.call();
+		} catch (Exception e) {
+			final CompletableFuture<String> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
 
-				return cvr.replace("\"technicalReport\":[]", technicalReport);
+		final CompletableFuture<String> future =
+			CompletableFuture.supplyAsync(() -> {
+				try {
+					return executeForJson(call);
+				} catch (ApiException e) {
+					throw new RuntimeException(e);
+				}
+			}, executor);
+		future.whenComplete((json, t) -> {
+			if (future.isCancelled()) {
+				call.cancel();
 			}
+		});
 
-			return cvr;
-		} finally {
-			jsonLock.unlock();
-		}
+		return future;
 	}
 
 	@Override
@@ -298,20 +416,85 @@ final class SimpleCodaClient extends AbstractCodaClient {
 		final Stopwatch stopwatch = Stopwatch.createStarted();
 
 		try {
-			final CVR cvr =
-				consoleApi.cvrRetrieve(timestamp, reportType.value(), null,
-					accountId);
-
-			if (cvr.getTechnicalReport().isEmpty()) {
-				final CVR techReport =
-					consoleApi.cvrRetrieve(timestamp, reportType.value(), true,
-						accountId);
-				cvr.setTechnicalReport(techReport.getTechnicalReport());
+			return fetchReport(accountId,
+				() -> consoleApi.cvrRetrieve(timestamp, reportType.value(), null,
+					accountId), () -> ApiFuture.enqueue(
+					callback -> consoleApi.cvrRetrieveAsync(timestamp,
+						reportType.value(), true, accountId, callback)),
+				cvr -> cvr.getTechnicalReport().isEmpty(), (cvr, techReport) -> {
+					cvr.setTechnicalReport(techReport.getTechnicalReport());
+					return cvr;
+				});
+		} finally {
+			logger.debug("Retrieved report after {}", stopwatch);
+		}
+	}
+
+	/**
+	 * Fetches a report and, if its technical report is missing, the technical
+	 * report. If the technical report was missing from the tenant's previous
+	 * report, both are fetched concurrently; the technical report is cancelled
+	 * if it turns out not to be needed.
+	 *
+	 * @param accountId               the tenant
+	 * @param report                  fetches the report
+	 * @param technicalReport         starts fetching the technical report
+	 * @param isTechnicalReportMissing whether the report lacks its technical report
+	 * @param merge                   adds the technical report to the report
+	 * @param <T>                     the report representation
+	 * @return the complete report
+	 * @throws ApiException ...
+	 */
+	private <T> T fetchReport(final Integer accountId,
+		final Callable<T> report,
+		final Supplier<CompletableFuture<T>> technicalReport,
+		final Predicate<T> isTechnicalReportMissing,
+		final BinaryOperator<T> merge) throws ApiException {
+		final CompletableFuture<T> prefetched =
+			technicalReportSplits.isExpected(accountId)
+				? technicalReport.get()
+				: null;
+
+		final T cvr;
+		try {
+			cvr = report.call();
+		} catch (Exception e) {
+			if (prefetched != null) {
+				prefetched.cancel(true);
 			}
+			throwIfInstanceOf(e, ApiException.class);
+			throwIfUnchecked(e);
+			throw new ApiException(e);
+		}
 
+		final boolean split = isTechnicalReportMissing.test(cvr);
+		technicalReportSplits.record(accountId, split);
+		if (!split) {
+			if (prefetched != null) {
+				prefetched.cancel(true);
+			}
 			return cvr;
-		} finally {
-			logger.debug("Retrieved report after {}", stopwatch);
+		}
+
+		return merge.apply(cvr,
+			await(prefetched != null ? prefetched : technicalReport.get()));
+	}
+
+	private static <T> T await(final CompletableFuture<T> future)
+		throws ApiException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApiException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException
+				&& cause.getCause() instanceof ApiException) {
+				cause = cause.getCause();
+			}
+			throwIfInstanceOf(cause, ApiException.class);
+			throw new ApiException(cause);
 		}
 	}
 
@@ -424,4 +607,52 @@ final class SimpleCodaClient extends AbstractCodaClient {
 			accountId);
 	}
 
+	/**
+	 * Removes private IP addresses and, unless the {@link HostnameResolver} is {@literal null}, hostnames that resolve
+	 * to private IP addresses. Blocks in CIDR notation are kept; their private ranges are subtracted when they are batched.
+	 */
+	private List<String> filterPrivateTargets(final List<String> targets) {
+		final List<String> trimmed =
+			targets.stream().map(String::trim).collect(Collectors.toList());
+
+		final Map<String, CompletableFuture<Boolean>> privateHostnames =
+			new HashMap<>();
+		if (hostnameResolver != null) {
+			// resolve all hostnames concurrently before filtering
+			trimmed.stream()
+				.filter(SimpleCodaClient::isHostname)
+				.forEach(hostname -> privateHostnames.computeIfAbsent(hostname,
+					hostnameResolver::isPrivate));
+		}
+
+		return trimmed.stream()
+			.filter(not(target -> NetworkUtils.isPrivateIpAddress(target)
+				|| privateHostnames.getOrDefault(target,
+				CompletableFuture.completedFuture(false)).join()))
+			.collect(Collectors.toList());
+	}
+
+	private static Stream<String> subtractRFC1918Blocks(final String target) {
+		if (!NetworkUtils.isCidr(target)) {
+			return Stream.of(target);
+		}
+
+		final Cidr cidr;
+		try {
+			cidr = Cidr.parse(target);
+		} catch (IllegalArgumentException e) {
+			// e.g. "999.0.0.0/8"; passed through unchanged like a hostname
+			return Stream.of(target);
+		}
+
+		return cidr.subtract(NetworkUtils.RFC1918_BLOCKS)
+			.stream()
+			.map(Cidr::toString);
+	}
+
+	private static boolean isHostname(final String target) {
+		return !NetworkUtils.isCidr(target) && target.indexOf(':') < 0
+			&& Cidr.tryParseAddress(target) < 0;
+	}
+
 }
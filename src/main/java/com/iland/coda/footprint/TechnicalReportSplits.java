@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers for each tenant whether the CODA service returned the technical
+ * report of a {@link net.codacloud.model.CVR CVR} separately, i.e. whether
+ * the report came with an empty technical report that has to be fetched with
+ * {@code isTechnicalReportOnly=true}. For tenants that are known to split, both
+ * parts are fetched concurrently.
+ */
+final class TechnicalReportSplits {
+
+	private static final Integer DEFAULT_ACCOUNT_ID = 0;
+
+	private final ConcurrentMap<Integer, Boolean> splits =
+		new ConcurrentHashMap<>();
+
+	/**
+	 * @param accountId the tenant or {@literal null} for the current account
+	 * @return whether the technical report was split off the last report of the tenant
+	 */
+	boolean isExpected(final Integer accountId) {
+		return Boolean.TRUE.equals(splits.get(key(accountId)));
+	}
+
+	/**
+	 * @param accountId the tenant or {@literal null} for the current account
+	 * @param split     whether the technical report was split off
+	 */
+	void record(final Integer accountId, final boolean split) {
+		splits.put(key(accountId), split);
+	}
+
+	private static Integer key(final Integer accountId) {
+		return accountId == null ? DEFAULT_ACCOUNT_ID : accountId;
+	}
+
+}
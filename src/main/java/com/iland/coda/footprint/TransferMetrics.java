@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.iland.coda.footprint.CodaTransport.CallType;
+
+/**
+ * Counts the response bytes of a {@link CodaTransport} as they were
+ * transferred and as they were handed to the client after decompression, per
+ * {@link CallType call type}. Bytes are counted as the body is read, so a body
+ * that is not consumed is not counted.
+ */
+public final class TransferMetrics {
+
+	private final Map<CallType, Counters> counters =
+		new EnumMap<>(CallType.class);
+
+	TransferMetrics() {
+		for (final CallType callType : CallType.values()) {
+			counters.put(callType, new Counters());
+		}
+	}
+
+	/**
+	 * @param callType the {@link CallType call type}
+	 * @return the number of responses
+	 */
+	public long getResponses(final CallType callType) {
+		return counters.get(callType).responses.sum();
+	}
+
+	/**
+	 * @param callType the {@link CallType call type}
+	 * @return the number of compressed responses
+	 */
+	public long getCompressedResponses(final CallType callType) {
+		return counters.get(callType).compressedResponses.sum();
+	}
+
+	/**
+	 * @param callType the {@link CallType call type}
+	 * @return the number of body bytes received over the wire
+	 */
+	public long getTransferredBytes(final CallType callType) {
+		return counters.get(callType).transferredBytes.sum();
+	}
+
+	/**
+	 * @param callType the {@link CallType call type}
+	 * @return the number of body bytes after decompression
+	 */
+	public long getDecompressedBytes(final CallType callType) {
+		return counters.get(callType).decompressedBytes.sum();
+	}
+
+	/**
+	 * @return the number of body bytes received over the wire for all {@link CallType call types}
+	 */
+	public long getTransferredBytes() {
+		return counters.values()
+			.stream()
+			.mapToLong(c -> c.transferredBytes.sum())
+			.sum();
+	}
+
+	/**
+	 * @return the number of body bytes after decompression for all {@link CallType call types}
+	 */
+	public long getDecompressedBytes() {
+		return counters.values()
+			.stream()
+			.mapToLong(c -> c.decompressedBytes.sum())
+			.sum();
+	}
+
+	Counters counters(final CallType callType) {
+		return counters.get(callType);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("TransferMetrics{");
+		counters.forEach((callType, c) -> sb.append(callType)
+			.append("={responses=")
+			.append(c.responses.sum())
+			.append(", compressed=")
+			.append(c.compressedResponses.sum())
+			.append(", transferredBytes=")
+			.append(c.transferredBytes.sum())
+			.append(", decompressedBytes=")
+			.append(c.decompressedBytes.sum())
+			.append("}, "));
+		sb.setLength(sb.length() - 2);
+
+		return sb.append('}').toString();
+	}
+
+	static final class Counters {
+
+		final LongAdder responses = new LongAdder();
+		final LongAdder compressedResponses = new LongAdder();
+		final LongAdder transferredBytes = new LongAdder();
+		final LongAdder decompressedBytes = new LongAdder();
+
+	}
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint.concurrent;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.codacloud.ApiException;
+
+/**
+ * Applies a {@link Task task} to each of an {@link Iterable iterable} of
+ * keys on an {@link Executor executor} with at most {@code maxParallelism}
+ * tasks in flight. Unlike a fail-fast stream a failing task does not abort
+ * the others; all failures are collected in the {@link Result result}.
+ * {@link #applyUntilFailure(Iterable, Task, Executor, Semaphore)} instead
+ * stops submitting tasks once one has failed.
+ * <p>
+ * Only {@link ApiException API exceptions}, also when wrapped in a
+ * {@link RuntimeException}, are failures. Any other exception of a task is a
+ * bug: no further tasks are submitted and, once the tasks in flight have
+ * completed, it is rethrown to the caller.
+ */
+public final class FanOut {
+
+	private FanOut() {
+	}
+
+	/**
+	 * A task that is applied to a single key.
+	 *
+	 * @param <K> the key type
+	 * @param <R> the result type
+	 */
+	@FunctionalInterface
+	public interface Task<K, R> {
+
+		R apply(K key) throws ApiException;
+
+	}
+
+	/**
+	 * The results and failures of a {@link FanOut fan-out}, both in the
+	 * iteration order of the supplied keys.
+	 *
+	 * @param <K> the key type
+	 * @param <R> the result type
+	 */
+	public static final class Result<K, R> {
+
+		private final Map<K, R> values;
+		private final Map<K, ApiException> failures;
+
+		private Result(final Map<K, R> values,
+			final Map<K, ApiException> failures) {
+			this.values = Collections.unmodifiableMap(values);
+			this.failures = Collections.unmodifiableMap(failures);
+		}
+
+		public Map<K, R> getValues() {
+			return values;
+		}
+
+		public Map<K, ApiException> getFailures() {
+			return failures;
+		}
+
+	}
+
+	/**
+	 * Applies the {@link Task task} to each key.
+	 *
+	 * @param keys           the keys
+	 * @param task           the {@link Task task} to apply to each key
+	 * @param executor       the {@link Executor executor} the tasks run on
+	 * @param maxParallelism the maximum number of tasks in flight
+	 * @param <K>            the key type
+	 * @param <R>            the result type
+	 * @return the {@link Result result}
+	 * @throws ApiException         if the calling thread is interrupted
+	 * @throws NullPointerException if a key is {@literal null}
+	 */
+	public static <K, R> Result<K, R> apply(final Iterable<K> keys,
+		final Task<K, R> task, final Executor executor,
+		final int maxParallelism) throws ApiException {
+		checkArgument(maxParallelism > 0,
+			"maxParallelism must be greater than 0");
+
+		return apply(keys, task, executor, new Semaphore(maxParallelism));
+	}
+
+	/**
+	 * Applies the {@link Task task} to each key. A permit of the supplied
+	 * {@link Semaphore semaphore} is held while a task is in flight, so a
+	 * semaphore shared by several fan-outs bounds them in total.
+	 *
+	 * @param keys     the keys
+	 * @param task     the {@link Task task} to apply to each key
+	 * @param executor the {@link Executor executor} the tasks run on
+	 * @param inFlight the {@link Semaphore semaphore} bounding the tasks in flight
+	 * @param <K>      the key type
+	 * @param <R>      the result type
+	 * @return the {@link Result result}
+	 * @throws ApiException         if the calling thread is interrupted
+	 * @throws NullPointerException if a key is {@literal null}
+	 */
+	public static <K, R> Result<K, R> apply(final Iterable<K> keys,
+		final Task<K, R> task, final Executor executor,
+		final Semaphore inFlight) throws ApiException {
+		return apply(keys, task, executor, inFlight, false);
+	}
+
+	/**
+	 * Applies the {@link Task task} to each key until a task fails. Keys are
+	 * no longer pulled once a task has failed, e.g. because the credentials
+	 * were rejected; the tasks already in flight run to completion. Keys that
+	 * were not submitted are in neither map of the {@link Result result}.
+	 *
+	 * @param keys     the keys
+	 * @param task     the {@link Task task} to apply to each key
+	 * @param executor the {@link Executor executor} the tasks run on
+	 * @param inFlight the {@link Semaphore semaphore} bounding the tasks in flight
+	 * @param <K>      the key type
+	 * @param <R>      the result type
+	 * @return the {@link Result result}
+	 * @throws ApiException         if the calling thread is interrupted
+	 * @throws NullPointerException if a key is {@literal null}
+	 */
+	public static <K, R> Result<K, R> applyUntilFailure(final Iterable<K> keys,
+		final Task<K, R> task, final Executor executor,
+		final Semaphore inFlight) throws ApiException {
+		return apply(keys, task, executor, inFlight, true);
+	}
+
+	private static <K, R> Result<K, R> apply(final Iterable<K> keys,
+		final Task<K, R> task, final Executor executor,
+		final Semaphore inFlight, final boolean untilFailure)
+		throws ApiException {
+		final Map<K, R> values = new ConcurrentHashMap<>();
+		final Map<K, ApiException> failures = new ConcurrentHashMap<>();
+		final AtomicReference<RuntimeException> bug = new AtomicReference<>();
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
+		final List<K> submitted = new ArrayList<>();
+		try {
+			// keys are only pulled once a permit is available
+			for (final Iterator<K> iterator = keys.iterator(); ; ) {
+				inFlight.acquire();
+				// a failing task records its failure before releasing its permit
+				if (untilFailure && !failures.isEmpty() || bug.get() != null
+					|| !iterator.hasNext()) {
+					inFlight.release();
+					break;
+				}
+
+				final K key = iterator.next();
+				if (key == null) {
+					inFlight.release();
+					bug.compareAndSet(null,
+						new NullPointerException("keys must not contain null"));
+					break;
+				}
+
+				submitted.add(key);
+				futures.add(CompletableFuture.runAsync(() -> {
+					try {
+						final R value = task.apply(key);
+						if (value != null) {
+							values.put(key, value);
+						}
+					} catch (final ApiException e) {
+						failures.put(key, e);
+					} catch (final RuntimeException e) {
+						if (e.getCause() instanceof ApiException) {
+							failures.put(key, (ApiException) e.getCause());
+						} else {
+							bug.compareAndSet(null, e);
+						}
+					} finally {
+						inFlight.release();
+					}
+				}, executor));
+			}
+
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+				.join();
+		} catch (final InterruptedException e) {
+			futures.forEach(future -> future.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new ApiException(e);
+		}
+
+		if (bug.get() != null) {
+			throw bug.get();
+		}
+
+		final Map<K, R> orderedValues = new LinkedHashMap<>();
+		final Map<K, ApiException> orderedFailures = new LinkedHashMap<>();
+		for (final K key : submitted) {
+			if (values.containsKey(key)) {
+				orderedValues.put(key, values.get(key));
+			}
+			if (failures.containsKey(key)) {
+				orderedFailures.put(key, failures.get(key));
+			}
+		}
+
+		return new Result<>(orderedValues, orderedFailures);
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+package com.iland.coda.footprint.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Provides the default {@link ExecutorService executor} for blocking HTTP
+ * calls. The executor is shared by all clients and is deliberately separate
+ * from the common {@link java.util.concurrent.ForkJoinPool}; callers bound
+ * the number of in-flight calls themselves. When built on JDK 21+ the JAR
+ * carries a variant of this class that uses virtual threads instead.
+ */
+public final class IoExecutors {
+
+	private IoExecutors() {
+	}
+
+	/**
+	 * Returns the shared {@link ExecutorService executor} for blocking HTTP calls.
+	 * It cannot be shut down: {@link ExecutorService#shutdown()} and
+	 * {@link ExecutorService#shutdownNow()} throw an
+	 * {@link UnsupportedOperationException}.
+	 *
+	 * @return the shared {@link ExecutorService executor}
+	 */
+	public static ExecutorService shared() {
+		return Holder.EXECUTOR;
+	}
+
+	/**
+	 * Returns the shared {@link ScheduledExecutorService scheduler} for delayed
+	 * work such as non-blocking retries. Scheduled tasks must not block.
+	 *
+	 * @return the shared {@link ScheduledExecutorService scheduler}
+	 */
+	public static ScheduledExecutorService scheduler() {
+		return SchedulerHolder.SCHEDULER;
+	}
+
+	private static final class Holder {
+
+		private static final ExecutorService EXECUTOR =
+			new SharedExecutorService(Executors.newCachedThreadPool(
+				new ThreadFactoryBuilder().setDaemon(true)
+					.setNameFormat("coda-io-%d")
+					.build()));
+
+	}
+
+	private static final class SchedulerHolder {
+
+		private static final ScheduledExecutorService SCHEDULER =
+			Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setDaemon(true)
+					.setNameFormat("coda-scheduler-%d")
+					.build());
+
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A view of a shared {@link ExecutorService executor} through which it can be
+ * used but not shut down, as shutting it down would break every client that
+ * uses it, e.g. through {@code client.dispatcher().executorService()} of an
+ * OkHttp client.
+ */
+final class SharedExecutorService extends AbstractExecutorService {
+
+	private final ExecutorService delegate;
+
+	SharedExecutorService(final ExecutorService delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void execute(final Runnable command) {
+		delegate.execute(command);
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void shutdown() {
+		throw new UnsupportedOperationException(
+			"the shared executor must not be shut down");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		throw new UnsupportedOperationException(
+			"the shared executor must not be shut down");
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(final long timeout, final TimeUnit unit)
+		throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+}
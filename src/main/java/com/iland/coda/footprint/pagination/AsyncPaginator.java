@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint.pagination;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * The non-blocking counterpart of {@link Paginator}. After the first page has
+ * been retrieved all remaining pages are requested at once; the number of
+ * requests actually in flight is bounded by the HTTP client's dispatcher, so
+ * no thread waits for a page.
+ *
+ * @param <I> the paginated SDK type
+ * @param <V> the item value type
+ */
+public final class AsyncPaginator<I, V> {
+
+	private final AsyncPageFetcher<I> fetcher;
+	private final Function<I, Page<V>> pageMapper;
+
+	public AsyncPaginator(final AsyncPageFetcher<I> fetcher,
+		final Function<I, Integer> pageNoMapper,
+		final Function<I, Integer> totalPageMapper,
+		final Function<I, Integer> totalCountMapper,
+		final Function<I, List<V>> itemsMapper) {
+		this.fetcher = fetcher;
+		this.pageMapper =
+			i -> new Page<>(pageNoMapper.apply(i), totalPageMapper.apply(i),
+				totalCountMapper.apply(i), itemsMapper.apply(i));
+	}
+
+	/**
+	 * Fetch all items from all pages.
+	 *
+	 * @return a {@link CompletableFuture future} of a {@link List} of {@link V items} from all pages in page order
+	 */
+	public CompletableFuture<List<V>> fetchAll() {
+		return fetcher.fetch(1).thenApply(pageMapper).thenCompose(firstPage -> {
+			final List<CompletableFuture<Page<V>>> pages = new ArrayList<>();
+			pages.add(CompletableFuture.completedFuture(firstPage));
+			for (int pageNo = 2; pageNo <= firstPage.getTotalPages(); pageNo++) {
+				pages.add(fetcher.fetch(pageNo).thenApply(pageMapper));
+			}
+
+			return CompletableFuture.allOf(
+				pages.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+				final List<V> items = new ArrayList<>();
+				pages.forEach(page -> items.addAll(page.join().getItems()));
+
+				return items;
+			});
+		});
+	}
+
+}
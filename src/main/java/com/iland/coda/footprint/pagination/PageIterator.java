@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+package com.iland.coda.footprint.pagination;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.google.common.base.Throwables;
+import net.codacloud.ApiException;
+
+/**
+ * An {@link Iterator} that fetches pages on demand and, optionally, prefetches
+ * the next pages on an {@link Executor executor}. Only the current page and
+ * the prefetched pages are held in memory. An {@link ApiException} is
+ * rethrown as the cause of a {@link RuntimeException}.
+ *
+ * @param <I> the paginated SDK type
+ * @param <V> the item value type
+ */
+final class PageIterator<I, V> implements Iterator<V>, AutoCloseable {
+
+	private final PageFetcher<I> fetcher;
+	private final Function<I, Page<V>> pageMapper;
+	private final Executor executor;
+	private final int prefetchPages;
+
+	private final Deque<CompletableFuture<I>> prefetched = new ArrayDeque<>();
+	private Iterator<V> current = Collections.emptyIterator();
+	/**
+	 * The next page to hand out and the next page to prefetch.
+	 */
+	private int nextPageNo = 1, nextPrefetchPageNo = 2;
+	/**
+	 * Unknown until the first page has been retrieved.
+	 */
+	private Integer totalPages;
+
+	PageIterator(final PageFetcher<I> fetcher,
+		final Function<I, Page<V>> pageMapper, final Executor executor,
+		final int prefetchPages) {
+		this.fetcher = fetcher;
+		this.pageMapper = pageMapper;
+		this.executor = executor;
+		this.prefetchPages = prefetchPages;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!current.hasNext()) {
+			if (totalPages != null && nextPageNo > totalPages) {
+				return false;
+			}
+
+			final Page<V> page = pageMapper.apply(nextPage());
+			totalPages = page.getTotalPages();
+			nextPageNo++;
+			prefetch();
+
+			current = page.getItems().iterator();
+		}
+
+		return true;
+	}
+
+	@Override
+	public V next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return current.next();
+	}
+
+	/**
+	 * Cancels all prefetched pages.
+	 */
+	@Override
+	public void close() {
+		prefetched.forEach(future -> future.cancel(true));
+		prefetched.clear();
+		totalPages = 0;
+		current = Collections.emptyIterator();
+	}
+
+	private I nextPage() {
+		final CompletableFuture<I> future = prefetched.poll();
+		if (future == null) {
+			return fetch(nextPageNo);
+		}
+
+		try {
+			return future.join();
+		} catch (final CompletionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw e;
+		}
+	}
+
+	private void prefetch() {
+		nextPrefetchPageNo = Math.max(nextPrefetchPageNo, nextPageNo);
+		while (prefetched.size() < prefetchPages
+			&& nextPrefetchPageNo <= totalPages) {
+			final int pageNo = nextPrefetchPageNo++;
+			prefetched.add(
+				CompletableFuture.supplyAsync(() -> fetch(pageNo), executor));
+		}
+	}
+
+	private I fetch(final int pageNo) {
+		try {
+			return fetcher.fetch(pageNo);
+		} catch (final ApiException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
@@ -15,18 +15,27 @@
 
 package com.iland.coda.footprint.pagination;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Throwables;
@@ -34,6 +43,8 @@ import net.codacloud.ApiException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.iland.coda.footprint.concurrent.IoExecutors;
+
 /**
  * An abstraction for the retrieval of paginated data from the SDK.
  *
@@ -46,9 +57,22 @@ public final class Paginator<I, V> {
 	private static final Logger logger =
 		LoggerFactory.getLogger(Paginator.class);
 
+	/**
+	 * The default maximum number of pages fetched concurrently by {@link #fetchAllAsync()}.
+	 */
+	public static final int DEFAULT_MAX_IN_FLIGHT_PAGES = 5;
+
+	/**
+	 * The default number of pages {@link #stream()} fetches ahead of the consumer.
+	 */
+	public static final int DEFAULT_PREFETCH_PAGES = 1;
+
 	private final PageFetcher<I> fetcher;
 	private final Function<I, Page<V>> pageMapper;
 
+	private Executor executor = IoExecutors.shared();
+	private int maxInFlightPages = DEFAULT_MAX_IN_FLIGHT_PAGES;
+
 	public Paginator(final PageFetcher<I> fetcher,
 		final Function<I, Integer> pageNoMapper,
 		final Function<I, Integer> totalPageMapper,
@@ -60,6 +84,33 @@ public final class Paginator<I, V> {
 				totalCountMapper.apply(i), itemsMapper.apply(i));
 	}
 
+	/**
+	 * Sets the {@link Executor executor} used by {@link #fetchAllAsync()}.
+	 * Defaults to {@link IoExecutors#shared()}.
+	 *
+	 * @param executor an {@link Executor executor} suitable for blocking calls
+	 * @return {@link Paginator this}
+	 */
+	public Paginator<I, V> executor(final Executor executor) {
+		this.executor = requireNonNull(executor, "executor must not be null");
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of pages {@link #fetchAllAsync()} fetches
+	 * concurrently. No further pages are requested until one of the in-flight
+	 * pages has been retrieved. Defaults to {@link #DEFAULT_MAX_IN_FLIGHT_PAGES}.
+	 *
+	 * @param maxInFlightPages the maximum number of concurrently fetched pages
+	 * @return {@link Paginator this}
+	 */
+	public Paginator<I, V> maxInFlightPages(final int maxInFlightPages) {
+		checkArgument(maxInFlightPages > 0,
+			"maxInFlightPages must be greater than 0");
+		this.maxInFlightPages = maxInFlightPages;
+		return this;
+	}
+
 	/**
 	 * Fetch and return all items from all pages.
 	 *
@@ -67,59 +118,155 @@ public final class Paginator<I, V> {
 	 * @throws ApiException ...
 	 */
 	public List<V> fetchAll() throws ApiException {
-		return fetchAll(Function.identity(), ArrayList::new);
+		final Page<V> firstPage = pageMapper.apply(fetcher.fetch(1));
+		final AtomicInteger count = new AtomicInteger(0);
+
+		final List<V> items = new ArrayList<>(firstPage.getItems());
+		for (int pageNo = 2; pageNo <= firstPage.getTotalPages(); pageNo++) {
+			items.addAll(pageMapper.apply(fetch(pageNo, count)).getItems());
+		}
+
+		return items;
 	}
 
 	/**
-	 * Fetch and return all items from all pages.
+	 * Fetch and return all items from all pages. After the first page has
+	 * been retrieved the remaining pages are fetched concurrently on the
+	 * configured {@link Executor executor} with at most
+	 * {@link #maxInFlightPages(int) maxInFlightPages} pages in flight.
 	 *
 	 * @return a {@link Set} of {@link V items} from all pages
 	 * @throws ApiException ...
 	 */
 	public Set<V> fetchAllAsync() throws ApiException {
-		return fetchAll(IntStream::parallel, HashSet::new);
-	}
+		final Page<V> firstPage = pageMapper.apply(fetcher.fetch(1));
+		final int totalPages = Math.max(firstPage.getTotalPages(), 1);
+		final AtomicReferenceArray<List<V>> pages =
+			new AtomicReferenceArray<>(totalPages);
+		pages.set(0, firstPage.getItems());
 
-	private <C extends Collection<V>> C fetchAll(
-		final Function<IntStream, IntStream> streamMapper,
-		final Supplier<C> supplier) throws ApiException {
-		final I pageOfItems = fetcher.fetch(1);
-		final Page<V> firstPage = pageMapper.apply(pageOfItems);
 		final AtomicInteger count = new AtomicInteger(0);
+		final Semaphore inFlight = new Semaphore(maxInFlightPages);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
 		try {
-			final C items = streamMapper.apply(
-					IntStream.range(2, firstPage.getTotalPages() + 1))
-				.mapToObj(pageNo -> fetch(pageNo, count)).map(pageMapper)
-				.map(Page::getItems).flatMap(List::stream)
-				.collect(Collectors.toCollection(supplier));
-			items.addAll(firstPage.getItems());
-			return items;
-		} catch (RuntimeException e) {
-			Throwables.throwIfInstanceOf(e.getCause(), ApiException.class);
-			throw e;
+			for (int pageNo = 2; pageNo <= totalPages; pageNo++) {
+				inFlight.acquire();
+				if (failure.get() != null) {
+					inFlight.release();
+					break;
+				}
+
+				final int currentPageNo = pageNo;
+				futures.add(CompletableFuture.runAsync(() -> {
+					try {
+						final I fetch = fetch(currentPageNo, count);
+						pages.set(currentPageNo - 1,
+							pageMapper.apply(fetch).getItems());
+					} catch (final ApiException | RuntimeException e) {
+						failure.compareAndSet(null, e);
+					} finally {
+						inFlight.release();
+					}
+				}, executor));
+			}
+
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+				.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApiException(e);
+		}
+
+		final Throwable throwable = failure.get();
+		if (throwable != null) {
+			Throwables.throwIfInstanceOf(throwable, ApiException.class);
+			Throwables.throwIfUnchecked(throwable);
+			throw new ApiException(throwable);
 		}
+
+		final Set<V> items = new HashSet<>();
+		for (int i = 0; i < totalPages; i++) {
+			items.addAll(pages.get(i));
+		}
+
+		return items;
+	}
+
+	/**
+	 * Returns an {@link Iterator} of all items with
+	 * {@link #DEFAULT_PREFETCH_PAGES} pages prefetched.
+	 *
+	 * @return an {@link Iterator} of {@link V items} from all pages
+	 * @see #iterator(int)
+	 */
+	public Iterator<V> iterator() {
+		return iterator(DEFAULT_PREFETCH_PAGES);
 	}
 
-	private I fetch(final Integer pageNo, final AtomicInteger count) {
+	/**
+	 * Returns an {@link Iterator} that fetches pages as they are consumed.
+	 * {@link ApiException API exceptions} are rethrown as the cause of a
+	 * {@link RuntimeException}.
+	 *
+	 * @param prefetchPages the number of pages to fetch ahead of the consumer on the configured {@link Executor executor}; {@code 0} disables prefetching
+	 * @return an {@link Iterator} of {@link V items} from all pages
+	 */
+	public Iterator<V> iterator(final int prefetchPages) {
+		checkArgument(prefetchPages >= 0, "prefetchPages must not be negative");
+
+		return new PageIterator<>(fetcher, pageMapper, executor, prefetchPages);
+	}
+
+	/**
+	 * Returns a lazy {@link Stream} of all items with
+	 * {@link #DEFAULT_PREFETCH_PAGES} pages prefetched.
+	 *
+	 * @return a lazy {@link Stream} of {@link V items} from all pages
+	 * @see #stream(int)
+	 */
+	public Stream<V> stream() {
+		return stream(DEFAULT_PREFETCH_PAGES);
+	}
+
+	/**
+	 * Returns a lazy {@link Stream} of all items; pages are fetched as the
+	 * stream is consumed so only the current and the prefetched pages are held
+	 * in memory. Closing the stream cancels any prefetched pages.
+	 * {@link ApiException API exceptions} are rethrown as the cause of a
+	 * {@link RuntimeException}.
+	 *
+	 * @param prefetchPages the number of pages to fetch ahead of the consumer on the configured {@link Executor executor}; {@code 0} disables prefetching
+	 * @return a lazy {@link Stream} of {@link V items} from all pages
+	 */
+	public Stream<V> stream(final int prefetchPages) {
+		checkArgument(prefetchPages >= 0, "prefetchPages must not be negative");
+
+		final PageIterator<I, V> iterator =
+			new PageIterator<>(fetcher, pageMapper, executor, prefetchPages);
+
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
+				false)
+			.onClose(iterator::close);
+	}
+
+	private I fetch(final Integer pageNo, final AtomicInteger count)
+		throws ApiException {
 		final Stopwatch stopwatch = Stopwatch.createStarted();
 
-		try {
-			final I fetch = fetcher.fetch(pageNo);
-
-			if (logger.isDebugEnabled()) {
-				final Page<V> page = pageMapper.apply(fetch);
-				final Integer totalPages = page.getTotalPages();
-				final String percent =
-					calculatePercentage(count.incrementAndGet(), totalPages);
-				logger.debug("Page {}/{} ({} items) retrieved in {} ({}%)",
-					pageNo, totalPages, page.getItems().size(), stopwatch,
-					percent);
-			}
+		final I fetch = fetcher.fetch(pageNo);
 
-			return fetch;
-		} catch (ApiException e) {
-			throw new RuntimeException(e);
+		if (logger.isDebugEnabled()) {
+			final Page<V> page = pageMapper.apply(fetch);
+			final Integer totalPages = page.getTotalPages();
+			final String percent =
+				calculatePercentage(count.incrementAndGet(), totalPages);
+			logger.debug("Page {}/{} ({} items) retrieved in {} ({}%)", pageNo,
+				totalPages, page.getItems().size(), stopwatch, percent);
 		}
+
+		return fetch;
 	}
 
 	private static String calculatePercentage(final int a, final int b) {
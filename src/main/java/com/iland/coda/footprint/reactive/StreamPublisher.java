@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint.reactive;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import net.codacloud.ApiException;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A {@link Publisher} of the elements of a lazy {@link Stream}, such as {@link
+ * com.iland.coda.footprint.pagination.Paginator#stream()}. Elements are pulled
+ * from the stream on the supplied {@link Executor executor} only while there is
+ * outstanding demand, so a slow {@link Subscriber} holds back the fetching of
+ * further pages. Each {@link Subscription} opens a new stream and closes it on
+ * completion, failure or cancellation. An {@link ApiException} thrown as the
+ * cause of a {@link RuntimeException} is signalled unwrapped.
+ *
+ * @param <T> the type of element signaled
+ */
+public final class StreamPublisher<T> implements Publisher<T> {
+
+	private final Callable<Stream<T>> source;
+	private final Executor executor;
+
+	/**
+	 * @param source   opens the {@link Stream}; called once per {@link Subscription}
+	 * @param executor the {@link Executor executor} on which the stream is consumed; it must allow blocking calls
+	 */
+	public StreamPublisher(final Callable<Stream<T>> source,
+		final Executor executor) {
+		this.source = requireNonNull(source, "source must not be null");
+		this.executor = requireNonNull(executor, "executor must not be null");
+	}
+
+	@Override
+	public void subscribe(final Subscriber<? super T> subscriber) {
+		requireNonNull(subscriber, "subscriber must not be null");
+
+		// hold back draining until onSubscribe returns so that signals are serial
+		final StreamSubscription subscription =
+			new StreamSubscription(subscriber);
+		subscription.wip.set(1);
+		subscriber.onSubscribe(subscription);
+		executor.execute(subscription);
+	}
+
+	/**
+	 * Emits elements in a drain loop; the work-in-progress counter guarantees
+	 * that only one thread signals the {@link Subscriber} at a time.
+	 */
+	private final class StreamSubscription implements Subscription, Runnable {
+
+		private final Subscriber<? super T> subscriber;
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private volatile boolean cancelled;
+		private volatile Throwable invalidRequest;
+
+		/**
+		 * Only accessed by the draining thread.
+		 */
+		private Stream<T> stream;
+		private Iterator<T> iterator;
+		private boolean terminated;
+
+		private StreamSubscription(final Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(final long n) {
+			if (n <= 0) {
+				invalidRequest = new IllegalArgumentException(
+					"request must be positive (Rule 3.9) but was " + n);
+			} else {
+				requested.accumulateAndGet(n, StreamPublisher::addCap);
+			}
+
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+
+			schedule();
+		}
+
+		private void schedule() {
+			if (wip.getAndIncrement() == 0) {
+				executor.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				if (!terminated) {
+					drain();
+				}
+
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void drain() {
+			if (cancelled) {
+				terminate();
+				return;
+			}
+
+			final Throwable invalid = invalidRequest;
+			if (invalid != null) {
+				terminate();
+				subscriber.onError(invalid);
+				return;
+			}
+
+			final long demand = requested.get();
+			if (demand == 0) {
+				return;
+			}
+
+			long emitted = 0;
+			try {
+				if (iterator == null) {
+					stream = source.call();
+					iterator = stream.iterator();
+					if (!iterator.hasNext()) {
+						terminate();
+						subscriber.onComplete();
+						return;
+					}
+				}
+
+				while (emitted != demand) {
+					subscriber.onNext(iterator.next());
+					emitted++;
+
+					if (cancelled) {
+						terminate();
+						return;
+					}
+
+					// completes without further demand; may fetch the next page early
+					if (!iterator.hasNext()) {
+						terminate();
+						subscriber.onComplete();
+						return;
+					}
+				}
+			} catch (final Exception e) {
+				terminate();
+				subscriber.onError(unwrap(e));
+				return;
+			}
+
+			if (demand != Long.MAX_VALUE) {
+				requested.addAndGet(-emitted);
+			}
+		}
+
+		private void terminate() {
+			terminated = true;
+			if (stream != null) {
+				stream.close();
+			}
+		}
+
+	}
+
+	private static long addCap(final long a, final long b) {
+		final long sum = a + b;
+		return sum < 0 ? Long.MAX_VALUE : sum;
+	}
+
+	private static Throwable unwrap(final Throwable throwable) {
+		return throwable instanceof RuntimeException
+			&& throwable.getCause() instanceof ApiException
+			? throwable.getCause()
+			: throwable;
+	}
+
+}
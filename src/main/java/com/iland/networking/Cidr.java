@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2023, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.networking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * An IPv4 block in CIDR notation, held as a packed {@code int} network address
+ * and a prefix length. Unlike {@link org.apache.commons.net.util.SubnetUtils}
+ * the hosts are enumerated lazily, so walking a large block does not
+ * materialize its addresses.
+ * <p>
+ * As with {@link org.apache.commons.net.util.SubnetUtils.SubnetInfo#getAllAddresses()}
+ * the hosts exclude the network and broadcast addresses, i.e. /31 and /32
+ * blocks have no hosts.
+ */
+public final class Cidr {
+
+	private final int network;
+	private final int prefixLength;
+
+	private Cidr(final int network, final int prefixLength) {
+		this.network = network;
+		this.prefixLength = prefixLength;
+	}
+
+	/**
+	 * Parses a block in CIDR notation, e.g. "10.0.0.0/8". Host bits are
+	 * ignored, i.e. "10.1.2.3/8" is "10.0.0.0/8".
+	 *
+	 * @param cidr a block in CIDR notation
+	 * @return the {@link Cidr}
+	 * @throws IllegalArgumentException if the notation is invalid
+	 */
+	public static Cidr parse(final String cidr) {
+		final int slash = cidr.indexOf('/');
+		if (slash < 0) {
+			throw new IllegalArgumentException(
+				"Could not parse [" + cidr + "]");
+		}
+
+		final int prefixLength = parseInt(cidr, slash + 1, cidr.length());
+		if (prefixLength > 32) {
+			throw new IllegalArgumentException(
+				"Could not parse [" + cidr + "]");
+		}
+
+		return new Cidr(parseAddress(cidr, 0, slash) & mask(prefixLength),
+			prefixLength);
+	}
+
+	/**
+	 * Returns the /32 block of a single IPv4 address.
+	 *
+	 * @param address the IPv4 address, e.g. "10.0.0.1"
+	 * @return the {@link Cidr}
+	 * @throws IllegalArgumentException if the address is invalid
+	 */
+	public static Cidr of(final String address) {
+		return new Cidr(parseAddress(address), 32);
+	}
+
+	/**
+	 * Parses a dotted-quad IPv4 address into a packed {@code int}.
+	 *
+	 * @param address the IPv4 address, e.g. "10.0.0.1"
+	 * @return the packed address
+	 * @throws IllegalArgumentException if the address is invalid
+	 */
+	public static int parseAddress(final String address) {
+		return parseAddress(address, 0, address.length());
+	}
+
+	/**
+	 * Parses a dotted-quad IPv4 address without throwing, e.g. to classify
+	 * targets that may also be hostnames.
+	 *
+	 * @param address a dotted-quad IPv4 address or any other {@link String}
+	 * @return the unsigned packed address or {@literal -1} if it is not a dotted-quad IPv4 address
+	 */
+	public static long tryParseAddress(final String address) {
+		long result = 0;
+		int octet = -1, octets = 0, digits = 0;
+		for (int i = 0, length = address.length(); i <= length; i++) {
+			final char c = i == length ? '.' : address.charAt(i);
+			if (c >= '0' && c <= '9') {
+				octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+				if (++digits > 3) {
+					return -1;
+				}
+			} else if (c == '.' && octet >= 0 && octet <= 255
+				&& ++octets <= 4) {
+				result = (result << 8) | octet;
+				octet = -1;
+				digits = 0;
+			} else {
+				return -1;
+			}
+		}
+
+		return octets == 4 ? result : -1;
+	}
+
+	/**
+	 * Formats a packed {@code int} as a dotted-quad IPv4 address.
+	 *
+	 * @param address the packed address
+	 * @return the IPv4 address, e.g. "10.0.0.1"
+	 */
+	public static String format(final int address) {
+		return new StringBuilder(15).append(address >>> 24)
+			.append('.')
+			.append((address >>> 16) & 0xff)
+			.append('.')
+			.append((address >>> 8) & 0xff)
+			.append('.')
+			.append(address & 0xff)
+			.toString();
+	}
+
+	static int mask(final int prefixLength) {
+		return prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+	}
+
+	public int getNetwork() {
+		return network;
+	}
+
+	public int getPrefixLength() {
+		return prefixLength;
+	}
+
+	public int getBroadcast() {
+		return network | ~mask(prefixLength);
+	}
+
+	/**
+	 * @return the number of addresses, including the network and broadcast addresses
+	 */
+	public long getAddressCount() {
+		return 1L << (32 - prefixLength);
+	}
+
+	/**
+	 * @return the number of hosts, excluding the network and broadcast addresses
+	 */
+	public long getHostCount() {
+		return Math.max(0L, (1L << (32 - prefixLength)) - 2);
+	}
+
+	/**
+	 * Lazily enumerates the hosts of this block in ascending order.
+	 *
+	 * @return an {@link Iterator} of the hosts' dotted-quad addresses
+	 */
+	public Iterator<String> hosts() {
+		return hosts(Collections.emptyList());
+	}
+
+	/**
+	 * Lazily enumerates the hosts of this block in ascending order, skipping
+	 * the excluded blocks. The excluded ranges are subtracted arithmetically,
+	 * i.e. excluded hosts are never enumerated.
+	 *
+	 * @param excluded the blocks to skip
+	 * @return an {@link Iterator} of the hosts' dotted-quad addresses
+	 */
+	public Iterator<String> hosts(final Collection<Cidr> excluded) {
+		final long first = Integer.toUnsignedLong(network) + 1;
+		final long last = first + getHostCount() - 1;
+		final List<Cidr> skipped = excluded.stream()
+			.filter(this::overlaps)
+			.sorted(Comparator.comparingLong(Cidr::start))
+			.collect(Collectors.toList());
+
+		return new Iterator<String>() {
+			private long next = first;
+			private int skip = 0;
+
+			@Override
+			public boolean hasNext() {
+				while (skip < skipped.size()
+					&& next >= skipped.get(skip).start()) {
+					next = Math.max(next, skipped.get(skip++).end() + 1);
+				}
+
+				return next <= last;
+			}
+
+			@Override
+			public String next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				return format((int) next++);
+			}
+		};
+	}
+
+	/**
+	 * @param other another block
+	 * @return whether this block contains all addresses of the other block
+	 */
+	public boolean contains(final Cidr other) {
+		return prefixLength <= other.prefixLength
+			&& (other.network & mask(prefixLength)) == network;
+	}
+
+	/**
+	 * @param other another block
+	 * @return whether this block and the other block have addresses in common
+	 */
+	public boolean overlaps(final Cidr other) {
+		return contains(other) || other.contains(this);
+	}
+
+	/**
+	 * Subtracts the excluded blocks from this block.
+	 *
+	 * @param excluded the blocks to subtract
+	 * @return the smallest set of blocks covering the remaining addresses in ascending order
+	 */
+	public List<Cidr> subtract(final Collection<Cidr> excluded) {
+		List<Cidr> remaining = Collections.singletonList(this);
+		for (final Cidr cidr : excluded) {
+			final List<Cidr> next = new ArrayList<>();
+			for (final Cidr block : remaining) {
+				block.subtract(cidr, next);
+			}
+			remaining = next;
+		}
+
+		return remaining;
+	}
+
+	/**
+	 * Halves this block until the excluded block has been carved out.
+	 */
+	private void subtract(final Cidr excluded, final List<Cidr> remaining) {
+		if (!overlaps(excluded)) {
+			remaining.add(this);
+			return;
+		}
+		if (excluded.contains(this)) {
+			return;
+		}
+
+		final int halfPrefixLength = prefixLength + 1;
+		final Cidr lower = new Cidr(network, halfPrefixLength);
+		final Cidr upper =
+			new Cidr(network | (1 << (32 - halfPrefixLength)), halfPrefixLength);
+		lower.subtract(excluded, remaining);
+		upper.subtract(excluded, remaining);
+	}
+
+	private long start() {
+		return Integer.toUnsignedLong(network);
+	}
+
+	private long end() {
+		return start() + getAddressCount() - 1;
+	}
+
+	/**
+	 * Lazily splits this block into blocks of the supplied prefix length. A
+	 * block that is already at least as long is returned as-is.
+	 *
+	 * @param subnetPrefixLength the prefix length of the subnets
+	 * @return an {@link Iterator} of the subnets in ascending order
+	 */
+	public Iterator<Cidr> subnets(final int subnetPrefixLength) {
+		if (subnetPrefixLength <= prefixLength) {
+			return Collections.singletonList(this).iterator();
+		}
+
+		final long step = 1L << (32 - subnetPrefixLength);
+		final long end = Integer.toUnsignedLong(network) + getAddressCount();
+
+		return new Iterator<Cidr>() {
+			private long next = Integer.toUnsignedLong(network);
+
+			@Override
+			public boolean hasNext() {
+				return next < end;
+			}
+
+			@Override
+			public Cidr next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				final Cidr subnet = new Cidr((int) next, subnetPrefixLength);
+				next += step;
+				return subnet;
+			}
+		};
+	}
+
+	/**
+	 * Re-aggregates blocks into the smallest set of blocks covering exactly
+	 * the same addresses, e.g. "10.0.0.0/24" and "10.0.1.0/24" become
+	 * "10.0.0.0/23". Overlapping and duplicate blocks are merged.
+	 *
+	 * @param blocks the blocks to aggregate
+	 * @return the aggregated blocks in ascending order
+	 */
+	public static List<Cidr> aggregate(final Collection<Cidr> blocks) {
+		final List<Cidr> sorted = new ArrayList<>(blocks);
+		sorted.sort(Comparator.comparingLong(
+			(Cidr cidr) -> Integer.toUnsignedLong(cidr.network))
+			.thenComparingInt(cidr -> cidr.prefixLength));
+
+		final List<Cidr> aggregated = new ArrayList<>();
+		long first = -1, last = -1;
+		for (final Cidr cidr : sorted) {
+			final long start = Integer.toUnsignedLong(cidr.network);
+			final long end = start + cidr.getAddressCount() - 1;
+			if (first >= 0 && start <= last + 1) {
+				last = Math.max(last, end);
+				continue;
+			}
+			if (first >= 0) {
+				addRange(first, last, aggregated);
+			}
+			first = start;
+			last = end;
+		}
+		if (first >= 0) {
+			addRange(first, last, aggregated);
+		}
+
+		return aggregated;
+	}
+
+	/**
+	 * Adds the largest aligned blocks that exactly cover the range.
+	 */
+	private static void addRange(long first, final long last,
+		final List<Cidr> blocks) {
+		while (first <= last) {
+			// the largest block aligned at first ...
+			int size = first == 0 ? 32 : Long.numberOfTrailingZeros(first);
+			// ... that does not extend beyond last
+			while (size > 0 && first + (1L << size) - 1 > last) {
+				size--;
+			}
+			blocks.add(new Cidr((int) first, 32 - size));
+			first += 1L << size;
+		}
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof Cidr)) {
+			return false;
+		}
+		final Cidr cidr = (Cidr) o;
+		return network == cidr.network && prefixLength == cidr.prefixLength;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * network + prefixLength;
+	}
+
+	@Override
+	public String toString() {
+		return format(network) + "/" + prefixLength;
+	}
+
+	private static int parseAddress(final String value, final int start,
+		final int end) {
+		int address = 0, octets = 0, from = start;
+		for (int i = start; i <= end; i++) {
+			if (i == end || value.charAt(i) == '.') {
+				final int octet = parseInt(value, from, i);
+				if (octet > 255 || ++octets > 4) {
+					throw new IllegalArgumentException(
+						"Could not parse [" + value + "]");
+				}
+				address = (address << 8) | octet;
+				from = i + 1;
+			}
+		}
+		if (octets != 4) {
+			throw new IllegalArgumentException(
+				"Could not parse [" + value + "]");
+		}
+
+		return address;
+	}
+
+	private static int parseInt(final String value, final int start,
+		final int end) {
+		if (start >= end || end - start > 3) {
+			throw new IllegalArgumentException(
+				"Could not parse [" + value + "]");
+		}
+
+		int result = 0;
+		for (int i = start; i < end; i++) {
+			final char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				throw new IllegalArgumentException(
+					"Could not parse [" + value + "]");
+			}
+			result = result * 10 + (c - '0');
+		}
+
+		return result;
+	}
+
+}
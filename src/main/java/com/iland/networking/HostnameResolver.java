@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.networking;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link HostnameResolver} resolves hostnames asynchronously on an
+ * {@link Executor executor} and caches the results, including failed lookups,
+ * for a fixed time. Concurrent lookups of the same hostname share a single
+ * resolution.
+ */
+public final class HostnameResolver {
+
+	private static final Logger logger =
+		LoggerFactory.getLogger(HostnameResolver.class);
+
+	private final Executor executor;
+	private final Cache<String, CompletableFuture<List<InetAddress>>> cache;
+
+	/**
+	 * @param executor the {@link Executor executor} on which the blocking lookups run
+	 * @param ttl      how long resolved addresses are cached
+	 */
+	public HostnameResolver(final Executor executor, final Duration ttl) {
+		this.executor = executor;
+		this.cache = CacheBuilder.newBuilder()
+			.expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+			.build();
+	}
+
+	/**
+	 * Resolves the hostname.
+	 *
+	 * @param hostname the hostname
+	 * @return a {@link CompletableFuture future} of the addresses, which are empty if the hostname is unknown
+	 */
+	public CompletableFuture<List<InetAddress>> resolve(final String hostname) {
+		try {
+			return cache.get(hostname,
+				() -> CompletableFuture.supplyAsync(() -> lookup(hostname),
+					executor));
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Returns whether all addresses of the hostname are private IP addresses.
+	 *
+	 * @param hostname the hostname
+	 * @return a {@link CompletableFuture future} of whether the hostname is private; {@code false} if it is unknown
+	 * @see NetworkUtils#isPrivateIpAddress(String)
+	 */
+	public CompletableFuture<Boolean> isPrivate(final String hostname) {
+		return resolve(hostname).thenApply(
+			addresses -> !addresses.isEmpty() && addresses.stream()
+				.map(InetAddress::getHostAddress)
+				.allMatch(NetworkUtils::isPrivateIpAddress));
+	}
+
+	private static List<InetAddress> lookup(final String hostname) {
+		try {
+			return Collections.unmodifiableList(
+				Arrays.asList(InetAddress.getAllByName(hostname)));
+		} catch (final UnknownHostException e) {
+			logger.warn("Could not resolve \"{}\"", hostname);
+			return Collections.emptyList();
+		}
+	}
+
+}
@@ -15,18 +15,19 @@
 
 package com.iland.networking;
 
-import java.net.Inet4Address;
-import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.common.base.Predicates;
-import org.apache.commons.net.util.SubnetUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.google.common.collect.Iterators;
 
 /**
  * {@link NetworkUtils}.
@@ -37,9 +38,21 @@ public final class NetworkUtils {
 
 	private static final String CIDR_REGEX =
 		"\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}/\\d{1,2}";
+	private static final String IPV4_MAPPED_PREFIX = "::ffff:";
+	/**
+	 * hextets and colons, optionally followed by an embedded IPv4 address and a zone
+	 */
+	private static final Pattern IPV6_PATTERN = Pattern.compile(
+		"(?=.*:.*:)[0-9a-fA-F:]{2,39}(\\d{1,3}(\\.\\d{1,3}){3})?(%[\\w.]+)?");
 
-	private static final Logger logger =
-		LoggerFactory.getLogger(NetworkUtils.class);
+	/**
+	 * 10.0.0.0/8, 172.16.0.0/12, and 192.168.0.0/16
+	 *
+	 * @see <a href="https://datatracker.ietf.org/doc/html/rfc1918">RFC1918: Address Allocation for Private Internets</a>
+	 */
+	public static final List<Cidr> RFC1918_BLOCKS = Collections.unmodifiableList(
+		Arrays.asList(Cidr.parse("10.0.0.0/8"), Cidr.parse("172.16.0.0/12"),
+			Cidr.parse("192.168.0.0/16")));
 
 	private NetworkUtils() {
 	}
@@ -51,17 +64,46 @@ public final class NetworkUtils {
 	 * @return a {@link Stream stream} of individual hostnames and IP addresses
 	 */
 	public static Stream<String> toStream(final Collection<String> targets) {
-		final List<String> addresses = targets.stream().map(String::trim)
-			.filter(Predicates.not(NetworkUtils::isCidr))
-			.collect(Collectors.toList());
+		return StreamSupport.stream(
+			Spliterators.spliteratorUnknownSize(iterator(targets),
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Lazily breaks up targets into individual hostnames and IP addresses.
+	 * Hostnames and IP addresses come first, followed by the hosts of each
+	 * {@link Cidr CIDR block}, which are only enumerated as they are consumed.
+	 *
+	 * @param targets a {@link Collection collection} of targets, e.g. hostname, IP address, or CIDR notation
+	 * @return an {@link Iterator iterator} of individual hostnames and IP addresses
+	 */
+	public static Iterator<String> iterator(final Collection<String> targets) {
+		return iterator(targets, Collections.emptyList());
+	}
 
-		final List<String> cidrAddresses =
-			targets.stream().map(String::trim).filter(NetworkUtils::isCidr)
-				.map(SubnetUtils::new).map(SubnetUtils::getInfo)
-				.map(SubnetUtils.SubnetInfo::getAllAddresses)
-				.flatMap(Stream::of).collect(Collectors.toList());
+	/**
+	 * Lazily breaks up targets into individual hostnames and IP addresses,
+	 * skipping the hosts of the excluded blocks when expanding
+	 * {@link Cidr CIDR blocks}. Hostnames and IP addresses are not filtered.
+	 *
+	 * @param targets  a {@link Collection collection} of targets, e.g. hostname, IP address, or CIDR notation
+	 * @param excluded the blocks whose hosts are skipped, e.g. {@link #RFC1918_BLOCKS}
+	 * @return an {@link Iterator iterator} of individual hostnames and IP addresses
+	 */
+	public static Iterator<String> iterator(final Collection<String> targets,
+		final Collection<Cidr> excluded) {
+		final Iterator<String> addresses = targets.stream()
+			.map(String::trim)
+			.filter(Predicates.not(NetworkUtils::isCidr))
+			.iterator();
+		final Iterator<Iterator<String>> cidrHosts = targets.stream()
+			.map(String::trim)
+			.filter(NetworkUtils::isCidr)
+			.map(Cidr::parse)
+			.map(cidr -> cidr.hosts(excluded))
+			.iterator();
 
-		return Stream.of(addresses, cidrAddresses).flatMap(List::stream);
+		return Iterators.concat(addresses, Iterators.concat(cidrHosts));
 	}
 
 	/**
@@ -75,22 +117,95 @@ public final class NetworkUtils {
 	}
 
 	/**
-	 * Returned whether the supplied ip is an RFC1918 IP address.
+	 * Returns whether the target is a dotted-quad IPv4 address whose octets
+	 * are at most 255.
+	 *
+	 * @param target a hostname, IP address, or CIDR notation
+	 * @return whether the target is a dotted-quad IPv4 address
+	 */
+	public static boolean isIpv4Address(final String target) {
+		return Cidr.tryParseAddress(target) >= 0;
+	}
+
+	/**
+	 * Returned whether the supplied ip is an RFC1918 IP address. The address is
+	 * classified arithmetically and must be an IPv4 address, optionally
+	 * IPv4-mapped (::ffff:a.b.c.d). Hostnames are never resolved and are not
+	 * considered private; see {@link HostnameResolver}.
 	 *
 	 * @param ip an IP address
 	 * @return whether the supplied ip is an RFC1918 IP address
 	 * @see <a href="https://datatracker.ietf.org/doc/html/rfc1918">RFC1918: Address Allocation for Private Internets</a>
+	 * @see #isPrivateIpAddress(String)
 	 */
 	public static boolean isRFC1918IpAddress(final String ip) {
-		try {
-			return Inet4Address.getByName(ip).isSiteLocalAddress();
-		} catch (final UnknownHostException e) {
-			final String errorMessage = String.format(
-				"Error determining if \"%s\" is an RFC1918 local address", ip);
-			logger.error(errorMessage, e);
+		final long ipv4 = Cidr.tryParseAddress(ip);
+		if (ipv4 >= 0) {
+			return isRFC1918IpAddress((int) ipv4);
+		}
+
+		if (ip.regionMatches(true, 0, IPV4_MAPPED_PREFIX, 0,
+			IPV4_MAPPED_PREFIX.length())) {
+			final long mapped =
+				Cidr.tryParseAddress(ip.substring(IPV4_MAPPED_PREFIX.length()));
+			return mapped >= 0 && isRFC1918IpAddress((int) mapped);
 		}
 
 		return false;
 	}
 
+	/**
+	 * Returned whether the supplied ip is a private IP address: either an
+	 * {@link #isRFC1918IpAddress(String) RFC1918 IP address} or an IPv6 unique
+	 * local (fc00::/7) or site local (fec0::/10) address. Hostnames are never
+	 * resolved and are not considered private; see {@link HostnameResolver}.
+	 *
+	 * @param ip an IP address
+	 * @return whether the supplied ip is a private IP address
+	 * @see <a href="https://datatracker.ietf.org/doc/html/rfc4193">RFC4193: Unique Local IPv6 Unicast Addresses</a>
+	 */
+	public static boolean isPrivateIpAddress(final String ip) {
+		if (isRFC1918IpAddress(ip)) {
+			return true;
+		}
+
+		final int firstHextet = ip.indexOf(':') < 0 ? -1 : firstHextet(ip);
+		return firstHextet >= 0 && ((firstHextet & 0xfe00) == 0xfc00
+			|| (firstHextet & 0xffc0) == 0xfec0);
+	}
+
+	/**
+	 * Returned whether the supplied packed IPv4 address is an RFC1918 IP address.
+	 *
+	 * @param ip a packed IPv4 address
+	 * @return whether the supplied ip is an RFC1918 IP address
+	 */
+	public static boolean isRFC1918IpAddress(final int ip) {
+		return (ip & 0xff000000) == 0x0a000000
+			|| (ip & 0xfff00000) == 0xac100000
+			|| (ip & 0xffff0000) == 0xc0a80000;
+	}
+
+	/**
+	 * Returns the first 16 bits of an IPv6 literal, optionally in brackets, or
+	 * {@literal -1} if it is not an IPv6 literal.
+	 */
+	private static int firstHextet(final String ip) {
+		final String literal = ip.startsWith("[") && ip.endsWith("]")
+			? ip.substring(1, ip.length() - 1)
+			: ip;
+		if (!IPV6_PATTERN.matcher(literal).matches()) {
+			return -1;
+		}
+		if (literal.startsWith("::")) {
+			return 0;
+		}
+
+		// e.g. ":1:2" matches the pattern but has no first hextet
+		final int end = literal.indexOf(':');
+		return end <= 0 || end > 4
+			? -1
+			: Integer.parseInt(literal.substring(0, end), 16);
+	}
+
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Provides the default {@link ExecutorService executor} for blocking HTTP
+ * calls. This is the Java 21 variant of the multi-release JAR: each call runs
+ * on its own virtual thread, so raising the in-flight limits of the callers
+ * costs no platform threads. Setting the system property
+ * "com.iland.coda.virtualThreads" to {@code false} restores the cached
+ * thread pool used on older runtimes.
+ */
+public final class IoExecutors {
+
+	private static final String VIRTUAL_THREADS_PROPERTY =
+		"com.iland.coda.virtualThreads";
+
+	private IoExecutors() {
+	}
+
+	/**
+	 * Returns the shared {@link ExecutorService executor} for blocking HTTP calls.
+	 * It cannot be shut down: {@link ExecutorService#shutdown()} and
+	 * {@link ExecutorService#shutdownNow()} throw an
+	 * {@link UnsupportedOperationException}.
+	 *
+	 * @return the shared {@link ExecutorService executor}
+	 */
+	public static ExecutorService shared() {
+		return Holder.EXECUTOR;
+	}
+
+	/**
+	 * Returns the shared {@link ScheduledExecutorService scheduler} for delayed
+	 * work such as non-blocking retries. Scheduled tasks must not block.
+	 *
+	 * @return the shared {@link ScheduledExecutorService scheduler}
+	 */
+	public static ScheduledExecutorService scheduler() {
+		return SchedulerHolder.SCHEDULER;
+	}
+
+	private static final class Holder {
+
+		private static final ExecutorService EXECUTOR =
+			new SharedExecutorService(Boolean.parseBoolean(
+				System.getProperty(VIRTUAL_THREADS_PROPERTY, "true"))
+				? Executors.newThreadPerTaskExecutor(
+					Thread.ofVirtual().name("coda-io-", 0).factory())
+				: Executors.newCachedThreadPool(
+					new ThreadFactoryBuilder().setDaemon(true)
+						.setNameFormat("coda-io-%d")
+						.build()));
+
+	}
+
+	private static final class SchedulerHolder {
+
+		private static final ScheduledExecutorService SCHEDULER =
+			Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setDaemon(true)
+					.setNameFormat("coda-scheduler-%d")
+					.build());
+
+	}
+
+}
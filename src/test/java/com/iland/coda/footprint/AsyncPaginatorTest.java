@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import net.codacloud.ApiException;
+import org.junit.jupiter.api.Test;
+
+import com.iland.coda.footprint.pagination.AsyncPaginator;
+
+class AsyncPaginatorTest {
+
+	private static final int TOTAL_PAGES = 5;
+
+	@Test
+	void testThatPagesAreCombinedInPageOrder() throws Exception {
+		final List<CompletableFuture<Integer>> pages =
+			IntStream.rangeClosed(1, TOTAL_PAGES)
+				.mapToObj(pageNo -> new CompletableFuture<Integer>())
+				.collect(Collectors.toList());
+		final CompletableFuture<List<Integer>> items =
+			new AsyncPaginator<>(pageNo -> pages.get(pageNo - 1),
+				pageNo -> pageNo, pageNo -> TOTAL_PAGES,
+				pageNo -> TOTAL_PAGES, pageNo -> Arrays.asList(pageNo,
+				pageNo * 10)).fetchAll();
+
+		// complete the remaining pages in reverse order
+		pages.get(0).complete(1);
+		for (int pageNo = TOTAL_PAGES; pageNo > 1; pageNo--) {
+			pages.get(pageNo - 1).complete(pageNo);
+		}
+
+		assertEquals(Arrays.asList(1, 10, 2, 20, 3, 30, 4, 40, 5, 50),
+			items.get());
+	}
+
+	@Test
+	void testThatFailuresArePropagated() {
+		final ApiException failure = new ApiException(500, "page 3");
+		final CompletableFuture<List<Integer>> items =
+			new AsyncPaginator<>(pageNo -> {
+				final CompletableFuture<Integer> page = new CompletableFuture<>();
+				if (pageNo == 3) {
+					page.completeExceptionally(failure);
+				} else {
+					page.complete(pageNo);
+				}
+				return page;
+			}, pageNo -> pageNo, pageNo -> TOTAL_PAGES, pageNo -> TOTAL_PAGES,
+				pageNo -> Arrays.asList(pageNo)).fetchAll();
+
+		final ExecutionException e =
+			assertThrows(ExecutionException.class, items::get);
+		assertSame(failure, e.getCause());
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.google.common.cache.CacheStats;
+import net.codacloud.ApiException;
+import net.codacloud.model.Account;
+import org.junit.jupiter.api.Test;
+
+class CacheMetricsTest {
+
+	private final Map<String, Supplier<CacheStats>> stats =
+		new LinkedHashMap<>();
+	private final Map<String, LongSupplier> sizes = new LinkedHashMap<>();
+
+	@Test
+	void testThatEveryCacheIsRegistered() {
+		client("tenant");
+
+		assertEquals(Arrays.asList("tenant.reports", "tenant.registrations",
+			"tenant.accounts", "tenant.scanners", "tenant.scanSurface",
+			"tenant.users"), new ArrayList<>(stats.keySet()));
+	}
+
+	@Test
+	void testThatTheCachesOfEachClientAreRegisteredSeparately() {
+		client("a");
+		client("b");
+		new CachingCodaClient(delegatee(), null,
+			new CacheSettings().metrics(this::register));
+		new CachingCodaClient(delegatee(), null,
+			new CacheSettings().metrics(this::register));
+
+		assertEquals(4 * 6, stats.size());
+		assertTrue(stats.containsKey("a.accounts"));
+		assertTrue(stats.containsKey("b.accounts"));
+	}
+
+	@Test
+	void testThatClosingTheClientUnregistersItsCaches() {
+		final CachingCodaClient a = client("a");
+		client("b");
+
+		a.close();
+		a.close();
+
+		assertEquals(6, stats.size());
+		assertFalse(stats.containsKey("a.accounts"));
+		assertTrue(stats.containsKey("b.accounts"));
+	}
+
+	@Test
+	void testThatHitsAndMissesAreRecorded() throws ApiException {
+		final CachingCodaClient client = client("tenant");
+
+		client.listAccounts(null);
+		client.listAccounts(null);
+		client.listAccounts(1);
+
+		final CacheStats accounts = stats.get("tenant.accounts").get();
+		assertEquals(1, accounts.hitCount());
+		assertEquals(2, accounts.missCount());
+		assertEquals(2, accounts.loadSuccessCount());
+		assertEquals(2, sizes.get("tenant.accounts").getAsLong());
+		assertEquals(accounts, client.getCacheStats().get("accounts"));
+	}
+
+	@Test
+	void testThatTheCachesOfAsyncClientsAreRegistered() throws Exception {
+		final AsyncCodaClient delegatee = new FakeCodaClient()
+			.on("listAccounts", (client, args) -> CompletableFuture.completedFuture(
+				Collections.singleton(new Account().id(1))))
+			.createAsync();
+		final CachingAsyncCodaClient client =
+			new CachingAsyncCodaClient(delegatee,
+				new CacheSettings().clientName("async").metrics(this::register));
+
+		client.listAccounts(null).get();
+		client.listAccounts(null).get();
+
+		assertEquals(Arrays.asList("async.registrations", "async.accounts",
+			"async.scanners", "async.users"), new ArrayList<>(stats.keySet()));
+		assertEquals(1, stats.get("async.accounts").get().hitCount());
+
+		client.close();
+		assertTrue(stats.isEmpty());
+	}
+
+	private CachingCodaClient client(final String clientName) {
+		return new CachingCodaClient(delegatee(), null,
+			new CacheSettings().clientName(clientName).metrics(this::register));
+	}
+
+	private CacheMetrics.Registration register(final String client,
+		final String cache, final Supplier<CacheStats> stats,
+		final LongSupplier size) {
+		final String name = client + "." + cache;
+		assertNull(this.stats.put(name, stats), name);
+		this.sizes.put(name, size);
+		return () -> {
+			this.stats.remove(name);
+			this.sizes.remove(name);
+		};
+	}
+
+	private static CodaClient delegatee() {
+		return new FakeCodaClient()
+			.on("listAccounts",
+				(client, args) -> Collections.singleton(new Account().id(1)))
+			.create();
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.codacloud.model.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CacheSettingsTest {
+
+	private final ExecutorService refreshExecutor =
+		Executors.newSingleThreadExecutor();
+
+	@AfterEach
+	void tearDown() {
+		refreshExecutor.shutdownNow();
+	}
+
+	@Test
+	void testThatStaleValuesAreServedWhileRefreshing() throws Exception {
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch refreshStarted = new CountDownLatch(1);
+		final CountDownLatch releaseRefresh = new CountDownLatch(1);
+		final CodaClient delegatee =
+			new FakeCodaClient().on("listAccounts", (client, args) -> {
+				final int load = loads.incrementAndGet();
+				if (load > 1) {
+					refreshStarted.countDown();
+					releaseRefresh.await();
+				}
+				return Collections.singleton(new Account().id(load));
+			}).create();
+
+		final CodaClient client = new CachingCodaClient(delegatee, null,
+			new CacheSettings().accounts(Duration.ofHours(1),
+					Duration.ofMillis(50))
+				.refreshExecutor(refreshExecutor));
+
+		assertEquals(1, id(client.listAccounts(null)));
+		Thread.sleep(100);
+
+		// the refresh blocks, the caller does not
+		assertEquals(1, id(client.listAccounts(null)));
+		assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+
+		releaseRefresh.countDown();
+		refreshExecutor.shutdown();
+		refreshExecutor.awaitTermination(5, TimeUnit.SECONDS);
+		assertEquals(2, id(client.listAccounts(null)));
+	}
+
+	@Test
+	void testThatAsyncClientsServeStaleValuesUntilTheRefreshSucceeds()
+		throws Exception {
+		final AtomicInteger loads = new AtomicInteger();
+		final CompletableFuture<Set<Account>> refresh =
+			new CompletableFuture<>();
+		final AsyncCodaClient delegatee = new FakeCodaClient()
+			.on("listAccounts", (client, args) -> loads.incrementAndGet() == 1 ?
+				CompletableFuture.completedFuture(
+					Collections.singleton(new Account().id(1))) :
+				refresh)
+			.createAsync();
+
+		final AsyncCodaClient client = new CachingAsyncCodaClient(delegatee,
+			new CacheSettings().accounts(Duration.ofHours(1),
+				Duration.ofMillis(50)));
+
+		assertEquals(1, id(client.listAccounts(null).get()));
+		Thread.sleep(100);
+
+		// the refresh is pending, the caller is served the previous value
+		assertEquals(1, id(client.listAccounts(null).get()));
+		assertEquals(2, loads.get());
+
+		refresh.complete(Collections.singleton(new Account().id(2)));
+		assertEquals(2, id(client.listAccounts(null).get()));
+	}
+
+	@Test
+	void testThatRefreshMustPrecedeExpiry() {
+		assertThrows(IllegalArgumentException.class,
+			() -> new CacheSettings().scanners(Duration.ofMinutes(1),
+				Duration.ofMinutes(1)));
+	}
+
+	private static int id(final Set<Account> accounts) {
+		return accounts.iterator().next().getId();
+	}
+
+}
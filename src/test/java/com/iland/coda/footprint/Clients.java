@@ -62,7 +62,8 @@ final class Clients {
 		new SimpleCodaClient(apiBasePath, new KeyAuthentication(apiKey));
 
 	static final RetryCodaClient retryCodaClient =
-		new RetryCodaClient(simpleCodaClient);
+		new RetryCodaClient(simpleCodaClient,
+			simpleCodaClient.scanSurfaceDispatcher);
 	static final CachingCodaClient cachingCodaClient =
 		new CachingCodaClient(retryCodaClient);
 
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.codacloud.ApiClient;
+import net.codacloud.ApiException;
+import net.codacloud.api.ConsoleApi;
+import net.codacloud.model.ExtendMessageRequest;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import com.iland.coda.footprint.CodaTransport.CallType;
+
+class CodaTransportTest {
+
+	private static final String BASE_PATH = "https://foo.codacloud.net/api";
+
+	@Test
+	void testThatClientsShareConnectionsAndDispatcher() {
+		final CodaTransport transport = CodaTransport.builder().build();
+
+		final OkHttpClient a = transport.newClient();
+		final OkHttpClient b = transport.newClient();
+
+		assertSame(a.connectionPool(), b.connectionPool());
+		assertSame(a.dispatcher(), b.dispatcher());
+	}
+
+	@Test
+	void testThatTheDefaultTransportDoesNotLimitCallsToFivePerHost()
+		throws ApiException, InterruptedException {
+		final int calls = 10;
+		final CountDownLatch arrived = new CountDownLatch(calls);
+		final CountDownLatch completed = new CountDownLatch(calls);
+		final AtomicBoolean queued = new AtomicBoolean();
+		final OkHttpClient client =
+			CodaTransport.defaultTransport().newClient(chain -> {
+				arrived.countDown();
+				try {
+					if (!arrived.await(2, TimeUnit.SECONDS)) {
+						queued.set(true);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return respondingWith(new AtomicInteger()).intercept(chain);
+			});
+
+		final ConsoleApi consoleApi = consoleApi(client);
+		for (int i = 0; i < calls; i++) {
+			scanSurfaceRetrieveCall(consoleApi).enqueue(new Callback() {
+				@Override
+				public void onFailure(final Call call, final IOException e) {
+				}
+
+				@Override
+				public void onResponse(final Call call, final Response response) {
+					response.close();
+					completed.countDown();
+				}
+			});
+		}
+
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		assertFalse(queued.get(), "calls must run concurrently");
+	}
+
+	@Test
+	void testThatCallTypesAreClassified() throws ApiException {
+		final ConsoleApi consoleApi =
+			consoleApi(CodaTransport.defaultTransport().newClient());
+
+		assertEquals(CallType.REPORT,
+			CallType.of(cvrRetrieveCall(consoleApi).request()));
+		assertEquals(CallType.SCAN_SURFACE_UPDATE, CallType.of(
+			consoleApi.consoleScanSurfaceCreateCall(new ExtendMessageRequest(),
+				false, null, null).request()));
+		assertEquals(CallType.DEFAULT,
+			CallType.of(scanSurfaceRetrieveCall(consoleApi).request()));
+	}
+
+	@Test
+	void testThatTimeoutsAreAppliedPerCallType()
+		throws ApiException, IOException {
+		final CodaTransport transport = CodaTransport.builder()
+			.readTimeout(Duration.ofSeconds(5))
+			.readTimeout(CallType.REPORT, Duration.ofMinutes(10))
+			.build();
+		final AtomicInteger readTimeoutMillis = new AtomicInteger();
+		final OkHttpClient client = transport.newClient(
+			respondingWith(readTimeoutMillis));
+
+		final ConsoleApi consoleApi = consoleApi(client);
+
+		cvrRetrieveCall(consoleApi).execute().close();
+		assertEquals(Duration.ofMinutes(10).toMillis(), readTimeoutMillis.get());
+
+		scanSurfaceRetrieveCall(consoleApi).execute().close();
+		assertEquals(Duration.ofSeconds(5).toMillis(), readTimeoutMillis.get());
+	}
+
+	/**
+	 * Records the read timeout of the chain and answers without touching the network.
+	 */
+	private static Interceptor respondingWith(
+		final AtomicInteger readTimeoutMillis) {
+		return chain -> {
+			readTimeoutMillis.set(chain.readTimeoutMillis());
+			return new Response.Builder().request(chain.request())
+				.protocol(Protocol.HTTP_1_1)
+				.code(200)
+				.message("OK")
+				.body(ResponseBody.create("{}",
+					MediaType.get("application/json")))
+				.build();
+		};
+	}
+
+	private static ConsoleApi consoleApi(final OkHttpClient client) {
+		final ApiClient apiClient = new ApiClient(client);
+		apiClient.setBasePath(BASE_PATH);
+
+		return new ConsoleApi(apiClient);
+	}
+
+	private static Call cvrRetrieveCall(final ConsoleApi consoleApi)
+		throws ApiException {
+		return consoleApi.cvrRetrieveCall("2022-01-01 00:00:00",
+			CodaClient.ReportType.SNAPSHOT.value(), null, null, null);
+	}
+
+	private static Call scanSurfaceRetrieveCall(final ConsoleApi consoleApi)
+		throws ApiException {
+		return consoleApi.consoleScanSurfaceRetrieveCall(null, null, null, null,
+			null);
+	}
+
+}
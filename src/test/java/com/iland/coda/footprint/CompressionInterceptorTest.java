@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+import com.sun.net.httpserver.HttpServer;
+import net.codacloud.ApiClient;
+import net.codacloud.ApiException;
+import net.codacloud.api.ConsoleApi;
+import okhttp3.Call;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.iland.coda.footprint.CodaTransport.CallType;
+
+class CompressionInterceptorTest {
+
+	private static final String JSON = "{\"items\":["
+		+ String.join(",", Collections.nCopies(500, "{\"name\":\"foo\"}"))
+		+ "]}";
+
+	private final AtomicReference<String> acceptEncoding =
+		new AtomicReference<>();
+	private HttpServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			final String encoding =
+				exchange.getRequestHeaders().getFirst("Accept-Encoding");
+			acceptEncoding.set(encoding);
+
+			byte[] bytes = JSON.getBytes(UTF_8);
+			if (encoding != null && encoding.contains("gzip")) {
+				bytes = gzip(bytes);
+				exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+			}
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, bytes.length);
+			try (final OutputStream out = exchange.getResponseBody()) {
+				out.write(bytes);
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	void testThatCompressedResponsesAreDecompressedAndCounted()
+		throws ApiException, IOException {
+		final CodaTransport transport = CodaTransport.builder().build();
+
+		final String body = get(transport,
+			consoleApi -> consoleApi.cvrRetrieveCall("2022-01-01 00:00:00",
+				CodaClient.ReportType.SNAPSHOT.value(), null, null, null));
+
+		assertEquals(JSON, body);
+		assertEquals("gzip, deflate", acceptEncoding.get());
+		final TransferMetrics metrics = transport.transferMetrics();
+		assertEquals(1, metrics.getCompressedResponses(CallType.REPORT));
+		assertEquals(gzip(JSON.getBytes(UTF_8)).length,
+			metrics.getTransferredBytes(CallType.REPORT));
+		assertEquals(JSON.length(),
+			metrics.getDecompressedBytes(CallType.REPORT));
+		assertEquals(0, metrics.getResponses(CallType.DEFAULT));
+	}
+
+	@Test
+	void testThatCompressionCanBeDisabled() throws ApiException, IOException {
+		final CodaTransport transport =
+			CodaTransport.builder().compression(false).build();
+
+		final String body = get(transport,
+			consoleApi -> consoleApi.consoleScanSurfaceRetrieveCall(null, null,
+				null, null, null));
+
+		assertEquals(JSON, body);
+		assertEquals("identity", acceptEncoding.get());
+		final TransferMetrics metrics = transport.transferMetrics();
+		assertEquals(0, metrics.getCompressedResponses(CallType.DEFAULT));
+		assertEquals(JSON.length(),
+			metrics.getTransferredBytes(CallType.DEFAULT));
+		assertEquals(JSON.length(),
+			metrics.getDecompressedBytes(CallType.DEFAULT));
+	}
+
+	@Test
+	void testThatClosingADeflateSourceEndsItsInflater() throws IOException {
+		final ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+		try (final DeflaterOutputStream out =
+			new DeflaterOutputStream(deflated)) {
+			out.write(JSON.getBytes(UTF_8));
+		}
+		final AtomicInteger ends = new AtomicInteger();
+		final Inflater inflater = new Inflater() {
+			@Override
+			public void end() {
+				ends.incrementAndGet();
+				super.end();
+			}
+		};
+
+		try (final BufferedSource source = Okio.buffer(
+			CompressionInterceptor.inflate(
+				new Buffer().write(deflated.toByteArray()), inflater))) {
+			assertEquals(JSON, source.readUtf8());
+			assertEquals(0, ends.get());
+		}
+
+		assertTrue(ends.get() > 0, "the inflater was not ended");
+	}
+
+	private String get(final CodaTransport transport, final CallFactory call)
+		throws ApiException, IOException {
+		final ApiClient apiClient =
+			new ApiClient(transport.newClient(new ResponseNormalizer()));
+		apiClient.setBasePath(
+			"http://localhost:" + server.getAddress().getPort() + "/api");
+		try (final Response response =
+			call.create(new ConsoleApi(apiClient)).execute()) {
+			assertNull(response.header("Content-Encoding"));
+			return response.body().string();
+		}
+	}
+
+	/**
+	 * Builds a call with one of the generated {@code *Call} builders.
+	 */
+	@FunctionalInterface
+	private interface CallFactory {
+
+		Call create(ConsoleApi consoleApi) throws ApiException;
+
+	}
+
+	private static byte[] gzip(final byte[] bytes) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (final GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+
+		return out.toByteArray();
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+package com.iland.coda.footprint;
+
+import static com.iland.coda.footprint.CriticalLevelTypeAdapterFactory.UNKNOWN_CRITICAL_LEVEL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.gson.Gson;
+import net.codacloud.JSON;
+import net.codacloud.model.CVR;
+import org.junit.jupiter.api.Test;
+
+class CriticalLevelTypeAdapterFactoryTest {
+
+	private final Gson gson = new JSON().getGson()
+		.newBuilder()
+		.registerTypeAdapterFactory(new CriticalLevelTypeAdapterFactory())
+		.create();
+
+	@Test
+	void testThatWordsAreReplaced() {
+		final CVR cvr = gson.fromJson(
+			"{\"meta\":{\"criticalLevel\":\"high\",\"tenant\":\"foo\"}}",
+			CVR.class);
+
+		assertEquals(UNKNOWN_CRITICAL_LEVEL, cvr.getMeta().getCriticalLevel());
+		assertEquals("foo", cvr.getMeta().getTenant());
+	}
+
+	@Test
+	void testThatNumbersArePreserved() {
+		final CVR cvr =
+			gson.fromJson("{\"meta\":{\"criticalLevel\":2.5}}", CVR.class);
+
+		assertEquals(2.5, cvr.getMeta().getCriticalLevel());
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A fake {@link CodaClient} or {@link AsyncCodaClient} that answers the
+ * methods it was given an {@link Answer answer} for, by name, and throws an
+ * {@link UnsupportedOperationException} for any other method.
+ */
+final class FakeCodaClient {
+
+	/**
+	 * Answers a call of a fake client.
+	 */
+	@FunctionalInterface
+	interface Answer {
+
+		/**
+		 * @param client the fake client
+		 * @param args   the arguments of the call or {@literal null} if there are none
+		 * @return the result of the call
+		 * @throws Throwable the failure of the call
+		 */
+		Object answer(Object client, Object[] args) throws Throwable;
+
+	}
+
+	private final Map<String, Answer> answers = new HashMap<>();
+
+	/**
+	 * Answers all methods with the supplied name, e.g. both overloads of
+	 * {@code getScanSurface}.
+	 *
+	 * @param method the name of the method
+	 * @param answer the {@link Answer answer}
+	 * @return {@link FakeCodaClient this}
+	 */
+	FakeCodaClient on(final String method, final Answer answer) {
+		answers.put(method, answer);
+		return this;
+	}
+
+	CodaClient create() {
+		return create(CodaClient.class);
+	}
+
+	AsyncCodaClient createAsync() {
+		return create(AsyncCodaClient.class);
+	}
+
+	private <T> T create(final Class<T> type) {
+		final Map<String, Answer> answers = new HashMap<>(this.answers);
+
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+			new Class<?>[] {type}, (proxy, method, args) -> {
+				if (Object.class.equals(method.getDeclaringClass())) {
+					switch (method.getName()) {
+						case "equals":
+							return proxy == args[0];
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						default:
+							return "Fake" + type.getSimpleName();
+					}
+				}
+
+				final Answer answer = answers.get(method.getName());
+				if (answer == null) {
+					throw new UnsupportedOperationException(method.getName());
+				}
+
+				return answer.answer(proxy, args);
+			}));
+	}
+
+}
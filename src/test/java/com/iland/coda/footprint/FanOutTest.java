@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import net.codacloud.ApiException;
+import org.junit.jupiter.api.Test;
+
+import com.iland.coda.footprint.concurrent.FanOut;
+
+class FanOutTest {
+
+	@Test
+	void testThatParallelismIsBounded() throws Throwable {
+		final int maxParallelism = 3;
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxObserved = new AtomicInteger();
+		final List<Integer> keys =
+			IntStream.range(0, 20).boxed().collect(Collectors.toList());
+		final ExecutorService executor = Executors.newFixedThreadPool(10);
+		try {
+			final FanOut.Result<Integer, Integer> result =
+				FanOut.apply(keys, key -> {
+					maxObserved.accumulateAndGet(inFlight.incrementAndGet(),
+						Math::max);
+					try {
+						Thread.sleep(10);
+					} catch (InterruptedException e) {
+						throw new ApiException(e);
+					} finally {
+						inFlight.decrementAndGet();
+					}
+
+					return key * 2;
+				}, executor, maxParallelism);
+
+			assertEquals(keys, Arrays.asList(
+				result.getValues().keySet().toArray(new Integer[0])));
+			assertTrue(maxObserved.get() <= maxParallelism,
+				"more tasks were in flight than allowed: " + maxObserved);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testThatAllFailuresAreCollected() throws Throwable {
+		final FanOut.Result<Integer, Integer> result =
+			FanOut.apply(Arrays.asList(1, 2, 3, 4), key -> {
+				if (key % 2 == 0) {
+					throw new ApiException(500, "scanner " + key);
+				}
+
+				return key;
+			}, Runnable::run, 2);
+
+		assertEquals(Arrays.asList(1, 3),
+			Arrays.asList(result.getValues().values().toArray(new Integer[0])));
+		assertEquals(Arrays.asList(2, 4),
+			Arrays.asList(result.getFailures().keySet().toArray(new Integer[0])));
+	}
+
+	@Test
+	void testThatWrappedApiExceptionsAreUnwrapped() throws Throwable {
+		final ApiException cause = new ApiException(404, "not found");
+		final FanOut.Result<Integer, Integer> result =
+			FanOut.apply(Arrays.asList(1), key -> {
+				throw new RuntimeException(cause);
+			}, Runnable::run, 1);
+
+		assertEquals(cause, result.getFailures().get(1));
+	}
+
+	@Test
+	void testThatOtherRuntimeExceptionsArePropagated() {
+		final IllegalStateException bug = new IllegalStateException("bug");
+		final List<Integer> applied = new ArrayList<>();
+
+		assertSame(bug, assertThrows(IllegalStateException.class,
+			() -> FanOut.apply(Arrays.asList(1, 2, 3), key -> {
+				applied.add(key);
+				if (key == 2) {
+					throw bug;
+				}
+
+				return key;
+			}, Runnable::run, 1)));
+		assertEquals(Arrays.asList(1, 2), applied);
+	}
+
+	@Test
+	void testThatNullKeysAreRejected() {
+		final List<Integer> applied = new ArrayList<>();
+
+		final NullPointerException e =
+			assertThrows(NullPointerException.class,
+				() -> FanOut.apply(Arrays.asList(1, null, 3), key -> {
+					applied.add(key);
+					return key;
+				}, Runnable::run, 1));
+		assertEquals("keys must not contain null", e.getMessage());
+		assertEquals(Arrays.asList(1), applied);
+	}
+
+}
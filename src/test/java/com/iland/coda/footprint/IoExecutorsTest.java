@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.iland.coda.footprint.concurrent.IoExecutors;
+
+class IoExecutorsTest {
+
+	@Test
+	void testThatTheSharedExecutorCannotBeShutDown() throws Exception {
+		final ExecutorService executor = IoExecutors.shared();
+
+		assertThrows(UnsupportedOperationException.class, executor::shutdown);
+		assertThrows(UnsupportedOperationException.class,
+			executor::shutdownNow);
+
+		assertFalse(executor.isShutdown());
+		assertEquals("ok",
+			executor.submit(() -> "ok").get(5, TimeUnit.SECONDS));
+	}
+
+}
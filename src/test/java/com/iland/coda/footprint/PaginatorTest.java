@@ -16,14 +16,28 @@
 package com.iland.coda.footprint;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import net.codacloud.ApiException;
 import net.codacloud.model.PaginatedRegistrationLightList;
 import net.codacloud.model.RegistrationLight;
 import org.junit.jupiter.api.Test;
 
+import com.iland.coda.footprint.pagination.PageFetcher;
+import com.iland.coda.footprint.pagination.Paginator;
+
 class PaginatorTest {
 
 	@Test
@@ -42,4 +56,133 @@ class PaginatorTest {
 			"size of retrieved data set does not match total from first page");
 	}
 
+	@Test
+	void testThatFetchAllPreservesPageOrder() throws Throwable {
+		final List<Integer> items =
+			createPaginator(pageNo -> createPage(pageNo, 7, 3)).fetchAll();
+
+		assertEquals(IntStream.range(0, 21).boxed().collect(Collectors.toList()),
+			items);
+	}
+
+	@Test
+	void testThatInFlightPagesAreBounded() throws Throwable {
+		final int maxInFlightPages = 3;
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxObserved = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(10);
+		try {
+			final Set<Integer> items = createPaginator(pageNo -> {
+				maxObserved.accumulateAndGet(inFlight.incrementAndGet(),
+					Math::max);
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					throw new ApiException(e);
+				} finally {
+					inFlight.decrementAndGet();
+				}
+
+				return createPage(pageNo, 20, 5);
+			}).executor(executor)
+				.maxInFlightPages(maxInFlightPages)
+				.fetchAllAsync();
+
+			assertEquals(100, items.size());
+			assertTrue(maxObserved.get() <= maxInFlightPages,
+				"more pages were in flight than allowed: " + maxObserved);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testThatFailuresArePropagated() {
+		final ApiException exception = assertThrows(ApiException.class,
+			() -> createPaginator(pageNo -> {
+				if (pageNo == 4) {
+					throw new ApiException(500, "boom");
+				}
+
+				return createPage(pageNo, 10, 1);
+			}).fetchAllAsync());
+
+		assertEquals(500, exception.getCode());
+	}
+
+	@Test
+	void testThatStreamPreservesPageOrder() {
+		final List<Integer> items;
+		try (Stream<Integer> stream = createPaginator(
+			pageNo -> createPage(pageNo, 7, 3)).stream(2)) {
+			items = stream.collect(Collectors.toList());
+		}
+
+		assertEquals(IntStream.range(0, 21).boxed().collect(Collectors.toList()),
+			items);
+	}
+
+	@Test
+	void testThatStreamFetchesPagesLazily() {
+		final AtomicInteger fetched = new AtomicInteger();
+		final List<Integer> items;
+		try (Stream<Integer> stream = createPaginator(pageNo -> {
+			fetched.incrementAndGet();
+			return createPage(pageNo, 100, 10);
+		}).executor(Runnable::run).stream(1)) {
+			items = stream.limit(15).collect(Collectors.toList());
+		}
+
+		assertEquals(IntStream.range(0, 15).boxed().collect(Collectors.toList()),
+			items);
+		assertTrue(fetched.get() <= 3,
+			"too many pages were fetched: " + fetched);
+	}
+
+	@Test
+	void testThatIteratorFailuresArePropagated() {
+		final Iterator<Integer> iterator = createPaginator(pageNo -> {
+			if (pageNo == 2) {
+				throw new ApiException(500, "boom");
+			}
+
+			return createPage(pageNo, 3, 1);
+		}).iterator(0);
+
+		assertEquals(0, iterator.next());
+		final RuntimeException exception =
+			assertThrows(RuntimeException.class, iterator::next);
+		assertEquals(500, ((ApiException) exception.getCause()).getCode());
+	}
+
+	private static Paginator<FakePage, Integer> createPaginator(
+		final PageFetcher<FakePage> fetcher) {
+		return new Paginator<>(fetcher, page -> page.pageNo,
+			page -> page.totalPages, page -> page.totalPages * page.pageSize,
+			page -> page.items);
+	}
+
+	private static FakePage createPage(final int pageNo, final int totalPages,
+		final int pageSize) {
+		return new FakePage(pageNo, totalPages, pageSize);
+	}
+
+	private static final class FakePage {
+
+		private final int pageNo, totalPages, pageSize;
+		private final List<Integer> items;
+
+		private FakePage(final int pageNo, final int totalPages,
+			final int pageSize) {
+			this.pageNo = pageNo;
+			this.totalPages = totalPages;
+			this.pageSize = pageSize;
+			this.items = Collections.unmodifiableList(
+				IntStream.range((pageNo - 1) * pageSize, pageNo * pageSize)
+					.boxed()
+					.collect(Collectors.toList()));
+		}
+
+	}
+
 }
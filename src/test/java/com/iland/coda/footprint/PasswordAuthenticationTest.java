@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.codacloud.ApiClient;
+import net.codacloud.ApiException;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PasswordAuthenticationTest {
+
+	private final Instant expiry = Instant.now().plusSeconds(3);
+	private final String access = jwt(expiry);
+	private final String refreshedAccess =
+		jwt(Instant.now().plus(Duration.ofHours(1)));
+
+	private final AtomicReference<String> refreshRequest =
+		new AtomicReference<>();
+	private final CountDownLatch refreshed = new CountDownLatch(1);
+	private final ScheduledExecutorService scheduler =
+		Executors.newSingleThreadScheduledExecutor();
+	private HttpServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/common/auth/session/",
+			exchange -> respond(exchange,
+				"{\"access\":\"" + access + "\",\"refresh\":\"r1\"}"));
+		server.createContext("/auth/token/refresh/", exchange -> {
+			refreshRequest.set(
+				new String(ByteStreams.toByteArray(exchange.getRequestBody()),
+					UTF_8));
+			respond(exchange, "{\"access\":\"" + refreshedAccess + "\"}");
+			refreshed.countDown();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	void testThatAccessTokensAreRefreshedBeforeTheyExpire()
+		throws ApiException, InterruptedException {
+		final PasswordAuthentication authentication =
+			new PasswordAuthentication("user", "secret", scheduler,
+				Duration.ofMillis(2500));
+		final ApiClient apiClient = new ApiClient(
+			new OkHttpClient.Builder().addInterceptor(authentication).build());
+		apiClient.setBasePath(
+			"http://localhost:" + server.getAddress().getPort());
+
+		authentication.authenticate(apiClient);
+		assertEquals(access, authentication.accessToken.get());
+
+		assertTrue(refreshed.await(5, TimeUnit.SECONDS),
+			"access token must be refreshed");
+		assertTrue(Instant.now().isBefore(expiry),
+			"access token must be refreshed before it expires");
+		assertTrue(refreshRequest.get().contains("\"refresh\":\"r1\""));
+
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!refreshedAccess.equals(authentication.accessToken.get())
+			&& System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(refreshedAccess, authentication.accessToken.get());
+	}
+
+	@Test
+	void testThatClosingStopsTheRefreshes()
+		throws ApiException, InterruptedException {
+		final PasswordAuthentication authentication =
+			new PasswordAuthentication("user", "secret", scheduler,
+				Duration.ofMillis(1500));
+		final ApiClient apiClient = new ApiClient(
+			new OkHttpClient.Builder().addInterceptor(authentication).build());
+		apiClient.setBasePath(
+			"http://localhost:" + server.getAddress().getPort());
+
+		authentication.authenticate(apiClient);
+		authentication.close();
+
+		assertFalse(refreshed.await(2500, TimeUnit.MILLISECONDS),
+			"access token must not be refreshed once closed");
+		assertEquals(access, authentication.accessToken.get());
+	}
+
+	@Test
+	void testThatTheExpiryIsDecoded() {
+		assertEquals(expiry.getEpochSecond(),
+			PasswordAuthentication.expiry(access).getEpochSecond());
+		assertNull(PasswordAuthentication.expiry("not-a-jwt"));
+		assertNull(PasswordAuthentication.expiry(null));
+	}
+
+	private static String jwt(final Instant expiry) {
+		final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+		return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(UTF_8))
+			+ "." + encoder.encodeToString(
+			("{\"exp\":" + expiry.getEpochSecond() + "}").getBytes(UTF_8))
+			+ ".";
+	}
+
+	private static void respond(final HttpExchange exchange, final String body)
+		throws IOException {
+		final byte[] bytes = body.getBytes(UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (final OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.codacloud.ApiException;
+import net.codacloud.model.Account;
+import net.codacloud.model.AgentlessScannerSrz;
+import net.codacloud.model.RegistrationLight;
+import org.junit.jupiter.api.Test;
+
+class RegistrationIndexTest {
+
+	private static final RegistrationLight.StateEnum STATE =
+		RegistrationLight.StateEnum.REGISTERED;
+
+	@Test
+	void testThatLookupsMatchTheLinearScan() {
+		final Random random = new Random(42);
+		final Set<RegistrationLight> registrations = new HashSet<>();
+		for (int id = 1; id <= 500; id++) {
+			registrations.add(
+				new RegistrationLight(random.nextInt(10_000) * 1000 + id,
+					label(random), STATE));
+		}
+		final RegistrationIndex index = new RegistrationIndex(registrations);
+
+		for (int i = 0; i < 2_000; i++) {
+			final String label = label(random) + label(random);
+			final Optional<RegistrationLight> expected = registrations.stream()
+				.sorted(Comparator.comparingLong(RegistrationLight::getId))
+				.filter(r -> label.startsWith(r.getLabel()))
+				.findFirst();
+			assertEquals(expected, index.forLabel(label), label);
+		}
+	}
+
+	@Test
+	void testThatTheLowestIdWins() {
+		final RegistrationIndex index = new RegistrationIndex(Arrays.asList(
+			new RegistrationLight(3, "acme", STATE),
+			new RegistrationLight(2, "acme-east", STATE),
+			new RegistrationLight(1, "acme", STATE)));
+
+		assertEquals(Optional.of(1), index.forLabel("acme-east-1")
+			.map(RegistrationLight::getId));
+		assertEquals(Optional.of(2), index.without(1)
+			.forLabel("acme-east-1")
+			.map(RegistrationLight::getId));
+		assertEquals(Optional.empty(), index.forLabel("acm"));
+	}
+
+	@Test
+	void testThatCachingClientServesLookupsFromItsIndexes()
+		throws ApiException {
+		final AtomicInteger listings = new AtomicInteger();
+		final CodaClient client = new CachingCodaClient(
+			fake(new HashSet<>(Arrays.asList(
+				new RegistrationLight(1, "acme", STATE))), listings), null);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(Optional.of(1), client.getRegistrationForLabel("acme-1")
+				.map(RegistrationLight::getId));
+			assertEquals(Optional.of(5), client.findAccountWithName("acme")
+				.map(Account::getId));
+			assertEquals(Integer.valueOf(9),
+				client.getScannerIdByLabel(null).get("cloud"));
+		}
+		assertEquals(3, listings.get());
+
+		client.deleteRegistration(new RegistrationLight(1, "acme", STATE));
+		assertEquals(Optional.empty(), client.getRegistrationForLabel("acme-1"));
+	}
+
+	@Test
+	void testThatConcurrentUpdatesAreNotLost() throws Exception {
+		final Set<RegistrationLight> registrations = new HashSet<>();
+		for (int id = 1; id <= 100; id++) {
+			registrations.add(new RegistrationLight(id, "acme-" + id, STATE));
+		}
+		final AtomicInteger listings = new AtomicInteger();
+		final CodaClient client =
+			new CachingCodaClient(fake(registrations, listings), null);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (final RegistrationLight registration : registrations) {
+				futures.add(executor.submit(() -> {
+					client.deleteRegistration(registration);
+					return null;
+				}));
+			}
+			for (final Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(Collections.emptySet(), client.listRegistrations(null));
+		assertEquals(1, listings.get());
+	}
+
+	private static String label(final Random random) {
+		final StringBuilder label = new StringBuilder();
+		for (int i = random.nextInt(4); i >= 0; i--) {
+			label.append((char) ('a' + random.nextInt(3)));
+		}
+
+		return label.toString();
+	}
+
+	private static CodaClient fake(final Set<RegistrationLight> registrations,
+		final AtomicInteger listings) {
+		final List<AgentlessScannerSrz> scanners = new ArrayList<>();
+		scanners.add(new AgentlessScannerSrz(9, null, null, null, null, null,
+			null, null, null, null).label("cloud"));
+
+		return new FakeCodaClient().on("listRegistrations", (client, args) -> {
+			listings.incrementAndGet();
+			return registrations;
+		}).on("listAccounts", (client, args) -> {
+			listings.incrementAndGet();
+			return new HashSet<>(
+				Arrays.asList(new Account().id(5).name("acme")));
+		}).on("getScanners", (client, args) -> {
+			listings.incrementAndGet();
+			return scanners;
+		}).on("deleteRegistration", (client, args) -> null).create();
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Strings;
+import net.codacloud.ApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.iland.coda.footprint.CodaClient.LazyCvrJson;
+import com.iland.coda.footprint.CodaClient.ReportType;
+
+class ReportCacheTest {
+
+	private static final LocalDateTime DATE =
+		LocalDateTime.of(2022, 5, 16, 21, 33, 29);
+	private static final String JSON = "{\"id\":1}";
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+	private final AtomicInteger retrievals = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void testThatConcurrentRetrievalsShareOneDownload() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final CodaClient client = new CachingCodaClient(fake(() -> {
+			retrievals.incrementAndGet();
+			await(release);
+			return JSON;
+		}), null);
+
+		final List<Future<String>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			futures.add(executor.submit(
+				() -> client.getReportsJson(ReportType.SNAPSHOT, 1)
+					.get(DATE)
+					.retrieveJson()));
+		}
+		Thread.sleep(100);
+		release.countDown();
+
+		for (final Future<String> future : futures) {
+			assertEquals(JSON, future.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, retrievals.get());
+	}
+
+	@Test
+	void testThatReportsAreEvictedByWeight() throws ApiException {
+		final CodaClient client = new CachingCodaClient(fake(() -> {
+			retrievals.incrementAndGet();
+			return new String(JSON);
+		}), null, new CacheSettings().maxReportWeight(JSON.length()));
+
+		final String json = retrieve(client, 1);
+		assertSame(json, retrieve(client, 1));
+		assertEquals(1, retrievals.get());
+
+		retrieve(client, 2);
+		retrieve(client, 1);
+		assertEquals(3, retrievals.get());
+	}
+
+	@Test
+	void testThatReportsLargerThanASegmentAreCached() throws ApiException {
+		final long maxWeight = 1_000;
+		final String json = "{\"id\":\"" + Strings.repeat("x",
+			(int) (maxWeight / 16)) + "\"}";
+		final CodaClient client = new CachingCodaClient(fake(() -> {
+			retrievals.incrementAndGet();
+			return json;
+		}), null, new CacheSettings().maxReportWeight(maxWeight));
+
+		assertEquals(json, retrieve(client, 1));
+		assertEquals(json, retrieve(client, 1));
+		assertEquals(1, retrievals.get());
+	}
+
+	@Test
+	void testThatFailuresAreNotCached() throws ApiException {
+		final CodaClient client = new CachingCodaClient(fake(() -> {
+			if (retrievals.incrementAndGet() == 1) {
+				throw new ApiException(500, "boom");
+			}
+			return JSON;
+		}), null);
+
+		final ApiException e =
+			assertThrows(ApiException.class, () -> retrieve(client, 1));
+		assertEquals(500, e.getCode());
+		assertEquals(JSON, retrieve(client, 1));
+	}
+
+	private static String retrieve(final CodaClient client,
+		final Integer accountId) throws ApiException {
+		return client.getReportsJson(ReportType.SNAPSHOT, accountId)
+			.get(DATE)
+			.retrieveJson();
+	}
+
+	private static void await(final CountDownLatch latch) throws ApiException {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			throw new ApiException(e);
+		}
+	}
+
+	private static CodaClient fake(final LazyCvrJson report) {
+		final Map<LocalDateTime, LazyCvrJson> reports = new HashMap<>();
+		reports.put(DATE, report);
+
+		return new FakeCodaClient().on("getReportsJson", (client, args) -> reports)
+			.create();
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import net.codacloud.ApiException;
+import net.codacloud.model.CVR;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.iland.coda.footprint.CodaClient.LazyCVR;
+import com.iland.coda.footprint.CodaClient.ReportType;
+
+class ReportPrefetcherTest {
+
+	private static final LocalDateTime START =
+		LocalDateTime.of(2022, 1, 1, 0, 0);
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(10);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void testThatReportsAreConsumedInDateOrderWithBoundedBytes()
+		throws ApiException {
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxObserved = new AtomicInteger();
+		final CodaClient client = fake(day -> () -> {
+			maxObserved.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				// later reports complete first
+				Thread.sleep(50 - day);
+			} catch (InterruptedException e) {
+				throw new ApiException(e);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+
+			return new CVR();
+		});
+
+		final List<LocalDateTime> consumed = new ArrayList<>();
+		new ReportPrefetcher(client).executor(executor)
+			.maxInFlightBytes(30)
+			.maxInFlightReports(10)
+			.weigher(cvr -> 10)
+			.prefetch(ReportType.SNAPSHOT, 1, START.plusDays(2),
+				START.plusDays(17), (date, cvr) -> consumed.add(date));
+
+		assertEquals(IntStream.rangeClosed(2, 17)
+			.mapToObj(START::plusDays)
+			.collect(Collectors.toList()), consumed);
+		assertTrue(maxObserved.get() <= 3,
+			"more reports were in flight than the byte limit allows: "
+				+ maxObserved);
+	}
+
+	@Test
+	void testThatFailuresStopPrefetching() {
+		final CodaClient client = fake(day -> () -> {
+			if (day == 3) {
+				throw new ApiException(500, "boom");
+			}
+
+			return new CVR();
+		});
+
+		final List<LocalDateTime> consumed = new ArrayList<>();
+		final ApiException e = assertThrows(ApiException.class,
+			() -> new ReportPrefetcher(client).executor(executor)
+				.weigher(cvr -> 1)
+				.prefetch(ReportType.SNAPSHOT, 1, null, null,
+					(date, cvr) -> consumed.add(date)));
+
+		assertEquals(500, e.getCode());
+		assertEquals(IntStream.range(0, 3)
+			.mapToObj(START::plusDays)
+			.collect(Collectors.toList()), consumed);
+	}
+
+	@Test
+	void testThatReportsAreWeighedByTheirJson() throws ApiException {
+		final AtomicInteger consumed = new AtomicInteger();
+		new ReportPrefetcher(fake(day -> CVR::new)).executor(executor)
+			.prefetch(ReportType.SNAPSHOT, 1, null, null,
+				(date, cvr) -> consumed.incrementAndGet());
+
+		assertEquals(20, consumed.get());
+	}
+
+	/**
+	 * Creates a {@link CodaClient} with a report for each of 20 consecutive days.
+	 */
+	private static CodaClient fake(final Function<Integer, LazyCVR> reports) {
+		final Map<LocalDateTime, LazyCVR> map = new HashMap<>();
+		for (int day = 0; day < 20; day++) {
+			map.put(START.plusDays(day), reports.apply(day));
+		}
+
+		return new FakeCodaClient().on("getReports", (client, args) -> map)
+			.create();
+	}
+
+}
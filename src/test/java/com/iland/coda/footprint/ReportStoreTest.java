@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import net.codacloud.ApiException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.iland.coda.footprint.CodaClient.LazyCVR;
+import com.iland.coda.footprint.CodaClient.LazyCvrJson;
+import com.iland.coda.footprint.CodaClient.ReportType;
+
+class ReportStoreTest {
+
+	private static final LocalDateTime DATE =
+		LocalDateTime.of(2022, 5, 16, 21, 33, 29);
+	private static final String JSON = "{\"technicalReport\":[],\"id\":1}";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testThatReportsRoundTrip() throws IOException {
+		final ReportStore store = new ReportStore(directory);
+		assertEquals(Optional.empty(),
+			store.get(1, ReportType.SNAPSHOT, DATE));
+
+		store.put(1, ReportType.SNAPSHOT, DATE, JSON);
+
+		assertEquals(Optional.of(JSON),
+			store.get(1, ReportType.SNAPSHOT, DATE));
+		assertEquals(Optional.of(JSON),
+			new ReportStore(directory).get(1, ReportType.SNAPSHOT, DATE));
+		assertEquals(Optional.empty(),
+			store.get(null, ReportType.SNAPSHOT, DATE));
+		assertEquals(Optional.empty(),
+			store.get(1, ReportType.SNAPSHOT, DATE.plusDays(1)));
+	}
+
+	@Test
+	void testThatIdenticalReportsAreStoredOnce() throws IOException {
+		final ReportStore store = new ReportStore(directory);
+		store.put(1, ReportType.SNAPSHOT, DATE, JSON);
+		store.put(2, ReportType.SNAPSHOT, DATE.plusDays(1), JSON);
+
+		assertEquals(1, objects().size());
+		assertEquals(Optional.of(JSON),
+			store.get(2, ReportType.SNAPSHOT, DATE.plusDays(1)));
+	}
+
+	@Test
+	void testThatCorruptReportsAreMisses() throws IOException {
+		final ReportStore store = new ReportStore(directory);
+		store.put(1, ReportType.SNAPSHOT, DATE, JSON);
+		final Path object = objects().get(0);
+		try (final GZIPOutputStream out =
+			new GZIPOutputStream(Files.newOutputStream(object))) {
+			out.write("{}".getBytes(UTF_8));
+		}
+
+		assertEquals(Optional.empty(),
+			store.get(1, ReportType.SNAPSHOT, DATE));
+
+		store.put(1, ReportType.SNAPSHOT, DATE, JSON);
+		assertEquals(Optional.of(JSON),
+			store.get(1, ReportType.SNAPSHOT, DATE));
+	}
+
+	@Test
+	void testThatTruncatedReportsAreMisses() throws IOException {
+		final ReportStore store = new ReportStore(directory);
+		store.put(1, ReportType.SNAPSHOT, DATE, JSON);
+		final Path object = objects().get(0);
+		final byte[] gzip = Files.readAllBytes(object);
+		Files.write(object, Arrays.copyOf(gzip, gzip.length / 2));
+
+		assertEquals(Optional.empty(),
+			store.get(1, ReportType.SNAPSHOT, DATE));
+
+		store.put(1, ReportType.SNAPSHOT, DATE, JSON);
+		assertEquals(Optional.of(JSON),
+			store.get(1, ReportType.SNAPSHOT, DATE));
+	}
+
+	@Test
+	void testThatCachingClientRetrievesStoredReportsOnce()
+		throws IOException, ApiException {
+		final AtomicInteger retrievals = new AtomicInteger();
+		final LazyCVR report = () -> {
+			throw new AssertionError("reports are parsed from stored JSON");
+		};
+		final LazyCvrJson reportJson = () -> {
+			retrievals.incrementAndGet();
+			return JSON;
+		};
+		final CodaClient delegatee = new FakeCodaClient()
+			.on("getReports",
+				(client, args) -> Collections.singletonMap(DATE, report))
+			.on("getReportsJson",
+				(client, args) -> Collections.singletonMap(DATE, reportJson))
+			.create();
+
+		final ReportStore store = new ReportStore(directory);
+		for (int i = 0; i < 2; i++) {
+			final CodaClient client = new CachingCodaClient(delegatee, store);
+			assertEquals(JSON, client.getReportsJson(ReportType.SNAPSHOT, 1)
+				.get(DATE)
+				.retrieveJson());
+
+			final Map<LocalDateTime, LazyCVR> reports =
+				client.getReports(ReportType.SNAPSHOT, 1);
+			assertEquals(Collections.emptyList(),
+				reports.get(DATE).retrieve().getTechnicalReport());
+		}
+
+		assertEquals(1, retrievals.get());
+		assertFalse(objects().isEmpty());
+	}
+
+	private List<Path> objects() throws IOException {
+		try (final Stream<Path> files = Files.walk(directory)) {
+			return files.filter(path -> path.toString().endsWith(".json.gz"))
+				.collect(Collectors.toList());
+		}
+	}
+
+}
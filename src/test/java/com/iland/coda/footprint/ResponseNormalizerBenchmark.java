@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+package com.iland.coda.footprint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link ResponseNormalizer} with the chain of regex body
+ * interceptors it replaced, using CVR-shaped payloads of increasing size.
+ * Run with {@code make benchmark BENCHMARK=ResponseNormalizerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResponseNormalizerBenchmark {
+
+	/**
+	 * The number of servers in the technical report; 2000 servers are roughly
+	 * 11 MiB of JSON.
+	 */
+	@Param({"50", "500", "2000"})
+	public int servers;
+
+	private byte[] cvr;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		cvr = createCvr(servers).getBytes(UTF_8);
+	}
+
+	@Benchmark
+	public String regexChain() throws IOException {
+		// mirrors the former body interceptors, innermost first
+		String body = new Buffer().write(cvr).readUtf8();
+		body = body.replaceAll(
+			"(\\d{4}-\\d{2}-\\d{2})\\s*(\\d{2}:\\d{2}:\\d{2})(\\.\\d+)?(\\+00:00)",
+			"$1T$2$3$4");
+		body = new Buffer().writeUtf8(body).readUtf8();
+		body = body.replaceAll("\"schedulerConfig\":\\s*\\{\\}",
+			"\"schedulerConfig\":\"\"");
+		body = new Buffer().writeUtf8(body).readUtf8();
+		body = body.replaceAll(":\\s*\"None\"", ":null");
+		body = new Buffer().writeUtf8(body).readUtf8();
+		body = body.replaceAll("\"\"", "null");
+
+		return new Buffer().writeUtf8(body).readUtf8();
+	}
+
+	@Benchmark
+	public String streamingNormalizer() throws IOException {
+		final Buffer sink = new Buffer();
+		ResponseNormalizer.normalize(new Buffer().write(cvr), sink);
+
+		return sink.readUtf8();
+	}
+
+	/**
+	 * Creates a JSON document shaped like a snapshot {@code CVR} with the
+	 * supplied number of servers in the technical report.
+	 */
+	static String createCvr(final int servers) {
+		final StringBuilder json = new StringBuilder();
+		json.append("{\"meta\":{")
+			.append("\"generationDate\":\"2022-05-18 15:28:09.807554+00:00\",")
+			.append("\"criticalLevel\":\"None\",\"companyName\":\"\"},")
+			.append("\"technicalReport\":[");
+		for (int server = 0; server < servers; server++) {
+			if (server > 0) {
+				json.append(',');
+			}
+			json.append("{\"hostname\":\"host-").append(server)
+				.append(".example.com\",\"ip\":\"10.0.")
+				.append(server / 256).append('.').append(server % 256)
+				.append("\",\"os\":\"\",\"schedulerConfig\":{},")
+				.append("\"vulnerabilities\":[");
+			for (int vuln = 0; vuln < 20; vuln++) {
+				if (vuln > 0) {
+					json.append(',');
+				}
+				json.append("{\"id\":").append(vuln)
+					.append(",\"cvss\":7.5,\"cve\":\"CVE-2022-")
+					.append(10000 + vuln)
+					.append("\",\"firstSeen\":\"2018-07-19 01:29:00+00:00\",")
+					.append("\"lastSeen\":\"2022-05-18 15:28:09.807554+00:00\",")
+					.append("\"solution\":\"None\",\"port\":\"\",")
+					.append("\"summary\":\"The remote host is affected by ")
+					.append("a \\\"quoted\\\" vulnerability that allows ")
+					.append("an attacker to execute arbitrary code.\"}");
+			}
+			json.append("]}");
+		}
+		json.append("]}");
+
+		return json.toString();
+	}
+
+}
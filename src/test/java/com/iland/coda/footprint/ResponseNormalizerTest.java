@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+class ResponseNormalizerTest {
+
+	@Test
+	void testThatEmptyStringsAreReplacedWithNull() throws IOException {
+		assertEquals("{\"a\":null,\"b\":[null,\"c\"]}",
+			normalize("{\"a\": \"\", \"b\": [\"\", \"c\"]}"));
+	}
+
+	@Test
+	void testThatNoneMemberValuesAreReplacedWithNull() throws IOException {
+		assertEquals("{\"reportData\":null,\"items\":[\"None\"]}",
+			normalize("{\"reportData\": \"None\", \"items\": [\"None\"]}"));
+	}
+
+	@Test
+	void testThatEmptySchedulerConfigIsReplacedWithNull() throws IOException {
+		assertEquals("{\"schedulerConfig\":null,\"other\":{}}",
+			normalize("{\"schedulerConfig\": {}, \"other\": {}}"));
+		assertEquals("{\"schedulerConfig\":{\"a\":1}}",
+			normalize("{\"schedulerConfig\": {\"a\": 1}}"));
+	}
+
+	@Test
+	void testThatDatesAreFixed() throws IOException {
+		assertEquals("[\"2018-07-19T01:29:00+00:00\","
+				+ "\"2022-05-18T15:28:09.807554+00:00\",\"2022-05-16 21:33:29\"]",
+			normalize("[\"2018-07-19 01:29:00+00:00\","
+				+ "\"2022-05-18 15:28:09.807554+00:00\",\"2022-05-16 21:33:29\"]"));
+	}
+
+	@Test
+	void testThatCriticalLevelWordsAreReplaced() throws IOException {
+		assertEquals("{\"meta\":{\"criticalLevel\":-1,\"tenant\":\"high\"},"
+				+ "\"items\":[{\"criticalLevel\":2.5}]}",
+			normalize("{\"meta\": {\"criticalLevel\": \"high\", "
+				+ "\"tenant\": \"high\"}, \"items\": [{\"criticalLevel\": 2.5}]}"));
+	}
+
+	@Test
+	void testThatEscapedQuotesArePreserved() throws IOException {
+		// the regex interceptors used to turn \"" into \null
+		assertEquals("{\"summary\":\"say \\\"hi\\\"\"}",
+			normalize("{\"summary\": \"say \\\"hi\\\"\"}"));
+	}
+
+	@Test
+	void testThatNumbersArePreserved() throws IOException {
+		assertEquals("{\"a\":1.50,\"b\":-1,\"c\":1e3,\"d\":true}",
+			normalize("{\"a\": 1.50, \"b\": -1, \"c\": 1e3, \"d\": true}"));
+	}
+
+	private static String normalize(final String json) throws IOException {
+		final Buffer sink = new Buffer();
+		ResponseNormalizer.normalize(new Buffer().writeUtf8(json), sink);
+
+		return sink.readUtf8();
+	}
+
+}
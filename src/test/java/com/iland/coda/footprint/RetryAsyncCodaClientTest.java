@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import net.codacloud.ApiException;
+import net.codacloud.model.AgentlessScannerSrz;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RetryAsyncCodaClientTest {
+
+	private final ScheduledExecutorService scheduler =
+		Executors.newSingleThreadScheduledExecutor();
+
+	@AfterEach
+	void tearDown() {
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	void testThatUnauthorizedCallsAreRetriedAfterLogin() throws Exception {
+		final AtomicInteger logins = new AtomicInteger();
+		final AtomicInteger attempts = new AtomicInteger();
+		final AsyncCodaClient delegatee =
+			fake(logins, () -> attempts.incrementAndGet() < 3
+				? failed(new ApiException(401, "unauthorized"))
+				: CompletableFuture.completedFuture(Collections.emptyList()));
+
+		final List<AgentlessScannerSrz> scanners =
+			new RetryAsyncCodaClient(delegatee, scheduler,
+				TimeUnit.MINUTES.toMillis(1)).getScanners(1)
+				.get(10, TimeUnit.SECONDS);
+
+		assertEquals(Collections.emptyList(), scanners);
+		assertEquals(3, attempts.get());
+		assertEquals(2, logins.get());
+	}
+
+	@Test
+	void testThatOtherFailuresAreNotRetried() {
+		final AtomicInteger attempts = new AtomicInteger();
+		final ApiException failure = new ApiException(500, "boom");
+		final AsyncCodaClient delegatee = fake(new AtomicInteger(), () -> {
+			attempts.incrementAndGet();
+			return failed(failure);
+		});
+
+		final ExecutionException e = assertThrows(ExecutionException.class,
+			() -> new RetryAsyncCodaClient(delegatee, scheduler,
+				TimeUnit.MINUTES.toMillis(1)).getScanners(1)
+				.get(10, TimeUnit.SECONDS));
+
+		assertSame(failure, e.getCause());
+		assertEquals(1, attempts.get());
+	}
+
+	@Test
+	void testThatAFailedLoginIsSharedWithinItsGeneration() {
+		final AtomicInteger logins = new AtomicInteger();
+		final ApiException loginFailure = new ApiException(500, "boom");
+		final CompletableFuture<AsyncCodaClient> login =
+			new CompletableFuture<>();
+		final CompletableFuture<List<AgentlessScannerSrz>> first =
+			failed(new ApiException(401, "unauthorized"));
+		// sent before the login but only fails once the login has failed
+		final CompletableFuture<List<AgentlessScannerSrz>> second =
+			new CompletableFuture<>();
+		final AtomicInteger attempts = new AtomicInteger();
+		final AsyncCodaClient delegatee = new FakeCodaClient()
+			.on("login", (client, args) -> {
+				logins.incrementAndGet();
+				return login;
+			})
+			.on("getScanners",
+				(client, args) -> attempts.incrementAndGet() == 1
+					? first
+					: second)
+			.createAsync();
+		final RetryAsyncCodaClient client = new RetryAsyncCodaClient(
+			delegatee, scheduler, TimeUnit.MINUTES.toMillis(1));
+
+		final CompletableFuture<List<AgentlessScannerSrz>> firstResult =
+			client.getScanners(1);
+		final CompletableFuture<List<AgentlessScannerSrz>> secondResult =
+			client.getScanners(1);
+		login.completeExceptionally(loginFailure);
+		second.completeExceptionally(new ApiException(401, "unauthorized"));
+
+		for (final CompletableFuture<?> result : Arrays.asList(firstResult,
+			secondResult)) {
+			final ExecutionException e = assertThrows(ExecutionException.class,
+				() -> result.get(10, TimeUnit.SECONDS));
+			assertSame(loginFailure, e.getCause());
+		}
+		assertEquals(1, logins.get());
+		assertEquals(2, attempts.get());
+	}
+
+	@Test
+	void testThatSynchronousFailuresOfRetriesCompleteTheResult() {
+		final AtomicInteger attempts = new AtomicInteger();
+		final IllegalStateException failure = new IllegalStateException("bug");
+		final AsyncCodaClient delegatee = fake(new AtomicInteger(), () -> {
+			if (attempts.incrementAndGet() == 1) {
+				return failed(new ApiException(401, "unauthorized"));
+			}
+			// thrown on the scheduler rather than returned as a future
+			throw failure;
+		});
+
+		final ExecutionException e = assertThrows(ExecutionException.class,
+			() -> new RetryAsyncCodaClient(delegatee, scheduler,
+				TimeUnit.MINUTES.toMillis(1)).getScanners(1)
+				.get(10, TimeUnit.SECONDS));
+
+		assertSame(failure, e.getCause());
+		assertEquals(2, attempts.get());
+	}
+
+	@Test
+	void testThatRejectedRetriesCompleteTheResult() {
+		final ScheduledExecutorService shutDown =
+			Executors.newSingleThreadScheduledExecutor();
+		shutDown.shutdown();
+		final AsyncCodaClient delegatee = fake(new AtomicInteger(),
+			() -> failed(new ApiException(401, "unauthorized")));
+
+		final ExecutionException e = assertThrows(ExecutionException.class,
+			() -> new RetryAsyncCodaClient(delegatee, shutDown,
+				TimeUnit.MINUTES.toMillis(1)).getScanners(1)
+				.get(10, TimeUnit.SECONDS));
+
+		assertTrue(e.getCause() instanceof RejectedExecutionException,
+			e.getCause().toString());
+	}
+
+	@Test
+	void testThatWaitFollowsTheFibonacciSequence() {
+		assertEquals(1L, RetryAsyncCodaClient.fibonacciWaitMillis(1));
+		assertEquals(1L, RetryAsyncCodaClient.fibonacciWaitMillis(2));
+		assertEquals(2L, RetryAsyncCodaClient.fibonacciWaitMillis(3));
+		assertEquals(55L, RetryAsyncCodaClient.fibonacciWaitMillis(10));
+		assertEquals(TimeUnit.MINUTES.toMillis(1),
+			RetryAsyncCodaClient.fibonacciWaitMillis(100));
+	}
+
+	/**
+	 * Creates an {@link AsyncCodaClient} that counts logins and answers {@link AsyncCodaClient#getScanners(Integer)}
+	 * with the supplied scanners.
+	 */
+	private static AsyncCodaClient fake(final AtomicInteger logins,
+		final Supplier<CompletableFuture<List<AgentlessScannerSrz>>> scanners) {
+		return new FakeCodaClient().on("login", (client, args) -> {
+			logins.incrementAndGet();
+			return CompletableFuture.completedFuture(client);
+		}).on("getScanners", (client, args) -> scanners.get()).createAsync();
+	}
+
+	private static <T> CompletableFuture<T> failed(final Throwable throwable) {
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(throwable);
+		return future;
+	}
+
+}
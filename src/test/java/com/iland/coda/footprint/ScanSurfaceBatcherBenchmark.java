@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import net.codacloud.model.ExtendMessageRequest;
+import org.apache.commons.net.util.SubnetUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the lazy {@link ScanSurfaceBatcher} with the {@link SubnetUtils}
+ * based expansion it replaced for a single large CIDR block. Run with
+ * {@code make benchmark BENCHMARK=ScanSurfaceBatcherBenchmark}; add
+ * {@code -prof gc} to the JMH arguments to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class ScanSurfaceBatcherBenchmark {
+
+	@Param({"10.0.0.0/16", "10.0.0.0/12", "10.0.0.0/8"})
+	public String cidr;
+
+	@Benchmark
+	public void eagerExpansion(final Blackhole blackhole) {
+		// mirrors the former ScanSurfaceBatcher#createBatches
+		final List<String> cidrAddresses = Collections.singletonList(cidr)
+			.stream()
+			.map(SubnetUtils::new)
+			.map(SubnetUtils::getInfo)
+			.map(SubnetUtils.SubnetInfo::getAllAddresses)
+			.map(Arrays::asList)
+			.flatMap(List::stream)
+			.collect(Collectors.toList());
+
+		final AtomicInteger counter = new AtomicInteger();
+		cidrAddresses.stream()
+			.collect(Collectors.groupingBy(it -> counter.getAndIncrement()
+				/ ScanSurfaceBatcher.MAX_IPS_PER_SCAN_SURFACE_UPDATE))
+			.values()
+			.stream()
+			.map(batch -> new ExtendMessageRequest().scanTargets(batch))
+			.forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void lazyBatches(final Blackhole blackhole) {
+		new ScanSurfaceBatcher().batches(Collections.singletonList(cidr))
+			.forEachRemaining(blackhole::consume);
+	}
+
+}
@@ -15,17 +15,24 @@
 
 package com.iland.coda.footprint;
 
+import static com.iland.coda.footprint.ScanSurfaceBatcher.MAX_IPS_PER_SCAN_SURFACE_UPDATE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import net.codacloud.model.ExtendMessageRequest;
 import org.junit.jupiter.api.Test;
 
+import com.iland.coda.footprint.CodaClient.CidrMode;
+
 class ScanSurfaceBatcherTest {
 
 	@Test
@@ -64,4 +71,61 @@ class ScanSurfaceBatcherTest {
 		}
 	}
 
+	@Test
+	void testThatBatchesAreCreatedLazily() {
+		final Iterator<ExtendMessageRequest> batches =
+			new ScanSurfaceBatcher().batches(Arrays.asList("10.0.0.0/8"));
+
+		final ExtendMessageRequest first = batches.next();
+		assertEquals(MAX_IPS_PER_SCAN_SURFACE_UPDATE,
+			first.getScanTargets().size());
+		assertEquals("10.0.0.1", first.getScanTargets().get(0));
+		assertEquals("10.0.4.1", batches.next().getScanTargets().get(0));
+	}
+
+	@Test
+	void testThatBlocksArePassedThrough() {
+		final List<ExtendMessageRequest> batches = new ArrayList<>();
+		new ScanSurfaceBatcher(8).batches(
+				Arrays.asList("10.0.0.0/29", "localhost", "10.1.0.0/28",
+					"10.2.0.0/30"), CidrMode.PASSTHROUGH)
+			.forEachRemaining(batches::add);
+
+		assertEquals(Arrays.asList(Arrays.asList("localhost"),
+				Arrays.asList("10.0.0.0/29"), Arrays.asList("10.1.0.0/29"),
+				Arrays.asList("10.1.0.8/29"), Arrays.asList("10.2.0.0/30")),
+			batches.stream()
+				.map(ExtendMessageRequest::getScanTargets)
+				.collect(Collectors.toList()));
+	}
+
+	@Test
+	void testThatBlocksAreAggregated() {
+		final List<ExtendMessageRequest> batches = new ArrayList<>();
+		new ScanSurfaceBatcher().batches(
+				Arrays.asList("10.0.1.0/24", "10.0.0.0/24", "10.0.0.7",
+					"localhost", "192.168.0.1"), CidrMode.AGGREGATE)
+			.forEachRemaining(batches::add);
+
+		assertEquals(1, batches.size());
+		assertEquals(Arrays.asList("localhost", "10.0.0.0/23", "192.168.0.1"),
+			batches.get(0).getScanTargets());
+	}
+
+	@Test
+	void testThatInvalidAddressesArePassedThroughUnchanged() {
+		for (final CidrMode cidrMode : Arrays.asList(CidrMode.PASSTHROUGH,
+			CidrMode.AGGREGATE)) {
+			final List<ExtendMessageRequest> batches = new ArrayList<>();
+			new ScanSurfaceBatcher().batches(
+					Arrays.asList("999.1.1.1", "10.0.0.0/24", "999.0.0.0/8",
+						"10.0.0.0/40"), cidrMode)
+				.forEachRemaining(batches::add);
+
+			assertEquals(1, batches.size());
+			assertEquals(Arrays.asList("999.1.1.1", "999.0.0.0/8", "10.0.0.0/40",
+				"10.0.0.0/24"), batches.get(0).getScanTargets(), cidrMode.name());
+		}
+	}
+
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import net.codacloud.ApiException;
+import net.codacloud.model.ScanSurfaceEntry;
+import org.junit.jupiter.api.Test;
+
+class ScanSurfaceCacheTest {
+
+	private static final Integer ACCOUNT_ID = 7;
+
+	private final Map<Integer, AtomicInteger> retrievals =
+		new ConcurrentHashMap<>();
+	private final List<String> textFilters = new CopyOnWriteArrayList<>();
+	private volatile CountDownLatch loading;
+	private final CachingCodaClient client =
+		new CachingCodaClient(fake(), null);
+
+	@Test
+	void testThatScanSurfacesAreCachedPerScanner() throws ApiException {
+		client.getScanSurface(1, ACCOUNT_ID);
+		client.getScanSurface(1, ACCOUNT_ID);
+		client.getScanSurface(2, ACCOUNT_ID);
+		client.getScanSurface(Arrays.asList(1, 2), ACCOUNT_ID);
+
+		assertEquals(1, retrievals(1));
+		assertEquals(1, retrievals(2));
+	}
+
+	@Test
+	void testThatTextFiltersArePassedThrough() throws ApiException {
+		client.getScanSurface(1, ACCOUNT_ID);
+		client.getScanSurface(1, "EXAMPLE", ACCOUNT_ID);
+		client.getScanSurface(1, "EXAMPLE", ACCOUNT_ID);
+
+		assertEquals(Arrays.asList(null, "EXAMPLE", "EXAMPLE"), textFilters);
+		assertEquals(3, retrievals(1));
+	}
+
+	@Test
+	void testThatLoadsInFlightDuringAnInvalidationAreReloaded()
+		throws Exception {
+		loading = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final Future<List<ScanSurfaceEntry>> scanSurface =
+				executor.submit(() -> client.getScanSurface(1, ACCOUNT_ID));
+			while (retrievals(1) == 0) {
+				Thread.sleep(10);
+			}
+
+			client.updateScanSurface(Collections.singletonList("10.0.0.3"),
+				Collections.singletonList(1), ACCOUNT_ID);
+			loading.countDown();
+
+			scanSurface.get(5, TimeUnit.SECONDS);
+			assertEquals(2, retrievals(1));
+			client.getScanSurface(1, ACCOUNT_ID);
+			assertEquals(2, retrievals(1));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testThatUpdatesInvalidateTheirScanners() throws ApiException {
+		client.getScanSurface(1, ACCOUNT_ID);
+		client.getScanSurface(2, ACCOUNT_ID);
+		client.getScanSurface(1, 8);
+
+		client.updateScanSurface(Collections.singletonList("10.0.0.3"),
+			Collections.singletonList(1), ACCOUNT_ID);
+		client.getScanSurface(1, ACCOUNT_ID);
+		client.getScanSurface(2, ACCOUNT_ID);
+		client.getScanSurface(1, 8);
+
+		assertEquals(3, retrievals(1));
+		assertEquals(1, retrievals(2));
+	}
+
+	@Test
+	void testThatRescansInvalidateTheAccount() throws ApiException {
+		client.getScanSurface(1, ACCOUNT_ID);
+		client.getScanSurface(2, ACCOUNT_ID);
+
+		client.rescan(ACCOUNT_ID);
+		client.getScanSurface(1, ACCOUNT_ID);
+		client.getScanSurface(2, ACCOUNT_ID);
+
+		assertEquals(2, retrievals(1));
+		assertEquals(2, retrievals(2));
+	}
+
+	@Test
+	void testThatDeletedEntriesAreRemovedFromTheCache() throws ApiException {
+		final ScanSurfaceEntry entry = client.getScanSurface(1, ACCOUNT_ID)
+			.get(0);
+
+		client.deleteScanSurfaceEntry(entry, false, ACCOUNT_ID);
+
+		assertEquals(Arrays.asList("10.0.0.1", "10.0.0.2"),
+			inputs(client.getScanSurface(1, ACCOUNT_ID)));
+		assertEquals(1, retrievals(1));
+	}
+
+	private int retrievals(final Integer scannerId) {
+		return retrievals.getOrDefault(scannerId, new AtomicInteger()).get();
+	}
+
+	private static List<String> inputs(final List<ScanSurfaceEntry> entries) {
+		return entries.stream()
+			.map(ScanSurfaceEntry::getInput)
+			.collect(Collectors.toList());
+	}
+
+	private CodaClient fake() {
+		return new FakeCodaClient().on("getScanSurface", (client, args) -> {
+				retrievals.computeIfAbsent((Integer) args[0],
+					scannerId -> new AtomicInteger()).incrementAndGet();
+				textFilters.add((String) args[1]);
+				if (loading != null) {
+					loading.await();
+				}
+				return Arrays.asList(
+					new ScanSurfaceEntry().id(1).input("Example.com"),
+					new ScanSurfaceEntry().id(2).input("10.0.0.1"),
+					new ScanSurfaceEntry().id(3).input("10.0.0.2"));
+			})
+			.on("updateScanSurface", (client, args) -> Collections.emptyList())
+			.on("rescan", (client, args) -> Collections.emptyList())
+			.on("deleteScanSurfaceEntry", (client, args) -> null)
+			.create();
+	}
+
+}
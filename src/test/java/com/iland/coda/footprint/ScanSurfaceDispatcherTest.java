@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import net.codacloud.ApiException;
+import net.codacloud.model.ExtendMessageRequest;
+import net.codacloud.model.ScanUuidScannerId;
+import org.junit.jupiter.api.Test;
+
+class ScanSurfaceDispatcherTest {
+
+	@Test
+	void testThatResultsAreMergedInBatchOrder() throws Throwable {
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final ScanSurfaceDispatcher dispatcher =
+				new ScanSurfaceDispatcher(executor, 8);
+
+			final List<ScanUuidScannerId> results =
+				dispatcher.dispatch(createBatches(16).iterator(), 1, batch -> {
+					final String target = batch.getScanTargets().get(0);
+					// later batches complete first
+					sleep(2L * (16 - Integer.parseInt(target)));
+					return Collections.singletonList(
+						new ScanUuidScannerId().scanUuid(target));
+				});
+
+			assertEquals(IntStream.range(0, 16)
+					.mapToObj(String::valueOf)
+					.collect(Collectors.toList()),
+				results.stream()
+					.map(ScanUuidScannerId::getScanUuid)
+					.collect(Collectors.toList()));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testThatInFlightBatchesAreBoundedPerTenant() throws Throwable {
+		final int maxInFlightBatches = 2;
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxObserved = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			final ScanSurfaceDispatcher dispatcher =
+				new ScanSurfaceDispatcher(executor, maxInFlightBatches);
+			final ScanSurfaceDispatcher.BatchSender sender = batch -> {
+				maxObserved.accumulateAndGet(inFlight.incrementAndGet(),
+					Math::max);
+				try {
+					sleep(5);
+				} finally {
+					inFlight.decrementAndGet();
+				}
+
+				return Collections.emptyList();
+			};
+
+			// two concurrent calls for the same tenant share its limit
+			final ExecutorService callers = Executors.newFixedThreadPool(2);
+			try {
+				final List<Future<List<ScanUuidScannerId>>> calls =
+					new ArrayList<>();
+				for (int i = 0; i < 2; i++) {
+					calls.add(callers.submit(
+						() -> dispatcher.dispatch(createBatches(10).iterator(), 42, sender)));
+				}
+				for (final Future<List<ScanUuidScannerId>> call : calls) {
+					call.get(1, TimeUnit.MINUTES);
+				}
+			} finally {
+				callers.shutdown();
+			}
+
+			assertTrue(maxObserved.get() <= maxInFlightBatches,
+				"more batches were in flight than allowed: " + maxObserved);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testThatNoBatchesAreSentAfterAFailure() {
+		final AtomicInteger sent = new AtomicInteger();
+		final ScanSurfaceDispatcher dispatcher =
+			new ScanSurfaceDispatcher(Runnable::run, 1);
+
+		final ApiException exception = assertThrows(ApiException.class,
+			() -> dispatcher.dispatch(createBatches(4).iterator(), null, batch -> {
+				sent.incrementAndGet();
+				final int index = Integer.parseInt(batch.getScanTargets().get(0));
+				if (index >= 1) {
+					throw new ApiException(401, "batch " + index);
+				}
+
+				return Collections.emptyList();
+			}));
+
+		assertEquals(401, exception.getCode());
+		assertEquals("batch 1", exception.getMessage());
+		assertEquals(2, sent.get());
+	}
+
+	@Test
+	void testThatFailuresOfBatchesInFlightAreSuppressed() throws Exception {
+		final CountDownLatch bothSent = new CountDownLatch(2);
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final ScanSurfaceDispatcher dispatcher =
+				new ScanSurfaceDispatcher(executor, 2);
+
+			final ApiException exception = assertThrows(ApiException.class,
+				() -> dispatcher.dispatch(createBatches(2).iterator(), null,
+					batch -> {
+						bothSent.countDown();
+						await(bothSent);
+						final int index =
+							Integer.parseInt(batch.getScanTargets().get(0));
+						throw new ApiException(500 + index, "batch " + index);
+					}));
+
+			assertEquals(500, exception.getCode());
+			assertEquals(1, exception.getSuppressed().length);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void await(final CountDownLatch latch) throws ApiException {
+		try {
+			latch.await();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApiException(e);
+		}
+	}
+
+	private static void sleep(final long millis) throws ApiException {
+		try {
+			Thread.sleep(millis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApiException(e);
+		}
+	}
+
+	private static List<ExtendMessageRequest> createBatches(final int count) {
+		return IntStream.range(0, count)
+			.mapToObj(i -> new ExtendMessageRequest().scanTargets(
+				Collections.singletonList(String.valueOf(i))))
+			.collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.codacloud.ApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightLoginTest {
+
+	private static final int CALLERS = 16;
+
+	private final ExecutorService executor =
+		Executors.newFixedThreadPool(CALLERS);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void testThatConcurrentUnauthorizedCallsShareOneLogin() throws Exception {
+		final AtomicInteger logins = new AtomicInteger();
+		final CountDownLatch allUnauthorized = new CountDownLatch(CALLERS);
+		final CodaClient delegatee =
+			new FakeCodaClient().on("login", (client, args) -> {
+				Thread.sleep(50);
+				logins.incrementAndGet();
+				return client;
+			}).on("getScanners", (client, args) -> {
+				if (logins.get() == 0) {
+					// every caller fails before anyone logs in
+					allUnauthorized.countDown();
+					allUnauthorized.await(5, TimeUnit.SECONDS);
+					throw new ApiException(401, "unauthorized");
+				}
+				return Collections.emptyList();
+			}).create();
+		final CodaClient client = new RetryCodaClient(delegatee);
+
+		final List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			futures.add(executor.submit(() -> client.getScanners(1)));
+		}
+		for (final Future<?> future : futures) {
+			assertEquals(Collections.emptyList(),
+				future.get(10, TimeUnit.SECONDS));
+		}
+
+		assertEquals(1, logins.get());
+	}
+
+	@Test
+	void testThatConcurrentUnauthorizedCallsShareOneFailedLogin()
+		throws Exception {
+		final AtomicInteger logins = new AtomicInteger();
+		final CountDownLatch allUnauthorized = new CountDownLatch(CALLERS);
+		final ApiException loginFailure = new ApiException(500, "unavailable");
+		final CodaClient delegatee =
+			new FakeCodaClient().on("login", (client, args) -> {
+				Thread.sleep(50);
+				logins.incrementAndGet();
+				throw loginFailure;
+			}).on("getScanners", (client, args) -> {
+				allUnauthorized.countDown();
+				allUnauthorized.await(5, TimeUnit.SECONDS);
+				throw new ApiException(401, "unauthorized");
+			}).create();
+		final CodaClient client = new RetryCodaClient(delegatee);
+
+		final List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			futures.add(executor.submit(() -> client.getScanners(1)));
+		}
+		for (final Future<?> future : futures) {
+			final ExecutionException e = assertThrows(ExecutionException.class,
+				() -> future.get(10, TimeUnit.SECONDS));
+			assertSame(loginFailure, e.getCause());
+		}
+
+		assertEquals(1, logins.get());
+	}
+
+	@Test
+	void testThatExplicitLoginsAreNotSkipped() throws ApiException {
+		final AtomicInteger logins = new AtomicInteger();
+		final CodaClient client =
+			new RetryCodaClient(new FakeCodaClient().on("login", (fake, args) -> {
+				logins.incrementAndGet();
+				return fake;
+			}).create());
+
+		client.login();
+		client.login();
+
+		assertEquals(2, logins.get());
+	}
+
+}
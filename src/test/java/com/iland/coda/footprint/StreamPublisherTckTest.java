@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.tck.PublisherVerification;
+import org.reactivestreams.tck.TestEnvironment;
+import org.testng.annotations.AfterClass;
+
+import com.iland.coda.footprint.reactive.StreamPublisher;
+
+/**
+ * Runs the reactive-streams TCK against {@link StreamPublisher}.
+ */
+public class StreamPublisherTckTest extends PublisherVerification<Long> {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	public StreamPublisherTckTest() {
+		super(new TestEnvironment());
+	}
+
+	@AfterClass
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Override
+	public Publisher<Long> createPublisher(final long elements) {
+		return new StreamPublisher<>(
+			() -> LongStream.range(0, elements).boxed(), executor);
+	}
+
+	@Override
+	public Publisher<Long> createFailedPublisher() {
+		// the stream is only opened on demand, so failures need a request
+		return null;
+	}
+
+}
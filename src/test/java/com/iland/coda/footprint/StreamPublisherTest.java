@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import net.codacloud.ApiException;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.iland.coda.footprint.pagination.PageFetcher;
+import com.iland.coda.footprint.pagination.Paginator;
+import com.iland.coda.footprint.reactive.StreamPublisher;
+
+class StreamPublisherTest {
+
+	private static final int TOTAL_PAGES = 5;
+	private static final int PAGE_SIZE = 2;
+
+	@Test
+	void testThatPagesAreFetchedOnDemand() {
+		final AtomicInteger fetched = new AtomicInteger();
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		createPublisher(pageNo -> {
+			fetched.incrementAndGet();
+			return pageNo;
+		}).subscribe(subscriber);
+
+		assertEquals(0, fetched.get(), "pages were fetched without demand");
+
+		subscriber.subscription.request(3);
+		assertEquals(Arrays.asList(0, 1, 2), subscriber.items);
+		assertEquals(2, fetched.get());
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(IntStream.range(0, TOTAL_PAGES * PAGE_SIZE)
+			.boxed()
+			.collect(Collectors.toList()), subscriber.items);
+		assertTrue(subscriber.completed);
+		assertEquals(TOTAL_PAGES, fetched.get());
+	}
+
+	@Test
+	void testThatCancellationStopsEmission() {
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		createPublisher(pageNo -> pageNo).subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(10);
+
+		assertEquals(Arrays.asList(0), subscriber.items);
+		assertFalse(subscriber.completed);
+	}
+
+	@Test
+	void testThatFailuresAreSignalled() {
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		createPublisher(pageNo -> {
+			if (pageNo == 2) {
+				throw new ApiException(500, "boom");
+			}
+
+			return pageNo;
+		}).subscribe(subscriber);
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		assertEquals(Arrays.asList(0, 1), subscriber.items);
+		assertEquals(500, ((ApiException) subscriber.failure).getCode());
+	}
+
+	@Test
+	void testThatNonPositiveRequestsAreRejected() {
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		createPublisher(pageNo -> pageNo).subscribe(subscriber);
+
+		subscriber.subscription.request(0);
+
+		assertTrue(subscriber.failure instanceof IllegalArgumentException);
+	}
+
+	private static StreamPublisher<Integer> createPublisher(
+		final PageFetcher<Integer> fetcher) {
+		final Paginator<Integer, Integer> paginator =
+			new Paginator<>(fetcher, pageNo -> pageNo, pageNo -> TOTAL_PAGES,
+				pageNo -> TOTAL_PAGES * PAGE_SIZE,
+				pageNo -> IntStream.range((pageNo - 1) * PAGE_SIZE,
+					pageNo * PAGE_SIZE).boxed().collect(Collectors.toList()));
+
+		return new StreamPublisher<>(() -> paginator.stream(0), Runnable::run);
+	}
+
+	private static final class RecordingSubscriber
+		implements Subscriber<Integer> {
+
+		private final List<Integer> items = new ArrayList<>();
+		private Subscription subscription;
+		private Throwable failure;
+		private boolean completed;
+
+		@Override
+		public void onSubscribe(final Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(final Integer item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			failure = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.coda.footprint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.codacloud.ApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.iland.coda.footprint.CodaClient.ReportType;
+
+class TechnicalReportSplitsTest {
+
+	private static final String REPORT = "{\"technicalReport\":[],\"id\":1}";
+	private static final String TECHNICAL_REPORT =
+		"{\"technicalReport\":[{\"id\":2}]}";
+	private static final String MERGED =
+		"{\"technicalReport\":[{\"id\":2}],\"id\":1}";
+
+	private final AtomicInteger reports = new AtomicInteger();
+	private final AtomicBoolean fetchedConcurrently = new AtomicBoolean();
+	private volatile CountDownLatch technicalReportRequested =
+		new CountDownLatch(1);
+	private ExecutorService executor;
+	private HttpServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		executor = Executors.newCachedThreadPool();
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(executor);
+		server.createContext("/", exchange -> {
+			final String query = exchange.getRequestURI().getQuery();
+			if (query != null && query.contains("is_technical_report_only=true")) {
+				technicalReportRequested.countDown();
+				respond(exchange, TECHNICAL_REPORT);
+				return;
+			}
+
+			if (reports.incrementAndGet() > 1) {
+				try {
+					fetchedConcurrently.set(
+						technicalReportRequested.await(5, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			respond(exchange, REPORT);
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	@Test
+	void testThatSplitTenantsFetchBothPartsConcurrently() throws ApiException {
+		final SimpleCodaClient client = new SimpleCodaClient(
+			"http://localhost:" + server.getAddress().getPort() + "/api",
+			new KeyAuthentication("key"));
+
+		assertEquals(MERGED, client.getCvrJson("2022-01-01T00:00:00",
+			ReportType.values()[0], 1));
+		assertFalse(fetchedConcurrently.get());
+		assertTrue(client.technicalReportSplits.isExpected(1));
+
+		technicalReportRequested = new CountDownLatch(1);
+		assertEquals(MERGED, client.getCvrJson("2022-01-01T00:00:00",
+			ReportType.values()[0], 1));
+		assertTrue(fetchedConcurrently.get(),
+			"the technical report was not requested while the report was in flight");
+		assertFalse(client.technicalReportSplits.isExpected(2));
+	}
+
+	private static void respond(final HttpExchange exchange, final String json)
+		throws IOException {
+		final byte[] bytes = json.getBytes(UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (final OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2023, iland Internet Solutions, Corp
+ *
+ * This software is licensed under the Terms and Conditions contained within the
+ * "LICENSE.txt" file that accompanied this software. Any inquiries concerning
+ * the scope or enforceability of the license should be addressed to:
+ *
+ * iland Internet Solutions, Corp
+ * 1235 North Loop West, Suite 800
+ * Houston, TX 77008
+ * USA
+ *
+ * http://www.iland.com
+ */
+
+
+package com.iland.networking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.net.util.SubnetUtils;
+import org.junit.jupiter.api.Test;
+
+final class CidrTest {
+
+	@Test
+	void hostsMatchSubnetUtils() {
+		Stream.of("10.0.0.0/22", "127.0.0.255/30", "192.168.0.255/27",
+			"172.16.0.0/28", "255.255.255.0/24", "10.0.0.1/31", "10.0.0.1/32")
+			.forEach(cidr -> {
+				final List<String> hosts = new ArrayList<>();
+				Cidr.parse(cidr).hosts().forEachRemaining(hosts::add);
+
+				final SubnetUtils.SubnetInfo info = new SubnetUtils(cidr).getInfo();
+				assertEquals(Arrays.asList(info.getAllAddresses()), hosts, cidr);
+				assertEquals(info.getAddressCountLong(),
+					Cidr.parse(cidr).getHostCount(), cidr);
+			});
+	}
+
+	@Test
+	void hostsAreLazy() {
+		final Cidr cidr = Cidr.parse("0.0.0.0/0");
+
+		assertEquals(4294967294L, cidr.getHostCount());
+		assertEquals("0.0.0.1", cidr.hosts().next());
+		assertEquals("255.255.255.255", Cidr.format(cidr.getBroadcast()));
+	}
+
+	@Test
+	void parse() {
+		assertEquals("10.0.0.0/8", Cidr.parse("10.1.2.3/8").toString());
+		assertEquals(Cidr.parse("10.0.0.0/8"), Cidr.parse("10.255.0.0/8"));
+
+		Stream.of("10.0.0.256/24", "10.0.0/24", "10.0.0.0/33", "10.0.0.0",
+				"10.0.0.0.0/8")
+			.forEach(cidr -> assertThrows(IllegalArgumentException.class,
+				() -> Cidr.parse(cidr), cidr));
+		assertFalse(Cidr.parse("10.0.0.0/8").hosts().next().isEmpty());
+	}
+
+	@Test
+	void aggregate() {
+		final List<Cidr> blocks = Stream.of("10.0.1.0/24", "10.0.0.0/24",
+				"10.0.0.128/25", "10.0.2.0/24", "192.168.0.1/32", "192.168.0.0/32")
+			.map(Cidr::parse)
+			.collect(Collectors.toList());
+
+		assertEquals(Arrays.asList("10.0.0.0/23", "10.0.2.0/24",
+				"192.168.0.0/31"),
+			Cidr.aggregate(blocks)
+				.stream()
+				.map(Cidr::toString)
+				.collect(Collectors.toList()));
+		assertEquals(Collections.singletonList(Cidr.parse("0.0.0.0/0")),
+			Cidr.aggregate(Arrays.asList(Cidr.parse("0.0.0.0/1"),
+				Cidr.parse("128.0.0.0/1"))));
+	}
+
+	@Test
+	void subnets() {
+		final List<String> subnets = new ArrayList<>();
+		Cidr.parse("10.0.0.0/22").subnets(24)
+			.forEachRemaining(subnet -> subnets.add(subnet.toString()));
+
+		assertEquals(Arrays.asList("10.0.0.0/24", "10.0.1.0/24", "10.0.2.0/24",
+			"10.0.3.0/24"), subnets);
+		assertEquals(Cidr.parse("10.0.0.0/24"),
+			Cidr.parse("10.0.0.0/24").subnets(16).next());
+	}
+
+	@Test
+	void subtract() {
+		assertEquals(Arrays.asList("0.0.0.0/5", "8.0.0.0/7", "11.0.0.0/8",
+				"12.0.0.0/6"),
+			Cidr.parse("0.0.0.0/4")
+				.subtract(NetworkUtils.RFC1918_BLOCKS)
+				.stream()
+				.map(Cidr::toString)
+				.collect(Collectors.toList()));
+		assertEquals(Collections.emptyList(),
+			Cidr.parse("10.1.0.0/16").subtract(NetworkUtils.RFC1918_BLOCKS));
+	}
+
+	@Test
+	void hostsSkipExcludedBlocks() {
+		final List<String> hosts = new ArrayList<>();
+		Cidr.parse("10.0.0.0/29")
+			.hosts(Arrays.asList(Cidr.parse("10.0.0.2/31"),
+				Cidr.parse("10.0.0.4/32"), Cidr.parse("10.0.0.0/30")))
+			.forEachRemaining(hosts::add);
+
+		assertEquals(Arrays.asList("10.0.0.5", "10.0.0.6"), hosts);
+	}
+
+	@Test
+	void tryParseAddress() {
+		assertEquals(0xc0a80001L, Cidr.tryParseAddress("192.168.0.1"));
+		Stream.of("localhost", "1.2.3", "1.2.3.4.5", "1.2.3.256", "1..2.3",
+				"1.2.3.4/8", "", "0001.2.3.4")
+			.forEach(address -> assertEquals(-1,
+				Cidr.tryParseAddress(address), address));
+	}
+
+}
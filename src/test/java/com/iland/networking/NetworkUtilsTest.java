@@ -18,6 +18,7 @@ package com.iland.networking;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -52,4 +53,29 @@ final class NetworkUtilsTest {
 			.forEach(Assertions::assertTrue);
 	}
 
+	@Test
+	void isRFC1918IpAddressWithoutLookup() {
+		Stream.of("172.32.0.1", "9.255.255.255", "localhost",
+				"private.example.com", "fd00::1", "2001:db8::1", "fe80::1",
+				"::ffff:10.0.0.1", "10.0.0.0/8", "10.0.0.256", ":1:2", ":ab:",
+				"[:fd00:]")
+			.forEach(ip -> {
+				assertEquals(ip.equals("::ffff:10.0.0.1"),
+					NetworkUtils.isRFC1918IpAddress(ip), ip);
+				assertEquals(ip.equals("fd00::1") || ip.equals("::ffff:10.0.0.1"),
+					NetworkUtils.isPrivateIpAddress(ip), ip);
+			});
+	}
+
+	@Test
+	void iteratorSkipsExcludedBlocks() {
+		final List<String> actual = new ArrayList<>();
+		NetworkUtils.iterator(Arrays.asList("192.168.0.0/29", "8.8.8.8"),
+				Arrays.asList(Cidr.parse("192.168.0.4/30")))
+			.forEachRemaining(actual::add);
+
+		assertEquals(Arrays.asList("8.8.8.8", "192.168.0.1", "192.168.0.2",
+			"192.168.0.3"), actual);
+	}
+
 }